@@ -0,0 +1,47 @@
+package main.java;
+
+import main.java.util.Defs;
+import main.java.util.graph.CSRGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link GraphGenerator#generateGraph(GraphPanel)} for every graph
+ * size of {@link Defs#graphSizes}, in both shortest path and MST mode.
+ *
+ * @author Ryan Albertson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GeneratorBenchmark {
+
+    @Param({"Small", "Medium", "Large"})
+    public String graphSize;
+
+    @Param({"true", "false"})
+    public boolean isShortPathAlg;
+
+    private GraphPanel gPanel;
+
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        gPanel = new GraphPanel();
+        gPanel.graphSize = graphSize;
+        gPanel.isShortPathAlg = isShortPathAlg;
+    }
+
+
+    @Benchmark
+    public CSRGraph generateGraph() {
+
+        GraphGenerator.generateGraph(gPanel);
+        return gPanel.csrGraph;
+    }
+}
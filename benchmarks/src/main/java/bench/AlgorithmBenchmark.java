@@ -0,0 +1,69 @@
+package main.java.bench;
+
+import main.java.util.Defs;
+import main.java.util.algorithms.Algorithm;
+import main.java.util.algorithms.AlgorithmFactory;
+import main.java.util.algorithms.CountingSink;
+import main.java.util.graph.CSRGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every algorithm of {@link Defs#algNames} headlessly, without animation,
+ * on the small, medium and large graph sizes of {@link Defs#nodeCountST}.
+ *
+ * @author Ryan Albertson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class AlgorithmBenchmark {
+
+    @Param({"Depth-First Search", "Breadth-First Search", "Dijkstra", "A*",
+            "A* (ALT)", "Bidirectional Dijkstra", "Bidirectional A*",
+            "Contraction Hierarchies", "Bellman-Ford", "Delta-Stepping",
+            "Floyd-Warshall", "Johnson", "Reverse Delete", "Kruskal", "Prim",
+            "Boruvka"})
+    public String algName;
+
+    @Param({"Small", "Medium", "Large"})
+    public String graphSize;
+
+    // Edges per node
+    @Param({"2", "5"})
+    public double density;
+
+    @Param({"42"})
+    public long seed;
+
+    private CSRGraph graph;
+    private int sourceNode;
+    private int targetNode;
+
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        int nodeCount = Defs.nodeCountST.get(graphSize);
+        graph = BenchmarkGraphs.generate(nodeCount, density, seed);
+        Random rand = new Random(seed);
+        sourceNode = rand.nextInt(nodeCount);
+        targetNode = (sourceNode + 1 + rand.nextInt(nodeCount - 1)) % nodeCount;
+    }
+
+
+    @Benchmark
+    public CountingSink run() {
+
+        CountingSink sink = new CountingSink();
+        Algorithm algorithm = AlgorithmFactory.create(algName, graph, sink,
+                sourceNode, targetNode);
+        algorithm.run();
+        return sink;
+    }
+}
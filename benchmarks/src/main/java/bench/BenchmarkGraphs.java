@@ -0,0 +1,131 @@
+package main.java.bench;
+
+import main.java.util.graph.CSRGraph;
+import main.java.util.graph.IndexedGraph;
+import main.java.util.graph.MappedGraph;
+import main.java.util.io.DimacsFormat;
+import main.java.util.io.EdgeListFormat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Builds the fixed, seeded graphs that the benchmarks run on. These don't use
+ * {@link main.java.GraphGenerator}, so that changes to the generator can't
+ * change the inputs of the algorithm benchmarks.
+ *
+ * @author Ryan Albertson
+ */
+public final class BenchmarkGraphs {
+
+    // Average pixel spacing between nodes, similar to the GUI's large graph
+    private static final double NODE_SPACING = 100.0;
+
+
+    private BenchmarkGraphs() {
+
+    }
+
+
+    /**
+     * Generates a connected graph with random node coordinates and euclidean
+     * edge weights. A random spanning tree guarantees connectivity, then random
+     * edges are added until the requested density is reached.
+     *
+     * @param nodeCount Number of nodes.
+     * @param density   Edges per node. At least a spanning tree is generated.
+     * @param seed      Seed of the random generator.
+     * @return The graph.
+     */
+    public static CSRGraph generate(int nodeCount, double density, long seed) {
+
+        Random rand = new Random(seed);
+        double side = Math.sqrt(nodeCount) * NODE_SPACING;
+        double[] nodeX = new double[nodeCount];
+        double[] nodeY = new double[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            nodeX[node] = rand.nextDouble() * side;
+            nodeY[node] = rand.nextDouble() * side;
+        }
+
+        long maxEdges = (long) nodeCount * (nodeCount - 1) / 2;
+        int edgeCount = (int) Math.min(maxEdges,
+                Math.max(nodeCount - 1, Math.round(nodeCount * density)));
+
+        // Edges are packed as (smaller node << 32 | larger node) to find duplicates
+        long[] keys = new long[edgeCount];
+        int count = 0;
+        for (int node = 1; node < nodeCount; node++) {
+            keys[count++] = key(node, rand.nextInt(node));
+        }
+        while (true) {
+            while (count < edgeCount) {
+                int node = rand.nextInt(nodeCount);
+                int adjNode = rand.nextInt(nodeCount);
+                if (node != adjNode) keys[count++] = key(node, adjNode);
+            }
+            Arrays.sort(keys, 0, count);
+            int unique = 0;
+            for (int i = 0; i < count; i++) {
+                if (unique == 0 || keys[i] != keys[unique - 1]) keys[unique++] = keys[i];
+            }
+            count = unique;
+            if (count == edgeCount) break;
+        }
+
+        // Shuffle so edge ids aren't sorted by endpoint
+        for (int i = edgeCount - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            long swap = keys[i];
+            keys[i] = keys[j];
+            keys[j] = swap;
+        }
+
+        int[] sources = new int[edgeCount];
+        int[] targets = new int[edgeCount];
+        double[] weights = new double[edgeCount];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            sources[edge] = (int) (keys[edge] >>> 32);
+            targets[edge] = (int) keys[edge];
+            weights[edge] = Math.hypot(nodeX[sources[edge]] - nodeX[targets[edge]],
+                    nodeY[sources[edge]] - nodeY[targets[edge]]);
+        }
+        return CSRGraph.fromEdges(nodeCount, sources, targets, weights, nodeX,
+                nodeY);
+    }
+
+
+    /**
+     * Loads a graph file. {@code .gr} files are read as DIMACS graphs, with
+     * coordinates from the {@code .co} file next to them if there is one.
+     * {@code .avgr} files are mapped as {@link MappedGraph} snapshots, and
+     * anything else is read as an edge list.
+     *
+     * @param file Graph file.
+     * @return The graph.
+     * @throws IOException If the file can't be read.
+     */
+    public static IndexedGraph load(Path file) throws IOException {
+
+        String name = file.getFileName().toString();
+        if (name.endsWith(".gr")) {
+            Path coordFile = file.resolveSibling(name.substring(0, name.length() - 3)
+                    + ".co");
+            return DimacsFormat.read(file, Files.exists(coordFile) ? coordFile : null);
+        }
+        if (name.endsWith(".avgr")) return MappedGraph.open(file);
+        return EdgeListFormat.read(file);
+    }
+
+
+    /**
+     * @return Key of the undirected edge between two nodes.
+     */
+    private static long key(int node, int adjNode) {
+
+        return (long) Math.min(node, adjNode) << 32 | Math.max(node, adjNode);
+    }
+}
@@ -0,0 +1,29 @@
+package main.java.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler attached, so allocation rates are
+ * reported next to every score. Accepts the usual JMH command line options,
+ * for example a benchmark name regex or {@code -p nodeCount=10000}.
+ *
+ * @author Ryan Albertson
+ */
+public class BenchmarkMain {
+
+    /**
+     * Launches the benchmarks.
+     */
+    public static void main(String[] args) throws Exception {
+
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,62 @@
+package main.java.bench;
+
+import main.java.util.apsp.BlockedFloydWarshall;
+import main.java.util.apsp.DistanceMatrix;
+import main.java.util.graph.CSRGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link BlockedFloydWarshall} with a single thread and with every
+ * core, to show how the tiled phases scale.
+ *
+ * @author Ryan Albertson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class FloydWarshallBenchmark {
+
+    @Param({"500", "1000", "2000"})
+    public int nodeCount;
+
+    // Worker threads, or zero for one per core
+    @Param({"1", "0"})
+    public int threads;
+
+    @Param({"42"})
+    public long seed;
+
+    private CSRGraph graph;
+    private ForkJoinPool pool;
+    private BlockedFloydWarshall engine;
+
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        graph = BenchmarkGraphs.generate(nodeCount, 5, seed);
+        pool = new ForkJoinPool(threads == 0
+                ? Runtime.getRuntime().availableProcessors() : threads);
+        engine = new BlockedFloydWarshall(pool, BlockedFloydWarshall.TILE_SIZE);
+    }
+
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+
+        pool.shutdown();
+    }
+
+
+    @Benchmark
+    public DistanceMatrix compute() {
+
+        return engine.compute(graph);
+    }
+}
@@ -0,0 +1,57 @@
+package main.java.bench;
+
+import main.java.util.structures.IndexedMinHeap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link IndexedMinHeap} with each arity on a Dijkstra-like workload:
+ * inserts, a few decrease-keys per id, then polling every id.
+ *
+ * @author Ryan Albertson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeapBenchmark {
+
+    @Param({"2", "4", "8"})
+    public int arity;
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    @Param({"42"})
+    public long seed;
+
+    private double[] keys;
+    private int[] decreases;
+
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        Random rand = new Random(seed);
+        keys = new double[size];
+        for (int i = 0; i < size; i++) keys[i] = rand.nextDouble();
+        decreases = new int[2 * size];
+        for (int i = 0; i < decreases.length; i++) decreases[i] = rand.nextInt(size);
+    }
+
+
+    @Benchmark
+    public long insertDecreasePoll() {
+
+        IndexedMinHeap heap = new IndexedMinHeap(size, arity);
+        for (int id = 0; id < size; id++) heap.insert(id, keys[id]);
+        for (int id : decreases) heap.decreaseKey(id, heap.key(id) * 0.5);
+        long checksum = 0;
+        while (!heap.isEmpty()) checksum += heap.poll();
+        return checksum;
+    }
+}
@@ -0,0 +1,67 @@
+package main.java.bench;
+
+import main.java.util.apsp.DistanceMatrix;
+import main.java.util.apsp.ParallelJohnson;
+import main.java.util.graph.CSRGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ParallelJohnson} on sparse graphs with a single thread and
+ * with every core. Compare with {@link FloydWarshallBenchmark} at the same
+ * node counts.
+ *
+ * @author Ryan Albertson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class JohnsonBenchmark {
+
+    @Param({"500", "1000", "2000", "5000"})
+    public int nodeCount;
+
+    // Edges per node
+    @Param({"2"})
+    public double density;
+
+    // Worker threads, or zero for one per core
+    @Param({"1", "0"})
+    public int threads;
+
+    @Param({"42"})
+    public long seed;
+
+    private CSRGraph graph;
+    private ForkJoinPool pool;
+    private ParallelJohnson engine;
+
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        graph = BenchmarkGraphs.generate(nodeCount, density, seed);
+        pool = new ForkJoinPool(threads == 0
+                ? Runtime.getRuntime().availableProcessors() : threads);
+        engine = new ParallelJohnson(pool);
+    }
+
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+
+        pool.shutdown();
+    }
+
+
+    @Benchmark
+    public DistanceMatrix compute() {
+
+        return engine.compute(graph);
+    }
+}
@@ -0,0 +1,54 @@
+package main.java.bench;
+
+import main.java.util.algorithms.CountingSink;
+import main.java.util.algorithms.Kruskal;
+import main.java.util.graph.CSRGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link Kruskal} sorting every edge against its Filter-Kruskal mode,
+ * on sparse and dense graphs.
+ *
+ * @author Ryan Albertson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class KruskalBenchmark {
+
+    @Param({"true", "false"})
+    public boolean isFiltered;
+
+    @Param({"100000"})
+    public int nodeCount;
+
+    // Edges per node
+    @Param({"2", "20"})
+    public double density;
+
+    @Param({"42"})
+    public long seed;
+
+    private CSRGraph graph;
+
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        graph = BenchmarkGraphs.generate(nodeCount, density, seed);
+    }
+
+
+    @Benchmark
+    public CountingSink run() {
+
+        CountingSink sink = new CountingSink();
+        new Kruskal(graph, sink, isFiltered).run();
+        return sink;
+    }
+}
@@ -0,0 +1,62 @@
+package main.java.bench;
+
+import main.java.GraphGenerator;
+import main.java.util.graph.CSRGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link GraphGenerator#generate(int, int, long, ForkJoinPool)} on
+ * graphs far larger than the GUI shows, with a single thread and with every
+ * core.
+ *
+ * @author Ryan Albertson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class LargeGeneratorBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int nodeCount;
+
+    // Minimum edges per node, zero for an approx. minimally connected graph
+    @Param({"0", "5"})
+    public int density;
+
+    // Worker threads, or zero for one per core
+    @Param({"1", "0"})
+    public int threads;
+
+    @Param({"42"})
+    public long seed;
+
+    private ForkJoinPool pool;
+
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        pool = new ForkJoinPool(threads == 0
+                ? Runtime.getRuntime().availableProcessors() : threads);
+    }
+
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+
+        pool.shutdown();
+    }
+
+
+    @Benchmark
+    public CSRGraph generate() {
+
+        return GraphGenerator.generate(nodeCount, density * nodeCount, seed, pool);
+    }
+}
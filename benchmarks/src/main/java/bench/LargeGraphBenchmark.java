@@ -0,0 +1,79 @@
+package main.java.bench;
+
+import main.java.util.algorithms.Algorithm;
+import main.java.util.algorithms.AlgorithmFactory;
+import main.java.util.algorithms.CountingSink;
+import main.java.util.graph.IndexedGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs algorithms headlessly on graphs far larger than the GUI shows. By default
+ * only the algorithms that finish in reasonable time at a million nodes are
+ * included. Others can be added from the command line, for example
+ * {@code -p algName=Bellman-Ford -p nodeCount=10000}.
+ * <p>
+ * Real graphs are run with {@code -p graphFile=USA-road-d.NY.gr -p nodeCount=0},
+ * see {@link BenchmarkGraphs#load} for the file types. The generated node
+ * count is then ignored.
+ *
+ * @author Ryan Albertson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class LargeGraphBenchmark {
+
+    @Param({"Depth-First Search", "Breadth-First Search", "Dijkstra", "A*",
+            "A* (ALT)", "Bidirectional Dijkstra", "Bidirectional A*", "Delta-Stepping",
+            "Reverse Delete", "Kruskal", "Prim", "Boruvka"})
+    public String algName;
+
+    @Param({"10000", "100000", "1000000"})
+    public int nodeCount;
+
+    // Edges per node
+    @Param({"2", "5"})
+    public double density;
+
+    @Param({"42"})
+    public long seed;
+
+    // Graph file to run on instead of a generated graph, if not empty
+    @Param({""})
+    public String graphFile;
+
+    private IndexedGraph graph;
+    private int sourceNode;
+    private int targetNode;
+
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+
+        graph = graphFile.isEmpty() ? BenchmarkGraphs.generate(nodeCount, density, seed)
+                : BenchmarkGraphs.load(Paths.get(graphFile));
+        Random rand = new Random(seed);
+        sourceNode = rand.nextInt(graph.nodeCount());
+        targetNode = (sourceNode + 1 + rand.nextInt(graph.nodeCount() - 1))
+                % graph.nodeCount();
+    }
+
+
+    @Benchmark
+    public CountingSink run() {
+
+        CountingSink sink = new CountingSink();
+        Algorithm algorithm = AlgorithmFactory.create(algName, graph, sink,
+                sourceNode, targetNode);
+        algorithm.run();
+        return sink;
+    }
+}
@@ -0,0 +1,94 @@
+package main.java.bench;
+
+import main.java.util.algorithms.CountingSink;
+import main.java.util.algorithms.Dijkstra;
+import main.java.util.graph.CSRGraph;
+import main.java.util.graph.IndexedGraph;
+import main.java.util.graph.MappedGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures opening a {@link MappedGraph} snapshot, and Dijkstra's algorithm
+ * running on the mapped buffers compared with the same graph on the heap.
+ *
+ * @author Ryan Albertson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class MappedGraphBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int nodeCount;
+
+    // Edges per node
+    @Param({"2"})
+    public double density;
+
+    @Param({"42"})
+    public long seed;
+
+    private Path file;
+    private CSRGraph heapGraph;
+    private MappedGraph mappedGraph;
+    private int sourceNode;
+    private int targetNode;
+
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+
+        heapGraph = BenchmarkGraphs.generate(nodeCount, density, seed);
+        file = Files.createTempFile("graph", ".avgr");
+        MappedGraph.write(heapGraph, file);
+        mappedGraph = MappedGraph.open(file);
+        Random rand = new Random(seed);
+        sourceNode = rand.nextInt(nodeCount);
+        targetNode = (sourceNode + 1 + rand.nextInt(nodeCount - 1)) % nodeCount;
+    }
+
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+
+        Files.deleteIfExists(file);
+    }
+
+
+    @Benchmark
+    public MappedGraph open() throws IOException {
+
+        return MappedGraph.open(file);
+    }
+
+
+    @Benchmark
+    public CountingSink dijkstraHeap() {
+
+        return dijkstra(heapGraph);
+    }
+
+
+    @Benchmark
+    public CountingSink dijkstraMapped() {
+
+        return dijkstra(mappedGraph);
+    }
+
+
+    private CountingSink dijkstra(IndexedGraph graph) {
+
+        CountingSink sink = new CountingSink();
+        new Dijkstra(graph, sink, sourceNode, targetNode).run();
+        return sink;
+    }
+}
@@ -0,0 +1,82 @@
+package main.java.bench;
+
+import main.java.util.algorithms.AlgorithmFactory;
+import main.java.util.algorithms.CountingSink;
+import main.java.util.graph.CSRGraph;
+import main.java.util.paths.PathCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers a batch of queries from one source to many targets, as when only
+ * the target changes, with and without a {@link PathCache}. Cached queries of
+ * exact algorithms share one shortest path tree, so only the first searches.
+ *
+ * @author Ryan Albertson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class PathCacheBenchmark {
+
+    @Param({"Dijkstra", "A*", "Bidirectional Dijkstra"})
+    public String algName;
+
+    @Param({"100000"})
+    public int nodeCount;
+
+    // Edges per node
+    @Param({"2"})
+    public double density;
+
+    // Targets queried from the same source
+    @Param({"64"})
+    public int targetCount;
+
+    @Param({"42"})
+    public long seed;
+
+    private CSRGraph graph;
+    private int sourceNode;
+    private int[] targetNodes;
+
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        graph = BenchmarkGraphs.generate(nodeCount, density, seed);
+        Random rand = new Random(seed);
+        sourceNode = rand.nextInt(nodeCount);
+        targetNodes = rand.ints(targetCount, 0, nodeCount).toArray();
+    }
+
+
+    @Benchmark
+    public double uncached() {
+
+        double steps = 0;
+        for (int targetNode : targetNodes) {
+            CountingSink sink = new CountingSink();
+            AlgorithmFactory.create(algName, graph, sink, sourceNode, targetNode).run();
+            steps += sink.getSteps();
+        }
+        return steps;
+    }
+
+
+    @Benchmark
+    public double cached() {
+
+        PathCache cache = new PathCache(1L << 26);
+        double distance = 0;
+        for (int targetNode : targetNodes) {
+            distance += cache.query(graph, algName, sourceNode, targetNode).distance();
+        }
+        return distance;
+    }
+}
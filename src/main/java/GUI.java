@@ -4,6 +4,10 @@ import main.java.util.Defs;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Launches a GUI application that allows users to interactively generate graphs
@@ -22,6 +26,8 @@ public class GUI extends JFrame {
     private JComboBox<String> chooseSpeed;
     private JComboBox<String> chooseAlgName;
     private JComboBox<String> chooseGraphSize;
+    private JSlider scrubber;
+    private boolean isUpdatingScrubber;
 
 
     /**
@@ -107,6 +113,22 @@ public class GUI extends JFrame {
         stopButton.addActionListener(event -> gPanel.stopAlgorithm());
         menu.add(stopButton);
 
+        JButton raceButton = new JButton("Race");
+        raceButton.setFont(new Font("Ariel", Font.PLAIN, 18));
+        raceButton.setToolTipText("Run several algorithms side by side");
+        raceButton.addActionListener(event -> openRace());
+        menu.add(raceButton);
+
+        // Scrubs through the recorded animation, forwards or backwards
+        scrubber = new JSlider(0, 0, 0);
+        scrubber.setBackground(Color.DARK_GRAY);
+        scrubber.setToolTipText("Drag to seek through the animation");
+        scrubber.addChangeListener(event -> {
+            if (!isUpdatingScrubber) gPanel.seekAnimation(scrubber.getValue());
+        });
+        new Timer(50, event -> updateScrubber()).start();
+        menu.add(scrubber);
+
         chooseSpeed = new JComboBox<>();
         Defs.speeds.forEach(chooseSpeed::addItem);
         // Default. See GraphPanel constructor
@@ -137,6 +159,70 @@ public class GUI extends JFrame {
     }
 
 
+    /**
+     * Moves the scrubber to the step of the animation that is shown, unless the
+     * user is dragging it.
+     */
+    private void updateScrubber() {
+
+        if (scrubber.getValueIsAdjusting()) return;
+        isUpdatingScrubber = true;
+        scrubber.setMaximum(gPanel.traceLength());
+        scrubber.setValue(gPanel.tracePosition());
+        isUpdatingScrubber = false;
+    }
+
+
+    /**
+     * Asks the user which algorithms to race, then races them on the current
+     * graph in a new window. Only algorithms of the current kind, shortest path
+     * or minimum spanning tree, are offered.
+     */
+    private void openRace() {
+
+        if (gPanel.isShortPathAlg && (gPanel.sourceNode == null
+                || gPanel.targetNode == null)) {
+            JOptionPane.showMessageDialog(frame,
+                    "Click nodes to define a source and target first");
+            return;
+        }
+
+        JPanel choices = new JPanel(new GridLayout(0, 2));
+        List<JCheckBox> checkBoxes = new ArrayList<>();
+        for (String algName : Defs.algNames) {
+            if (Defs.isShortPathAlg.get(algName) != gPanel.isShortPathAlg) continue;
+            JCheckBox checkBox = new JCheckBox(algName,
+                    Defs.raceAlgNames.contains(algName));
+            checkBoxes.add(checkBox);
+            choices.add(checkBox);
+        }
+        int choice = JOptionPane.showConfirmDialog(frame, choices,
+                "Choose algorithms to race", JOptionPane.OK_CANCEL_OPTION);
+        if (choice != JOptionPane.OK_OPTION) return;
+
+        List<String> algNames = new ArrayList<>();
+        for (JCheckBox checkBox : checkBoxes) {
+            if (checkBox.isSelected()) algNames.add(checkBox.getText());
+        }
+        if (algNames.isEmpty()) return;
+
+        gPanel.stopAlgorithm();
+        RacePanel racePanel = new RacePanel(gPanel, algNames);
+        JFrame raceFrame = new JFrame("Algorithm race");
+        raceFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        raceFrame.setSize(WINDOW_WIDTH, WINDOW_HEIGHT);
+        raceFrame.add(racePanel);
+        raceFrame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent event) {
+
+                racePanel.close();
+            }
+        });
+        raceFrame.setVisible(true);
+    }
+
+
     /**
      * Launches the application.
      */
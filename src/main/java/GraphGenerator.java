@@ -1,58 +1,251 @@
 package main.java;
 
 import main.java.util.Defs;
-import org.jgrapht.graph.DefaultUndirectedWeightedGraph;
-import org.jgrapht.graph.DefaultWeightedEdge;
+import main.java.util.graph.CSRGraph;
+import main.java.util.graph.SpatialGrid;
 
 import java.awt.*;
 import java.awt.geom.Ellipse2D;
 import java.util.*;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
 
 /**
- * Generates a {@link DefaultUndirectedWeightedGraph} that is minimally connected
- * and weighted.Then writes it to a file. The graph size can be provided.
+ * Generates a {@link CSRGraph} that is minimally connected and weighted. The
+ * graph size can be provided.
  *
  * @author Ryan Albertson
  */
-public class GraphGenerator extends DefaultWeightedEdge {
+public class GraphGenerator {
+
+    // Nodes, or edges, per split of the work. Fixed, so that the random numbers
+    // drawn for each split don't depend on the number of threads
+    private static final int SPLIT_SIZE = 1 << 12;
+
+    // Odd multiplier that scrambles edge keys so that sorting them shuffles the
+    // edges, and its inverse modulo 2^64 that unscrambles them
+    private static final long KEY_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final long KEY_MULTIPLIER_INVERSE = inverse(KEY_MULTIPLIER);
+
+
+    /**
+     * @param node    A node.
+     * @param adjNode Another node.
+     * @return Key of the undirected edge between {@code node} and {@code adjNode}.
+     */
+    private static long edgeKey(int node, int adjNode) {
+
+        return (long) Math.min(node, adjNode) << 32 | Math.max(node, adjNode);
+    }
+
+
+    /**
+     * @param odd An odd number.
+     * @return Inverse of {@code odd} modulo 2^64, by Newton's iteration. Each
+     * iteration doubles the number of correct low bits, starting from 3.
+     */
+    private static long inverse(long odd) {
+
+        long inverse = odd;
+        for (int i = 0; i < 5; i++) inverse *= 2 - odd * inverse;
+        return inverse;
+    }
+
+
+    /**
+     * Generates a connected, undirected and weighted graph on the common pool.
+     *
+     * @see #generate(int, int, long, ForkJoinPool)
+     */
+    public static CSRGraph generate(int nodeCount, int minEdgeCount, long seed) {
+
+        return generate(nodeCount, minEdgeCount, seed, ForkJoinPool.commonPool());
+    }
+
 
     /**
-     * @param graph {@link DefaultUndirectedWeightedGraph} to check for connectivity.
-     * @return True if {@code graph} is connected, otherwise false.
+     * Generates a connected, undirected and weighted graph without jgrapht, so
+     * that graphs of millions of nodes are practical. A random tree, where
+     * every node joins a random earlier node, makes the graph connected. Then
+     * random edges are added until it has as many edges as a random graph
+     * needs to be connected, about (n / 2) ln n, and at least
+     * {@code minEdgeCount}. Nodes get random coordinates within the GUI's graph
+     * area, and edges are weighted by euclidean distance.
+     * <p>
+     * Nodes are split into fixed ranges, each drawing from its own
+     * {@link SplittableRandom} split off the seed in order, and the ranges are
+     * generated in parallel. Duplicate edges are removed by sorting, and
+     * replaced in further rounds. So a seed always generates the same graph,
+     * bit for bit, whatever the parallelism of {@code pool}.
+     *
+     * @param nodeCount    Number of nodes.
+     * @param minEdgeCount Minimum number of edges. Zero generates an
+     *                     approximately minimally connected graph.
+     * @param seed         Seed of the graph.
+     * @param pool         Pool that runs the splits.
+     * @return The graph.
      */
-    private static boolean isConnected(DefaultUndirectedWeightedGraph<Integer,
-            DefaultWeightedEdge> graph) {
-
-        Set<Integer> vertices = graph.vertexSet();
-
-        // Edges cases
-        if (vertices.size() <= 1) return true;
-        if (vertices.size() - 1 > graph.edgeSet().size()) return false;
-
-        Set<Integer> visited = new HashSet<>();
-        Deque<DefaultWeightedEdge> queue = new ArrayDeque<>();
-        Integer startNode = vertices.iterator().next();
-
-        // BFS to determine connectivity
-        visited.add(startNode);
-        graph.edgesOf(startNode).forEach(queue::addLast);
-        while (visited.size() != vertices.size() && queue.size() != 0) {
-            DefaultWeightedEdge edge = queue.pollFirst();
-            Integer source = graph.getEdgeSource(edge);
-            Integer target = graph.getEdgeTarget(edge);
-            Integer adjNode = visited.contains(source) ? target : source;
-            if (!visited.contains(adjNode)) {
-                visited.add(adjNode);
-                graph.edgesOf(adjNode).forEach(queue::addLast);
+    public static CSRGraph generate(int nodeCount, int minEdgeCount, long seed,
+                                    ForkJoinPool pool) {
+
+        long maxEdgeCount = (long) nodeCount * (nodeCount - 1) / 2;
+        long connectedEdgeCount = Math.round(nodeCount * Math.log(nodeCount) / 2);
+        int edgeCount = (int) Math.min(maxEdgeCount, Math.max(minEdgeCount,
+                Math.max(connectedEdgeCount, nodeCount - 1L)));
+        int nodeSplitCount = (nodeCount + SPLIT_SIZE - 1) / SPLIT_SIZE;
+        SplittableRandom seedRand = new SplittableRandom(seed);
+        long salt = seedRand.nextLong();
+
+        // Calculate random coordinates for nodes within GUI bounds, at their centers
+        int xLowerBound = -GUI.WINDOW_WIDTH / 2 + Defs.NODE_RADIUS;
+        int xUpperBound = GUI.WINDOW_WIDTH / 2 - Defs.NODE_RADIUS;
+        int textPadding = 30;
+        int yLowerBound = -GUI.GRAPH_HEIGHT / 2 + Defs.NODE_RADIUS + textPadding;
+        int yUpperBound = GUI.GRAPH_HEIGHT / 2 - Defs.NODE_RADIUS;
+        int xOffset = xLowerBound + GUI.WINDOW_WIDTH / 2 + Defs.NODE_RADIUS / 2;
+        int yOffset = yLowerBound + GUI.GRAPH_HEIGHT / 2 + Defs.NODE_RADIUS / 2;
+        double[] nodeX = new double[nodeCount];
+        double[] nodeY = new double[nodeCount];
+        SplittableRandom[] coordRands = split(seedRand, nodeSplitCount);
+        forEachSplit(pool, nodeSplitCount, split -> {
+            SplittableRandom rand = coordRands[split];
+            for (int node = splitStart(split); node < splitEnd(split, nodeCount); node++) {
+                nodeX[node] = rand.nextInt(xUpperBound - xLowerBound + 1) + xOffset;
+                nodeY[node] = rand.nextInt(yUpperBound - yLowerBound + 1) + yOffset;
+            }
+        });
+
+        // Scrambled keys of the edges. Starts with a random tree
+        long[] keys = new long[edgeCount];
+        SplittableRandom[] treeRands = split(seedRand, nodeSplitCount);
+        forEachSplit(pool, nodeSplitCount, split -> {
+            SplittableRandom rand = treeRands[split];
+            for (int node = Math.max(1, splitStart(split));
+                 node < splitEnd(split, nodeCount); node++) {
+                keys[node - 1] = (edgeKey(node, rand.nextInt(node)) ^ salt) * KEY_MULTIPLIER;
+            }
+        });
+
+        // Add random edges until there are enough distinct ones. Each round
+        // draws extra candidates in proportion to the node pairs already
+        // taken, so dense graphs don't need many rounds. Each split draws a
+        // share of the candidates proportional to its node count
+        int treeEdgeCount = Math.max(0, nodeCount - 1);
+        pool.invoke(ForkJoinTask.adapt(() -> Arrays.parallelSort(keys, 0, treeEdgeCount)));
+        int distinctCount = treeEdgeCount;
+        while (distinctCount < edgeCount) {
+            int missingCount = edgeCount - distinctCount;
+            int candidateCount = (int) Math.min(Integer.MAX_VALUE - 8, (long) Math.ceil(
+                    (double) missingCount * maxEdgeCount / (maxEdgeCount - distinctCount)));
+            long[] candidates = new long[candidateCount];
+            SplittableRandom[] edgeRands = split(seedRand, nodeSplitCount);
+            forEachSplit(pool, nodeSplitCount, split -> {
+                SplittableRandom rand = edgeRands[split];
+                int start = splitStart(split);
+                int end = splitEnd(split, nodeCount);
+                int i = (int) ((long) candidateCount * start / nodeCount);
+                int iEnd = (int) ((long) candidateCount * end / nodeCount);
+                for (; i < iEnd; i++) {
+                    int node = start + rand.nextInt(end - start);
+                    int adjNode = rand.nextInt(nodeCount - 1);
+                    if (adjNode >= node) adjNode++;
+                    candidates[i] = (edgeKey(node, adjNode) ^ salt) * KEY_MULTIPLIER;
+                }
+            });
+            pool.invoke(ForkJoinTask.adapt(() -> Arrays.parallelSort(candidates)));
+
+            // Keep the first missing candidates, in sorted order, that are new
+            // edges. They're moved to the front, over candidates already read
+            int newCount = 0;
+            int existing = 0;
+            long prevKey = 0;
+            for (int i = 0; i < candidateCount && newCount < missingCount; i++) {
+                long key = candidates[i];
+                if (i > 0 && key == prevKey) continue;
+                prevKey = key;
+                while (existing < distinctCount && keys[existing] < key) existing++;
+                if (existing < distinctCount && keys[existing] == key) continue;
+                candidates[newCount++] = key;
+            }
+
+            // Merge them into the sorted keys, from the back
+            int i = distinctCount - 1;
+            int j = newCount - 1;
+            for (int out = distinctCount + newCount - 1; j >= 0; out--) {
+                keys[out] = i >= 0 && keys[i] > candidates[j] ? keys[i--] : candidates[j--];
             }
+            distinctCount += newCount;
         }
-        return visited.size() == vertices.size();
+
+        // Unscramble the edges and weight them by euclidean distance
+        int[] sources = new int[edgeCount];
+        int[] targets = new int[edgeCount];
+        double[] weights = new double[edgeCount];
+        forEachSplit(pool, (edgeCount + SPLIT_SIZE - 1) / SPLIT_SIZE, split -> {
+            for (int edge = splitStart(split); edge < splitEnd(split, edgeCount); edge++) {
+                long key = keys[edge] * KEY_MULTIPLIER_INVERSE ^ salt;
+                sources[edge] = (int) (key >>> 32);
+                targets[edge] = (int) key;
+                weights[edge] = Math.hypot(nodeX[targets[edge]] - nodeX[sources[edge]],
+                        nodeY[targets[edge]] - nodeY[sources[edge]]);
+            }
+        });
+        return CSRGraph.fromEdges(nodeCount, sources, targets, weights, nodeX,
+                nodeY);
+    }
+
+
+    /**
+     * @param rand  Generator to split.
+     * @param count Number of generators.
+     * @return {@code count} generators split off {@code rand}, in order.
+     */
+    private static SplittableRandom[] split(SplittableRandom rand, int count) {
+
+        SplittableRandom[] rands = new SplittableRandom[count];
+        for (int i = 0; i < count; i++) rands[i] = rand.split();
+        return rands;
+    }
+
+
+    /**
+     * @return First node, or edge, of a split.
+     */
+    private static int splitStart(int split) {
+
+        return split * SPLIT_SIZE;
+    }
+
+
+    /**
+     * @return End of a split, exclusive, among {@code count} nodes or edges.
+     */
+    private static int splitEnd(int split, int count) {
+
+        return (int) Math.min(count, (long) (split + 1) * SPLIT_SIZE);
+    }
+
+
+    /**
+     * Runs {@code action} for every split in {@code pool}, and waits for all.
+     */
+    private static void forEachSplit(ForkJoinPool pool, int splitCount,
+                                     IntConsumer action) {
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(splitCount);
+        for (int split = 0; split < splitCount; split++) {
+            final int task = split;
+            tasks.add(ForkJoinTask.adapt(() -> action.accept(task)));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
     }
 
 
     /**
-     * Generates a connected, undirected, and weighted
-     * {@link DefaultUndirectedWeightedGraph}.
+     * Generates a connected, undirected, and weighted {@link CSRGraph}, and the
+     * node shapes that draw it.
      *
      * @param gPanel A {@link GraphPanel} that has all graph metadata.
      * @throws IllegalArgumentException If {@code graphSize} is null.
@@ -67,74 +260,33 @@ public class GraphGenerator extends DefaultWeightedEdge {
         // Define graph sizes
         gPanel.nodeCount = Defs.nodeCountST.get(gPanel.graphSize);
 
-        gPanel.nodeCoords = new HashMap<>(gPanel.nodeCount);
         gPanel.nodeShapes = new HashMap<>(gPanel.nodeCount);
-        gPanel.visitedEdges = new HashSet<>(gPanel.nodeCount);
+        // Edge ids of the old graph mean nothing in the new one
+        gPanel.clearVisitedEdges();
         gPanel.path = new int[gPanel.nodeCount];
         Arrays.fill(gPanel.path, Integer.MAX_VALUE);
 
-        DefaultUndirectedWeightedGraph<Integer, DefaultWeightedEdge> graph =
-                new DefaultUndirectedWeightedGraph<>(DefaultWeightedEdge.class);
-        for (int i = 0; i < gPanel.nodeCount; i++) graph.addVertex(i);
-
         // Generate either approx. min. connected graph or a more complete graph.
-        Random rand = new Random();
-        if (gPanel.isShortPathAlg) {
-            do {
-                int node = rand.nextInt(gPanel.nodeCount);
-                int adjNode = rand.nextInt(gPanel.nodeCount);
-                while (node == adjNode) adjNode = rand.nextInt(gPanel.nodeCount);
-                graph.addEdge(node, adjNode);
-            }
-            while (!isConnected(graph) && graph.vertexSet().size() <= gPanel.nodeCount);
-        } else {
-            int maxEdges;
-            if (gPanel.graphSize.equals("Small")) maxEdges = gPanel.nodeCount * 2;
-            else maxEdges = gPanel.nodeCount * 5;
-
-            do {
-                int node = rand.nextInt(gPanel.nodeCount);
-                int adjNode = rand.nextInt(gPanel.nodeCount);
-                while (node == adjNode) adjNode = rand.nextInt(gPanel.nodeCount);
-                graph.addEdge(node, adjNode);
-            }
-            while (!isConnected(graph) || graph.edgeSet().size() <= maxEdges);
+        int minEdgeCount = 0;
+        if (!gPanel.isShortPathAlg) {
+            if (gPanel.graphSize.equals("Small")) minEdgeCount = gPanel.nodeCount * 2;
+            else minEdgeCount = gPanel.nodeCount * 5;
         }
+        gPanel.graphSeed = gPanel.nextGraphSeed();
+        gPanel.setToolTipText("Graph seed " + gPanel.graphSeed);
+        CSRGraph generated = generate(gPanel.nodeCount, minEdgeCount, gPanel.graphSeed);
 
-        // Calculate random coordinates for nodes.
         for (int node = 0; node < gPanel.nodeCount; node++) {
-            // Get random node coordinates within GUI bounds
-            int xCenter = GUI.WINDOW_WIDTH / 2;
-            int yCenter = GUI.GRAPH_HEIGHT / 2;
-            int xLowerBound = -GUI.WINDOW_WIDTH / 2 + Defs.NODE_RADIUS;
-            int xUpperBound = GUI.WINDOW_WIDTH / 2 - Defs.NODE_RADIUS;
-            int textPadding = 30;
-            int yLowerBound = -GUI.GRAPH_HEIGHT / 2 + Defs.NODE_RADIUS +
-                    textPadding;
-            int yUpperBound = GUI.GRAPH_HEIGHT / 2 - Defs.NODE_RADIUS;
-            int nodeX = rand.nextInt((xUpperBound - xLowerBound) + 1) +
-                    xLowerBound + xCenter;
-            int nodeY = rand.nextInt((yUpperBound - yLowerBound) + 1) +
-                    yLowerBound + yCenter;
-            gPanel.nodeCoords.putIfAbsent(node, new Integer[]{nodeX +
-                    Defs.NODE_RADIUS / 2, nodeY + Defs.NODE_RADIUS / 2});
-            Shape nodeShape = new Ellipse2D.Double(nodeX, nodeY,
-                    Defs.NODE_RADIUS, Defs.NODE_RADIUS);
+            int nodeX = (int) generated.x(node);
+            int nodeY = (int) generated.y(node);
+            Shape nodeShape = new Ellipse2D.Double(nodeX - Defs.NODE_RADIUS / 2,
+                    nodeY - Defs.NODE_RADIUS / 2, Defs.NODE_RADIUS,
+                    Defs.NODE_RADIUS);
             gPanel.nodeShapes.putIfAbsent(node, nodeShape);
         }
-
-        // Calculate edge weights using euclidean distance
-        for (DefaultWeightedEdge edge : graph.edgeSet()) {
-            Integer source = graph.getEdgeSource(edge);
-            Integer target = graph.getEdgeTarget(edge);
-            double nodeX = gPanel.nodeCoords.get(source)[0];
-            double nodeY = gPanel.nodeCoords.get(source)[1];
-            double adjNodeX = gPanel.nodeCoords.get(target)[0];
-            double adjNodeY = gPanel.nodeCoords.get(target)[1];
-            double weight = Math.sqrt(Math.pow((adjNodeX - nodeX), 2) +
-                    Math.pow((adjNodeY - nodeY), 2));
-            graph.setEdgeWeight(edge, weight);
-        }
-        gPanel.graph = graph;
+        // Results of the old graph can never be hit again
+        if (null != gPanel.csrGraph) gPanel.pathCache.invalidate(gPanel.csrGraph.version());
+        gPanel.csrGraph = generated;
+        gPanel.nodeIndex = new SpatialGrid(gPanel.csrGraph);
     }
 }
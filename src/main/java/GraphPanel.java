@@ -2,26 +2,33 @@ package main.java;
 
 import main.java.util.Defs;
 import main.java.util.algorithms.*;
-import org.jgrapht.graph.DefaultUndirectedWeightedGraph;
-import org.jgrapht.graph.DefaultWeightedEdge;
+import main.java.util.graph.CSRGraph;
+import main.java.util.graph.SpatialGrid;
+import main.java.util.paths.PathCache;
+import main.java.util.runner.AlgorithmRunner;
+import main.java.util.trace.StepLog;
+import main.java.util.trace.TracePlayer;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.Future;
 
 
 /**
- * Constructs an user-interactive graph for use in {@link GUI}.
+ * Constructs an user-interactive graph for use in {@link GUI}. Also acts as the
+ * {@link StepSink} that renders running algorithms.
  *
  * @author Ryan Albertson
  */
-public class GraphPanel extends JPanel {
+public class GraphPanel extends JPanel implements StepSink {
 
     public static final Color SOURCE_COLOR = new Color(0, 170, 19);
     public static final Color TARGET_COLOR = new Color(225, 6, 0);
@@ -29,6 +36,13 @@ public class GraphPanel extends JPanel {
     public static final Color UNVISITED_COLOR = new Color(0, 0, 0);
     public static final Color PATH_COLOR = new Color(250, 108, 36);
     public static final Color MST_COLOR = new Color(255, 0, 127);
+    public static final Color BACKWARD_COLOR = new Color(138, 43, 226);
+
+    private static final Font HINT_FONT = new Font("Ariel", Font.PLAIN, 18);
+    static final Stroke EDGE_STROKE = new BasicStroke(2f);
+    static final Stroke VISITED_STROKE = new BasicStroke(3f);
+    static final Stroke MST_STROKE = new BasicStroke(6f);
+    static final Stroke PATH_STROKE = new BasicStroke(4f);
 
     public enum MOUSE_STATE {
         SOURCE_NODE, TARGET_NODE, RESET {
@@ -45,19 +59,55 @@ public class GraphPanel extends JPanel {
 
     private MOUSE_STATE mouseState;
     protected Algorithm algorithm;
+    protected TracePlayer player;
+    // Recording then playback of the current run. Done once both have returned
+    protected Future<?> run;
+    // True until the current run is recorded, so it can't be seeked yet
+    private volatile boolean isRecording;
+    private final AlgorithmRunner runner = new AlgorithmRunner();
     protected String graphSize;
     protected HashMap<Integer, Shape> nodeShapes;
-    public HashMap<Integer, Integer[]> nodeCoords;
     public String algName;
     public boolean isShortPathAlg;
-    public DefaultUndirectedWeightedGraph<Integer, DefaultWeightedEdge> graph;
-    public Set<DefaultWeightedEdge> visitedEdges;
+    public CSRGraph csrGraph;
+    public SpatialGrid nodeIndex;
+    // Seed of the current graph, for reproducing it
+    public long graphSeed;
+    // Seed of the first graph, from launching with -Dseed=<graph seed>. Null if unset
+    private Long launchSeed = Long.getLong("seed");
+    private final SplittableRandom graphSeeds = new SplittableRandom();
+    // Recorded traces of this panel's graphs, so repeated runs skip recording
+    public final PathCache pathCache = new PathCache(Defs.PATH_CACHE_WORDS);
+    // Ids of the visited edges, and of those visited by the backward frontier
+    // of bidirectional searches. Steps write them while frames read them
+    private final Object visitLock = new Object();
+    private final BitSet visitedEdges = new BitSet();
+    private final BitSet backwardEdges = new BitSet();
     public int[] path;
     public int nodeCount;
     public Integer sourceNode;
     public Integer targetNode;
     public int speed;
 
+    // Unvisited graph, rendered once per generated graph
+    private BufferedImage staticLayer;
+    private CSRGraph staticLayerGraph;
+
+    // Region changed by the steps since the last repaint. Null if unchanged
+    private final Object dirtyLock = new Object();
+    private Rectangle dirtyRegion;
+    private boolean isPathDirty;
+    private Rectangle drawnPathBounds;
+
+    // Region being painted, grown by a node radius, and the nodes inside it.
+    // A node is inside if its stamp is the current frame's
+    private Rectangle visibleRegion;
+    private int[] visibleStamps;
+    private int frame;
+    // A node is in the current batch of drawEdges if its stamp is the batch's
+    private int[] batchStamps;
+    private int batch;
+
 
     /**
      * Constructs an initial graph for the GUI. Also manages node selection.
@@ -70,7 +120,6 @@ public class GraphPanel extends JPanel {
         graphSize = "Large";
         isShortPathAlg = Defs.isShortPathAlg.get(algName);
         nodeCount = Defs.nodeCountST.get(graphSize);
-        visitedEdges = ConcurrentHashMap.newKeySet();
         path = new int[nodeCount];
 
         GraphGenerator.generateGraph(this);
@@ -87,7 +136,7 @@ public class GraphPanel extends JPanel {
                 super.mouseClicked(me);
 
                 // Block node selection during animation
-                if (null != algorithm && algorithm.isAlive()) return;
+                if (isAnimating()) return;
                 // Block node selection during MST algorithms
                 if (!isShortPathAlg) return;
 
@@ -95,16 +144,16 @@ public class GraphPanel extends JPanel {
                     resetAnimation();
                     mouseState = mouseState.next();
                 } else {
-                    for (Integer node = 0; node < nodeCount; node++) {
-                        if (nodeShapes.get(node).contains(me.getPoint())) {
-                            if (mouseState.equals(MOUSE_STATE.SOURCE_NODE)) {
-                                sourceNode = node;
-                            } else if (!node.equals(sourceNode)) {
-                                targetNode = node;
-                            }
-                            repaint();
-                            mouseState = mouseState.next();
+                    Integer node = nodeIndex.nearest(me.getX(), me.getY(),
+                            Defs.NODE_RADIUS / 2.0);
+                    if (node != -1) {
+                        if (mouseState.equals(MOUSE_STATE.SOURCE_NODE)) {
+                            sourceNode = node;
+                        } else if (!node.equals(sourceNode)) {
+                            targetNode = node;
                         }
+                        repaint();
+                        mouseState = mouseState.next();
                     }
                 }
             }
@@ -114,7 +163,9 @@ public class GraphPanel extends JPanel {
 
     /**
      * Renders the current graph in the GUI. If an algorithm is running, this is
-     * also rendered.
+     * also rendered. The unvisited graph comes from {@link #staticLayer}, so
+     * only the visited edges, the path and the source and target are drawn
+     * each frame.
      *
      * @param g {@link Graphics} object that is drawn on.
      * @see JPanel#paintComponent(Graphics)
@@ -124,77 +175,55 @@ public class GraphPanel extends JPanel {
 
         super.paintComponent(g);
         Graphics2D g2D = (Graphics2D) g;
+        g2D.drawImage(staticLayer(), 0, 0, null);
         g2D.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
                 RenderingHints.VALUE_ANTIALIAS_ON);
         g2D.setRenderingHint(RenderingHints.KEY_RENDERING,
                 RenderingHints.VALUE_RENDER_QUALITY);
-        g2D.setFont(new Font("Ariel", Font.PLAIN, 18));
-        if (isShortPathAlg && null != algorithm && !algorithm.isAlive()) {
+        findVisibleNodes(g2D.getClipBounds());
+        if (isShortPathAlg && null != player && !isAnimating()) {
+            g2D.setColor(UNVISITED_COLOR);
+            g2D.setFont(HINT_FONT);
             g2D.drawString("Click nodes to define a source and target",
                     (float) (GUI.WINDOW_WIDTH * 0.39), 15);
-            g2D.setFont(new Font("Ariel", Font.PLAIN, 16));
-        }
-        // Draw edges
-        for (DefaultWeightedEdge edge : graph.edgeSet()) {
-            Integer edgeSource = graph.getEdgeSource(edge);
-            Integer edgeTarget = graph.getEdgeTarget(edge);
-
-            g2D.setColor(UNVISITED_COLOR);
-            g2D.setStroke(new BasicStroke(2f));
-            int sourceX = nodeCoords.get(edgeSource)[0];
-            int sourceY = nodeCoords.get(edgeSource)[1];
-            int targetX = nodeCoords.get(edgeTarget)[0];
-            int targetY = nodeCoords.get(edgeTarget)[1];
-            g2D.draw(new Line2D.Double(sourceX, sourceY, targetX, targetY));
-        }
-
-        // Draw unvisited nodes on top of the edges
-        for (DefaultWeightedEdge edge : graph.edgeSet()) {
-            g2D.setColor(UNVISITED_COLOR);
-            g2D.fill(nodeShapes.get(graph.getEdgeSource(edge)));
-            g2D.fill(nodeShapes.get(graph.getEdgeTarget(edge)));
         }
 
         // Draw visited edges and nodes on top of unvisited components
-        for (DefaultWeightedEdge edge : visitedEdges) {
-            if (isShortPathAlg) {
-                g2D.setColor(VISITED_COLOR);
-                g2D.setStroke(new BasicStroke(3f));
-            } else {
-                g2D.setColor(MST_COLOR);
-                g2D.setStroke(new BasicStroke(6f));
-            }
-            g2D.fill(nodeShapes.get(graph.getEdgeSource(edge)));
-            g2D.fill(nodeShapes.get(graph.getEdgeTarget(edge)));
-
-            Integer edgeSource = graph.getEdgeSource(edge);
-            Integer edgeTarget = graph.getEdgeTarget(edge);
-            int sourceX = nodeCoords.get(edgeSource)[0];
-            int sourceY = nodeCoords.get(edgeSource)[1];
-            int targetX = nodeCoords.get(edgeTarget)[0];
-            int targetY = nodeCoords.get(edgeTarget)[1];
-            g2D.draw(new Line2D.Double(sourceX, sourceY, targetX, targetY));
-
+        BitSet forwardEdges;
+        BitSet backwardEdges;
+        synchronized (visitLock) {
+            forwardEdges = (BitSet) visitedEdges.clone();
+            backwardEdges = (BitSet) this.backwardEdges.clone();
+        }
+        if (isShortPathAlg) {
+            g2D.setStroke(VISITED_STROKE);
+            drawEdges(g2D, forwardEdges, VISITED_COLOR);
+            drawEdges(g2D, backwardEdges, BACKWARD_COLOR);
+        } else {
+            g2D.setStroke(MST_STROKE);
+            drawEdges(g2D, forwardEdges, MST_COLOR);
         }
 
         // Draw path once algorithm has found target node
         if (targetNode != null && (path[targetNode] != Integer.MAX_VALUE)) {
-            g2D.setColor(PATH_COLOR);
-            g2D.setStroke(new BasicStroke(4f));
+            Path2D pathLines = new Path2D.Double();
+            Path2D pathNodes = new Path2D.Double();
             int currentNode = targetNode;
             int prevNode = path[targetNode];
-            // Tranverse path back to source node
-            while (prevNode != Integer.MAX_VALUE) {
-                double currentNodeX = nodeCoords.get(currentNode)[0];
-                double currentNodeY = nodeCoords.get(currentNode)[1];
-                double prevNodeX = nodeCoords.get(prevNode)[0];
-                double prevNodeY = nodeCoords.get(prevNode)[1];
-                g2D.draw(new Line2D.Double(currentNodeX, currentNodeY,
-                        prevNodeX, prevNodeY));
-                g2D.fill(nodeShapes.get(prevNode));
+            pathLines.moveTo(csrGraph.x(currentNode), csrGraph.y(currentNode));
+            // Tranverse path back to source node. Bounded, since predecessors
+            // may change while they're read
+            for (int i = 0; i < csrGraph.nodeCount() && prevNode != Integer.MAX_VALUE;
+                 i++) {
+                pathLines.lineTo(csrGraph.x(prevNode), csrGraph.y(prevNode));
+                if (isVisible(prevNode)) pathNodes.append(nodeShapes.get(prevNode), false);
                 currentNode = prevNode;
                 prevNode = path[prevNode];
             }
+            g2D.setColor(PATH_COLOR);
+            g2D.setStroke(PATH_STROKE);
+            g2D.draw(pathLines);
+            g2D.fill(pathNodes);
         }
 
         // Draw source and target nodes for shortest path algortihms
@@ -211,67 +240,392 @@ public class GraphPanel extends JPanel {
     }
 
 
+    /**
+     * Finds the nodes inside the region being painted with {@link #nodeIndex},
+     * so that nodes and edges outside of it aren't drawn.
+     *
+     * @param clip Region being painted, or null for the whole panel.
+     */
+    private void findVisibleNodes(Rectangle clip) {
+
+        visibleRegion = null != clip ? new Rectangle(clip) : new Rectangle(getSize());
+        visibleRegion.grow(Defs.NODE_RADIUS, Defs.NODE_RADIUS);
+        if (null == visibleStamps || visibleStamps.length != csrGraph.nodeCount()) {
+            visibleStamps = new int[csrGraph.nodeCount()];
+            batchStamps = new int[csrGraph.nodeCount()];
+            frame = 0;
+            batch = 0;
+        }
+        int visibleFrame = ++frame;
+        nodeIndex.forEachInRange(visibleRegion.getMinX(), visibleRegion.getMinY(),
+                visibleRegion.getMaxX(), visibleRegion.getMaxY(),
+                node -> visibleStamps[node] = visibleFrame);
+    }
+
+
+    /**
+     * @return True if {@code node} is inside the region being painted. False
+     * otherwise.
+     */
+    private boolean isVisible(int node) {
+
+        return visibleStamps[node] == frame;
+    }
+
+
+    /**
+     * Draws a set of edges and their endpoints as one batch. Each endpoint is
+     * added once, however many of the edges share it. Edges and nodes outside
+     * the region being painted are skipped.
+     *
+     * @param g2D   {@link Graphics2D} object that is drawn on, with the stroke set.
+     * @param edges Ids of the edges to draw.
+     * @param color Color of the edges and their endpoints.
+     */
+    private void drawEdges(Graphics2D g2D, BitSet edges, Color color) {
+
+        int edgeBatch = ++batch;
+        Path2D lines = new Path2D.Double();
+        Path2D nodes = new Path2D.Double();
+        for (int edge = edges.nextSetBit(0); edge >= 0; edge = edges.nextSetBit(edge + 1)) {
+            int edgeSource = csrGraph.edgeSource(edge);
+            int edgeTarget = csrGraph.edgeTarget(edge);
+            if (visibleRegion.intersectsLine(csrGraph.x(edgeSource),
+                    csrGraph.y(edgeSource), csrGraph.x(edgeTarget),
+                    csrGraph.y(edgeTarget))) {
+                lines.moveTo(csrGraph.x(edgeSource), csrGraph.y(edgeSource));
+                lines.lineTo(csrGraph.x(edgeTarget), csrGraph.y(edgeTarget));
+            }
+            appendNode(nodes, edgeSource, edgeBatch);
+            appendNode(nodes, edgeTarget, edgeBatch);
+        }
+        g2D.setColor(color);
+        g2D.fill(nodes);
+        g2D.draw(lines);
+    }
+
+
+    /**
+     * Adds a node to a batch of nodes, unless it's already in the batch or
+     * outside the region being painted.
+     *
+     * @param nodes     Shapes of the batch.
+     * @param node      A node.
+     * @param nodeBatch Stamp of the batch.
+     */
+    private void appendNode(Path2D nodes, int node, int nodeBatch) {
+
+        if (!isVisible(node) || batchStamps[node] == nodeBatch) return;
+        batchStamps[node] = nodeBatch;
+        nodes.append(nodeShapes.get(node), false);
+    }
+
+
+    /**
+     * Returns the unvisited graph rendered into an image, rendering it first if
+     * the graph was regenerated or the panel was resized since the last frame.
+     *
+     * @return Image of every edge and node in {@link #UNVISITED_COLOR}.
+     */
+    private BufferedImage staticLayer() {
+
+        int width = Math.max(1, getWidth());
+        int height = Math.max(1, getHeight());
+        if (null != staticLayer && staticLayerGraph == csrGraph
+                && staticLayer.getWidth() == width
+                && staticLayer.getHeight() == height) {
+            return staticLayer;
+        }
+
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        staticLayer = null == config
+                ? new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB)
+                : config.createCompatibleImage(width, height, Transparency.OPAQUE);
+        staticLayerGraph = csrGraph;
+
+        Graphics2D g2D = staticLayer.createGraphics();
+        g2D.setColor(getBackground());
+        g2D.fillRect(0, 0, width, height);
+        g2D.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON);
+        g2D.setRenderingHint(RenderingHints.KEY_RENDERING,
+                RenderingHints.VALUE_RENDER_QUALITY);
+
+        // Draw edges, then nodes on top of them
+        Path2D edgeLines = new Path2D.Double();
+        for (int edge = 0; edge < csrGraph.edgeCount(); edge++) {
+            int edgeSource = csrGraph.edgeSource(edge);
+            int edgeTarget = csrGraph.edgeTarget(edge);
+            edgeLines.moveTo(csrGraph.x(edgeSource), csrGraph.y(edgeSource));
+            edgeLines.lineTo(csrGraph.x(edgeTarget), csrGraph.y(edgeTarget));
+        }
+        Path2D nodes = new Path2D.Double();
+        for (int node = 0; node < csrGraph.nodeCount(); node++) {
+            nodes.append(nodeShapes.get(node), false);
+        }
+        g2D.setColor(UNVISITED_COLOR);
+        g2D.setStroke(EDGE_STROKE);
+        g2D.draw(edgeLines);
+        g2D.fill(nodes);
+        g2D.dispose();
+        return staticLayer;
+    }
+
+
+    /**
+     * @return True if an algorithm is being recorded or played back.
+     */
+    protected boolean isAnimating() {
+
+        return null != run && !run.isDone();
+    }
+
+
+    /**
+     * @return Seed of the next generated graph. The first is the {@code seed}
+     * system property if it was set, so that a reported graph can be
+     * regenerated.
+     */
+    long nextGraphSeed() {
+
+        if (launchSeed != null) {
+            long seed = launchSeed;
+            launchSeed = null;
+            return seed;
+        }
+        return graphSeeds.nextLong();
+    }
+
+
     /**
      * Resets the current animation.
      */
     public void resetAnimation() {
 
-        Arrays.fill(path, Integer.MAX_VALUE);
-        visitedEdges = ConcurrentHashMap.newKeySet();
-        if (null != algorithm && !algorithm.isAlive()) {
+        clearAnimation();
+        if (null != player && !isAnimating()) {
             sourceNode = null;
             targetNode = null;
         }
+    }
+
+
+    /**
+     * Clears all visited edges and the path, but keeps the source and target.
+     */
+    private void clearAnimation() {
+
+        Arrays.fill(path, Integer.MAX_VALUE);
+        synchronized (visitLock) {
+            visitedEdges.clear();
+            backwardEdges.clear();
+        }
         repaint();
     }
 
 
+    @Override
+    public void reset() {
+
+        synchronized (dirtyLock) {
+            dirtyRegion = null;
+            isPathDirty = false;
+            drawnPathBounds = null;
+        }
+        clearAnimation();
+    }
+
+
+    @Override
+    public void visitEdge(int edge) {
+
+        visitEdge(edge, FORWARD);
+    }
+
+
+    @Override
+    public void visitEdge(int edge, int frontier) {
+
+        // An edge is shown in the color of the last frontier to visit it
+        synchronized (visitLock) {
+            visitedEdges.set(edge, frontier != BACKWARD);
+            backwardEdges.set(edge, frontier == BACKWARD);
+        }
+        markDirty(edge);
+    }
+
+
+    @Override
+    public void unvisitEdge(int edge) {
+
+        synchronized (visitLock) {
+            visitedEdges.clear(edge);
+            backwardEdges.clear(edge);
+        }
+        markDirty(edge);
+    }
+
+
+    @Override
+    public void clearVisitedEdges() {
+
+        synchronized (visitLock) {
+            visitedEdges.clear();
+            backwardEdges.clear();
+        }
+        synchronized (dirtyLock) {
+            dirtyRegion = new Rectangle(getSize());
+        }
+    }
+
+
+    @Override
+    public void setPredecessor(int node, int predecessor) {
+
+        path[node] = predecessor == Algorithm.NO_NODE ? Integer.MAX_VALUE : predecessor;
+        // Predecessors are only drawn as part of the path to the target
+        synchronized (dirtyLock) {
+            isPathDirty = true;
+        }
+    }
+
+
+    /**
+     * Repaints the region changed since the last step, rather than the whole
+     * panel.
+     */
+    @Override
+    public void step(int speedUp) {
+
+        synchronized (dirtyLock) {
+            if (isPathDirty) {
+                Rectangle pathBounds = pathBounds();
+                addDirtyRegion(drawnPathBounds);
+                addDirtyRegion(pathBounds);
+                drawnPathBounds = pathBounds;
+                isPathDirty = false;
+            }
+            if (null != dirtyRegion) {
+                repaint(dirtyRegion);
+                dirtyRegion = null;
+            }
+        }
+    }
+
+
+    /**
+     * Adds the bounds of an edge, including its endpoints, to the region to
+     * repaint on the next step.
+     *
+     * @param edge An edge id.
+     */
+    private void markDirty(int edge) {
+
+        synchronized (dirtyLock) {
+            addDirtyRegion(nodeBounds(csrGraph.edgeSource(edge)));
+            addDirtyRegion(nodeBounds(csrGraph.edgeTarget(edge)));
+        }
+    }
+
+
+    /**
+     * Adds a region to the region to repaint on the next step. Swing repaints
+     * the union of all dirty regions of a component anyway, so they're merged
+     * into one rectangle here.
+     *
+     * @param region Region to repaint, or null.
+     */
+    private void addDirtyRegion(Rectangle region) {
+
+        if (null == region) return;
+        if (null == dirtyRegion) dirtyRegion = new Rectangle(region);
+        else dirtyRegion.add(region);
+    }
+
+
+    /**
+     * @param node A node.
+     * @return Bounds of anything drawn at {@code node}, with room for the
+     * widest stroke.
+     */
+    private Rectangle nodeBounds(int node) {
+
+        return new Rectangle((int) csrGraph.x(node) - Defs.NODE_RADIUS,
+                (int) csrGraph.y(node) - Defs.NODE_RADIUS, 2 * Defs.NODE_RADIUS,
+                2 * Defs.NODE_RADIUS);
+    }
+
+
+    /**
+     * @return Bounds of the path to the target node, or null if it isn't
+     * drawn.
+     */
+    private Rectangle pathBounds() {
+
+        if (null == targetNode || path[targetNode] == Integer.MAX_VALUE) return null;
+        Rectangle bounds = nodeBounds(targetNode);
+        int node = path[targetNode];
+        for (int i = 0; i < csrGraph.nodeCount() && node != Integer.MAX_VALUE; i++) {
+            bounds.add(nodeBounds(node));
+            node = path[node];
+        }
+        return bounds;
+    }
+
+
     /**
      * If an algorithm is running, then it is unpaused. Otherwise, a new process
-     * of the currently selected algorithm is started.
+     * of the currently selected algorithm is started. The algorithm is recorded
+     * at full speed, then played back at the selected speed. Runs recorded
+     * before on the same graph are replayed from {@link #pathCache}, and runs of
+     * {@link Defs#treeReplayAlgs} are read from the cached shortest path tree of
+     * the source, so only changing the target doesn't search again.
      */
     protected void startAlgorithm() {
 
         // Start new algorithm
-        if (null == algorithm || !algorithm.isAlive()) {
+        if (!isAnimating()) {
             // Don't start algorithm if user hasn't selected source & target nodes
             if (isShortPathAlg && (sourceNode == null || targetNode == null)) return;
-            switch (algName) {
-                case "Depth-First Search":
-                    algorithm = new DepthFirstSearch(this);
-                    break;
-                case "Breadth-First Search":
-                    algorithm = new BreadthFirstSearch(this);
-                    break;
-                case "Dijkstra":
-                    algorithm = new Dijkstra(this);
-                    break;
-                case "A*":
-                    algorithm = new A_Star(this);
-                    break;
-                case "Bellman-Ford":
-                    algorithm = new BellmanFord(this);
-                    break;
-                case "Floyd-Warshall":
-                    algorithm = new FloydWarshall(this);
-                    break;
-                case "Reverse Delete":
-                    algorithm = new ReverseDelete(this);
-                    break;
-                case "Kruskal":
-                    algorithm = new Kruskal(this);
-                    break;
-                case "Prim":
-                    algorithm = new Prim(this);
-                    break;
-                default:
-                    throw new IllegalArgumentException("ERROR: Invalid algorithm");
+            int source = isShortPathAlg ? sourceNode : Algorithm.NO_NODE;
+            int target = isShortPathAlg ? targetNode : Algorithm.NO_NODE;
+            CSRGraph recordedGraph = csrGraph;
+            String recordedAlgName = algName;
+            boolean isTreeReplay = Defs.treeReplayAlgs.contains(algName);
+            StepLog cachedLog = isTreeReplay ? null : pathCache.trace(recordedGraph,
+                    recordedAlgName, source, target);
+            StepLog log = null != cachedLog ? cachedLog
+                    : new StepLog(csrGraph.nodeCount(), csrGraph.edgeCount());
+            // A replayed run has no algorithm of its own, the finished one stays
+            if (null == cachedLog && !isTreeReplay) {
+                algorithm = AlgorithmFactory.create(algName, csrGraph, log, source,
+                        target);
             }
-            new Thread(algorithm).start();
+            player = new TracePlayer(log, this, () -> speed);
+            isRecording = null == cachedLog;
+
+            Algorithm recording = algorithm;
+            TracePlayer playback = player;
+            run = runner.submit(() -> {
+                if (isTreeReplay) {
+                    pathCache.tree(recordedGraph, source).replaySearch(target, log);
+                } else if (null == cachedLog) {
+                    // Replay the same run from the cache rather than recording it again
+                    recording.run();
+                    if (!recording.wasStopped()) {
+                        pathCache.putTrace(recordedGraph, recordedAlgName, source,
+                                target, log);
+                    }
+                }
+                isRecording = false;
+                playback.run();
+                // Steps only repaint what they changed, so show the finished state
+                repaint();
+            });
 
             // Unpause if animation is live
         } else {
-            algorithm.unPause();
+            player.unPause();
         }
     }
 
@@ -281,8 +635,12 @@ public class GraphPanel extends JPanel {
      */
     protected void stopAlgorithm() {
 
-        if (algorithm != null && algorithm.isAlive()) algorithm.stop();
-        else resetAnimation();
+        if (isAnimating()) {
+            if (null != algorithm) algorithm.stop();
+            player.stop();
+        } else {
+            resetAnimation();
+        }
     }
 
 
@@ -291,10 +649,40 @@ public class GraphPanel extends JPanel {
      */
     protected void pauseAlgorithm() {
 
-        if (algorithm != null) {
-            if (algorithm.isPaused()) algorithm.unPause();
-            else algorithm.pause();
+        if (player != null) {
+            if (player.isPaused()) player.unPause();
+            else player.pause();
         }
     }
-}
 
+
+    /**
+     * @return Number of steps in the current recording.
+     */
+    protected int traceLength() {
+
+        return null == player ? 0 : player.length();
+    }
+
+
+    /**
+     * @return Number of steps of the current recording that are shown.
+     */
+    protected int tracePosition() {
+
+        return null == player ? 0 : player.position();
+    }
+
+
+    /**
+     * Shows the current recording after the given number of steps. Ignored
+     * while the algorithm is still being recorded.
+     *
+     * @param step A step of the recording.
+     */
+    protected void seekAnimation(int step) {
+
+        if (null == player || isRecording) return;
+        player.seek(step);
+    }
+}
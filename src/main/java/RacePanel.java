@@ -0,0 +1,299 @@
+package main.java;
+
+import main.java.util.Defs;
+import main.java.util.algorithms.Algorithm;
+import main.java.util.algorithms.StepSink;
+import main.java.util.graph.CSRGraph;
+import main.java.util.race.Race;
+import main.java.util.race.RaceLane;
+import main.java.util.runner.AlgorithmRunner;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Races several algorithms on the graph of a {@link GraphPanel}. Each
+ * algorithm runs at the same time as the others, in its own {@link RaceLane},
+ * and is drawn in its own view with live counters of the nodes it settled,
+ * its steps and its wall time.
+ *
+ * @author Ryan Albertson
+ */
+public class RacePanel extends JPanel {
+
+    // Columns of the grid of lane views
+    private static final int COLUMNS = 2;
+    private static final int HEADER_HEIGHT = 24;
+    private static final Font HEADER_FONT = new Font("Ariel", Font.PLAIN, 16);
+    // Milliseconds between refreshes of the lane views
+    private static final int REFRESH_MILLIS = 50;
+
+    private final CSRGraph graph;
+    private final List<String> algNames;
+    private final boolean isShortPathAlg;
+    private final int sourceNode;
+    private final int targetNode;
+    private final IntSupplier speed;
+    private final AlgorithmRunner runner;
+    private final JPanel lanePanel;
+    private final Timer refresher;
+    private Race race;
+    private boolean wasRunning;
+
+
+    /**
+     * Constructs a {@link RacePanel} on the current graph, source and target
+     * of {@code gPanel}. Later changes to {@code gPanel}'s graph don't affect
+     * the race.
+     *
+     * @param gPanel   {@link GraphPanel} whose graph is raced on. Its speed is
+     *                 followed while the race runs.
+     * @param algNames Names of the algorithms to race.
+     */
+    public RacePanel(GraphPanel gPanel, List<String> algNames) {
+
+        graph = gPanel.csrGraph;
+        this.algNames = List.copyOf(algNames);
+        isShortPathAlg = gPanel.isShortPathAlg;
+        sourceNode = isShortPathAlg ? gPanel.sourceNode : Algorithm.NO_NODE;
+        targetNode = isShortPathAlg ? gPanel.targetNode : Algorithm.NO_NODE;
+        speed = () -> gPanel.speed;
+        runner = new AlgorithmRunner();
+
+        setLayout(new BorderLayout());
+        add(initMenuPanel(), BorderLayout.NORTH);
+        lanePanel = new JPanel(new GridLayout(0, COLUMNS));
+        add(lanePanel, BorderLayout.CENTER);
+        newRace();
+
+        refresher = new Timer(REFRESH_MILLIS, event -> refresh());
+        refresher.start();
+    }
+
+
+    /**
+     * @return Menu bar of the race.
+     */
+    private JPanel initMenuPanel() {
+
+        JPanel menu = new JPanel(new GridLayout());
+        menu.setPreferredSize(new Dimension(GUI.WINDOW_WIDTH, GUI.WINDOW_HEIGHT / 15));
+        menu.setBackground(Color.DARK_GRAY);
+
+        JButton startButton = new JButton("Start");
+        startButton.setFont(new Font("Ariel", Font.PLAIN, 18));
+        startButton.addActionListener(event -> startRace());
+        menu.add(startButton);
+
+        JButton pauseButton = new JButton("Pause");
+        pauseButton.setFont(new Font("Ariel", Font.PLAIN, 18));
+        pauseButton.addActionListener(event -> pauseRace());
+        menu.add(pauseButton);
+
+        JButton stopButton = new JButton("Stop");
+        stopButton.setFont(new Font("Ariel", Font.PLAIN, 18));
+        stopButton.addActionListener(event -> race.stop());
+        menu.add(stopButton);
+        return menu;
+    }
+
+
+    /**
+     * Replaces the lanes with those of a new race, which isn't started yet.
+     */
+    private void newRace() {
+
+        race = new Race(graph, algNames, sourceNode, targetNode, speed);
+        lanePanel.removeAll();
+        for (RaceLane lane : race.lanes()) lanePanel.add(new LaneView(lane));
+        lanePanel.revalidate();
+        lanePanel.repaint();
+    }
+
+
+    /**
+     * Unpauses the race if it's running. Otherwise, starts a new race.
+     */
+    protected void startRace() {
+
+        if (race.isRunning()) {
+            race.unPause();
+            return;
+        }
+        newRace();
+        race.start(runner);
+    }
+
+
+    /**
+     * Pauses the race if it's running, or unpauses it if it's paused.
+     */
+    protected void pauseRace() {
+
+        if (race.isPaused()) race.unPause();
+        else race.pause();
+    }
+
+
+    /**
+     * Repaints the lanes while the race runs, and once more after it ends.
+     */
+    private void refresh() {
+
+        boolean isRunning = race.isRunning();
+        if (isRunning || wasRunning) lanePanel.repaint();
+        wasRunning = isRunning;
+    }
+
+
+    /**
+     * @return True if the race is running. False otherwise.
+     */
+    protected boolean isRacing() {
+
+        return race.isRunning();
+    }
+
+
+    /**
+     * @return The current race.
+     */
+    protected Race race() {
+
+        return race;
+    }
+
+
+    /**
+     * Stops the race and releases its threads. Called once the panel is no
+     * longer shown.
+     */
+    public void close() {
+
+        refresher.stop();
+        race.stop();
+        runner.shutdownNow();
+    }
+
+
+    /**
+     * Draws one lane: a header of counters, and the graph scaled to fit below
+     * it with the edges and path of the lane's algorithm.
+     */
+    private class LaneView extends JPanel {
+
+        private final RaceLane lane;
+
+
+        private LaneView(RaceLane lane) {
+
+            this.lane = lane;
+            setBackground(Color.WHITE);
+            setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
+        }
+
+
+        /**
+         * @return Name of the algorithm and its counters.
+         */
+        private String header() {
+
+            String header = String.format("%s    %d nodes settled    %d steps    %.1f ms computing",
+                    lane.algName(), lane.nodesSettled(), lane.steps(),
+                    lane.computeNanos() / 1e6);
+            return lane.place() > 0 ? header + "    #" + lane.place() : header;
+        }
+
+
+        @Override
+        protected void paintComponent(Graphics g) {
+
+            super.paintComponent(g);
+            Graphics2D g2D = (Graphics2D) g.create();
+            g2D.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                    RenderingHints.VALUE_ANTIALIAS_ON);
+            g2D.setRenderingHint(RenderingHints.KEY_RENDERING,
+                    RenderingHints.VALUE_RENDER_QUALITY);
+            g2D.setColor(GraphPanel.UNVISITED_COLOR);
+            g2D.setFont(HEADER_FONT);
+            g2D.drawString(header(), 8, HEADER_HEIGHT - 6);
+
+            // Scale the GUI's graph area to fit below the header
+            double scale = Math.min(getWidth() / (double) GUI.WINDOW_WIDTH,
+                    (getHeight() - HEADER_HEIGHT) / (double) GUI.GRAPH_HEIGHT);
+            g2D.translate(0, HEADER_HEIGHT);
+            g2D.scale(scale, scale);
+
+            // Sort edges by the frontier that last visited them
+            Path2D unvisitedLines = new Path2D.Double();
+            Path2D[] visitedLines = {new Path2D.Double(), new Path2D.Double()};
+            for (int edge = 0; edge < graph.edgeCount(); edge++) {
+                byte frontier = lane.edgeFrontier(edge);
+                Path2D lines = frontier == RaceLane.NOT_VISITED ? unvisitedLines
+                        : visitedLines[frontier];
+                lines.moveTo(graph.x(graph.edgeSource(edge)), graph.y(graph.edgeSource(edge)));
+                lines.lineTo(graph.x(graph.edgeTarget(edge)), graph.y(graph.edgeTarget(edge)));
+            }
+            Path2D nodes = new Path2D.Double();
+            for (int node = 0; node < graph.nodeCount(); node++) nodes.append(nodeShape(node), false);
+            g2D.setStroke(GraphPanel.EDGE_STROKE);
+            g2D.draw(unvisitedLines);
+            g2D.fill(nodes);
+            if (isShortPathAlg) {
+                g2D.setStroke(GraphPanel.VISITED_STROKE);
+                g2D.setColor(GraphPanel.VISITED_COLOR);
+                g2D.draw(visitedLines[StepSink.FORWARD]);
+                g2D.setColor(GraphPanel.BACKWARD_COLOR);
+                g2D.draw(visitedLines[StepSink.BACKWARD]);
+            } else {
+                g2D.setStroke(GraphPanel.MST_STROKE);
+                g2D.setColor(GraphPanel.MST_COLOR);
+                g2D.draw(visitedLines[StepSink.FORWARD]);
+            }
+            if (isShortPathAlg) drawPath(g2D);
+            g2D.dispose();
+        }
+
+
+        /**
+         * Draws the path found so far to the target, and the source and target.
+         */
+        private void drawPath(Graphics2D g2D) {
+
+            Path2D pathLines = new Path2D.Double();
+            pathLines.moveTo(graph.x(targetNode), graph.y(targetNode));
+            // Bounded, since predecessors may change while they're read
+            int node = targetNode;
+            for (int i = 0; i < graph.nodeCount() && node != sourceNode; i++) {
+                int prevNode = lane.predecessor(node);
+                if (prevNode == Algorithm.NO_NODE) break;
+                pathLines.lineTo(graph.x(prevNode), graph.y(prevNode));
+                node = prevNode;
+            }
+            if (node == sourceNode) {
+                g2D.setColor(GraphPanel.PATH_COLOR);
+                g2D.setStroke(GraphPanel.PATH_STROKE);
+                g2D.draw(pathLines);
+            }
+            g2D.setColor(GraphPanel.SOURCE_COLOR);
+            g2D.fill(nodeShape(sourceNode));
+            g2D.setColor(GraphPanel.TARGET_COLOR);
+            g2D.fill(nodeShape(targetNode));
+        }
+
+
+        /**
+         * @return Shape of a node, as in {@link GraphGenerator#generateGraph}.
+         */
+        private Shape nodeShape(int node) {
+
+            return new Ellipse2D.Double(graph.x(node) - Defs.NODE_RADIUS / 2,
+                    graph.y(node) - Defs.NODE_RADIUS / 2, Defs.NODE_RADIUS,
+                    Defs.NODE_RADIUS);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package main.java.util;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Definitions.
@@ -11,8 +12,10 @@ public class Defs {
 
     // All algorithms available with the visualizer
     public static final List<String> algNames = List.of("Depth-First Search",
-            "Breadth-First Search", "Dijkstra", "A*", "Bellman-Ford",
-            "Floyd-Warshall", "Reverse Delete", "Kruskal", "Prim");
+            "Breadth-First Search", "Dijkstra", "A*", "A* (ALT)",
+            "Bidirectional Dijkstra", "Bidirectional A*", "Contraction Hierarchies",
+            "Bellman-Ford", "Delta-Stepping", "Floyd-Warshall", "Johnson",
+            "Reverse Delete", "Kruskal", "Prim", "Boruvka");
 
     // Maps algorithms to whether they should use minimum connected graphs or not.
     public static final Map<String, Boolean> isShortPathAlg =
@@ -21,11 +24,35 @@ public class Defs {
                     Map.entry("Breadth-First Search", true),
                     Map.entry("Dijkstra", true),
                     Map.entry("A*", true),
+                    Map.entry("A* (ALT)", true),
+                    Map.entry("Bidirectional Dijkstra", true),
+                    Map.entry("Bidirectional A*", true),
+                    Map.entry("Contraction Hierarchies", true),
                     Map.entry("Bellman-Ford", true),
+                    Map.entry("Delta-Stepping", true),
                     Map.entry("Floyd-Warshall", true),
+                    Map.entry("Johnson", true),
                     Map.entry("Reverse Delete", false),
                     Map.entry("Kruskal", false),
-                    Map.entry("Prim", false)));
+                    Map.entry("Prim", false),
+                    Map.entry("Boruvka", false)));
+
+    // Shortest path algorithms that always find a shortest path by weight, so
+    // any of them can be answered from one shortest path tree
+    public static final Set<String> exactShortPathAlgs = Set.of("Dijkstra", "A*",
+            "A* (ALT)", "Bidirectional Dijkstra", "Bidirectional A*",
+            "Contraction Hierarchies", "Bellman-Ford", "Delta-Stepping",
+            "Floyd-Warshall", "Johnson");
+
+    // Shortest path algorithms whose steps are replayed from a cached shortest
+    // path tree of the source instead of being recorded, so changing only the
+    // target never searches again
+    public static final Set<String> treeReplayAlgs = Set.of("Dijkstra");
+
+    // Algorithms selected by default when racing algorithms against each other
+    public static final Set<String> raceAlgNames = Set.of("Breadth-First Search",
+            "Dijkstra", "A*", "Bidirectional A*", "Reverse Delete", "Kruskal",
+            "Prim", "Boruvka");
 
 
     // All speeds available
@@ -50,4 +77,20 @@ public class Defs {
 
     // Pixel radius for nodes in the graph animations
     public static final int NODE_RADIUS = 20;
+
+    // Children per node of the priority queues used by the searches (2, 4 or 8)
+    public static final int HEAP_ARITY = 4;
+
+    // Landmarks picked per graph for the ALT heuristic of A*
+    public static final int ALT_LANDMARK_COUNT = 8;
+
+    // Total size, in longs, of the shortest path results and traces kept per panel
+    public static final long PATH_CACHE_WORDS = 1L << 22;
+
+    // Minimum number of recorded steps between snapshots used for seeking
+    public static final int KEYFRAME_INTERVAL = 64;
+
+    // Largest graph that Floyd-Warshall animates cell by cell. Larger graphs use
+    // the blocked parallel engine and only animate the resulting paths
+    public static final int FLOYD_WARSHALL_ANIMATED_NODES = 100;
 }
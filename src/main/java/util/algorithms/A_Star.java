@@ -1,104 +1,125 @@
 package main.java.util.algorithms;
 
 
-import main.java.GraphPanel;
-import org.jgrapht.graph.DefaultWeightedEdge;
+import main.java.util.Defs;
+import main.java.util.graph.IndexedGraph;
+import main.java.util.graph.Landmarks;
+import main.java.util.structures.IndexedMinHeap;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.PriorityQueue;
 
 /**
- * Implements an A* search algorithm to find a shortest path from a
- * {@link GraphPanel#sourceNode} to a {@link  GraphPanel#targetNode}.
+ * Implements an A* search algorithm to find a shortest path from a source
+ * node to a target node. The remaining distance is estimated by the straight
+ * line to the target, or in ALT mode by the larger of that and the
+ * {@link Landmarks} bound of the graph, which stays accurate where the path
+ * has to detour.
  *
  * @author Ryan Albertson
  */
 public class A_Star extends Algorithm {
 
 
+    private final boolean isALT;
+    private Landmarks landmarks;
+
+
+    /**
+     * Constructor. Uses the straight line estimate only.
+     * @param graph      {@link IndexedGraph} to search.
+     * @param sink       Receives the steps of the search.
+     * @param sourceNode Node the search starts at.
+     * @param targetNode Node the search looks for.
+     */
+    public A_Star(IndexedGraph graph, StepSink sink, int sourceNode,
+                  int targetNode) {
+
+        this(graph, sink, sourceNode, targetNode, false);
+    }
+
+
     /**
      * Constructor.
-     * @param gPanel {@link GraphPanel}.
+     * @param graph      {@link IndexedGraph} to search.
+     * @param sink       Receives the steps of the search.
+     * @param sourceNode Node the search starts at.
+     * @param targetNode Node the search looks for.
+     * @param isALT      True to also use the landmark estimate.
      */
-    public A_Star(GraphPanel gPanel) {
+    public A_Star(IndexedGraph graph, StepSink sink, int sourceNode,
+                  int targetNode, boolean isALT) {
 
-        super(gPanel);
+        super(graph, sink, sourceNode, targetNode);
+        this.isALT = isALT;
+    }
+
+
+    /**
+     * @param node A node.
+     * @return Estimated distance from {@code node} to the target, never more
+     * than the actual distance.
+     */
+    private double distanceAfter(int node) {
+
+        double distanceAfter = Math.hypot(graph.x(node) - graph.x(targetNode),
+                graph.y(node) - graph.y(targetNode));
+        if (isALT) {
+            distanceAfter = Math.max(distanceAfter,
+                    landmarks.lowerBound(node, targetNode));
+        }
+        return distanceAfter;
     }
 
 
     public void runAlgorithm(Integer node) {
 
+        // Landmarks are picked the first time a graph is searched
+        if (isALT) landmarks = Landmarks.of(graph);
+
         // Init distance to reach each node through the search
-        double[] distanceTo = new double[gPanel.nodeCount];
+        double[] distanceTo = new double[graph.nodeCount()];
         Arrays.fill(distanceTo, Double.POSITIVE_INFINITY);
         distanceTo[node] = 0.0;
 
-        // Init estimated remaining distance to target node from each node
-        double[] distanceAfter = new double[gPanel.nodeCount];
-        double targetX = gPanel.nodeCoords.get(gPanel.targetNode)[0];
-        double targetY = gPanel.nodeCoords.get(gPanel.targetNode)[1];
-        for (int i = 0; i < gPanel.nodeCount; i++) {
-            double iX = gPanel.nodeCoords.get(i)[0];
-            double iY = gPanel.nodeCoords.get(i)[1];
-            double dist = Math.sqrt(Math.pow(Math.abs(iY - targetY), 2) +
-                    Math.pow(Math.abs(iX - targetX), 2));
-            distanceAfter[i] = dist;
-        }
-
-        // Node priority considers the sum: distance[i] + distanceAfter[i]
-        Double[] prio = new Double[gPanel.nodeCount];
-        for (int i = 0; i < gPanel.nodeCount; i++) prio[i] = Double.MAX_VALUE;
+        boolean[] isExplored = new boolean[graph.nodeCount()];
 
-        boolean[] isExplored = new boolean[gPanel.nodeCount];
-
-        // Order of nodes to be visited
-        PriorityQueue<Integer> nodesQueue = new PriorityQueue<>((node1, node2) ->
-                prio[node1].compareTo(prio[node2]));
-        nodesQueue.add(node);
+        // Order of nodes to be visited, by priority distanceTo + distanceAfter
+        IndexedMinHeap nodesPQ = new IndexedMinHeap(graph.nodeCount(),
+                Defs.HEAP_ARITY);
+        nodesPQ.insert(node, distanceAfter(node));
 
         // Store nodes & edges from previous iterations of loop. For animation purposes
-        Map<Integer, Integer> prevNode = new HashMap<>();
-        Map<Integer, DefaultWeightedEdge> edgeTo = new HashMap<>();
+        int[] prevNode = new int[graph.nodeCount()];
+        int[] edgeTo = new int[graph.nodeCount()];
+        Arrays.fill(edgeTo, -1);
 
-        while (!nodesQueue.isEmpty()) {
-            Integer currentNode = nodesQueue.poll();
+        while (!nodesPQ.isEmpty()) {
+            int currentNode = nodesPQ.poll();
             isExplored[currentNode] = true;
-            DefaultWeightedEdge edgeToCurrentNode = edgeTo.get(currentNode);
-            if (null != edgeToCurrentNode) gPanel.visitedEdges.add(edgeToCurrentNode);
-            Integer prev = prevNode.get(currentNode);
-            if (null != prev) gPanel.path[currentNode] = prev;
-
-            for (DefaultWeightedEdge edgeToAdjNode : gPanel.graph.edgesOf(currentNode)) {
-                if (gPanel.visitedEdges.contains(edgeToAdjNode)) continue;
-                Integer adjNode = gPanel.graph.getEdgeTarget(edgeToAdjNode);
-                // Account for directed edges
-                if (adjNode.equals(currentNode)) {
-                    adjNode = gPanel.graph.getEdgeSource(edgeToAdjNode);
-                }
+            if (edgeTo[currentNode] != -1) {
+                sink.visitEdge(edgeTo[currentNode]);
+                sink.setPredecessor(currentNode, prevNode[currentNode]);
+            }
+
+            for (int arc = graph.firstArc(currentNode);
+                 arc < graph.endArc(currentNode); arc++) {
+                int adjNode = graph.arcTarget(arc);
                 if (isExplored[adjNode]) continue;
-                // Update adjNode's distance if this path is shorter than current
-                double currentDist = distanceTo[adjNode];
-                double newDist = distanceTo[currentNode] +
-                        gPanel.graph.getEdgeWeight(edgeToAdjNode);
-                if (newDist < currentDist) {
+                // Update adjNode if this path is shorter than current
+                double newDist = distanceTo[currentNode] + graph.arcWeight(arc);
+                if (newDist < distanceTo[adjNode]) {
                     distanceTo[adjNode] = newDist;
-                }
-                // Update total distance if this estimated path is shorter
-                double totalDist = distanceTo[adjNode] + distanceAfter[adjNode];
-                if (totalDist < prio[adjNode]) {
-                    prio[adjNode] = totalDist;
-                    nodesQueue.add(adjNode);
-                    prevNode.put(adjNode, currentNode);
-                    edgeTo.put(adjNode, edgeToAdjNode);
+                    prevNode[adjNode] = currentNode;
+                    edgeTo[adjNode] = graph.arcEdge(arc);
+                    // Estimated remaining distance to target, computed on demand
+                    nodesPQ.insertOrDecrease(adjNode, newDist + distanceAfter(adjNode));
                 }
             }
             // Check if user has stopped or paused algorithm
             animate();
             if (isStopped()) return;
             // Stop algorithm if a path to the target has been found
-            if (currentNode.equals(gPanel.targetNode)) break;
+            if (currentNode == targetNode) break;
         }
     }
 
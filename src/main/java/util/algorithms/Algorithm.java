@@ -1,24 +1,35 @@
 package main.java.util.algorithms;
 
-import main.java.GraphPanel;
-
-import java.util.concurrent.TimeUnit;
+import main.java.util.graph.IndexedGraph;
+import main.java.util.runner.PauseGate;
 
 /**
  * This {@link Algorithm} class implements methods that are used for animating
  * an algorithm. It defines other methods that allow specific implementations
- * for whichever algorithm is needed.
+ * for whichever algorithm is needed. Algorithms read an {@link IndexedGraph}
+ * and report their steps to a {@link StepSink}, so they can run without a GUI.
+ * An interrupt, such as cancelling the future of an
+ * {@link main.java.util.runner.AlgorithmRunner}, stops the algorithm.
  *
  * @author Ryan Albertson
  */
 public abstract class Algorithm implements Runnable {
 
-    protected GraphPanel gPanel;
-    private boolean isAlive;
-    private final Object lock;
-    private volatile boolean paused;
+    // Source & target of algorithms that don't search for a path
+    public static final int NO_NODE = -1;
+
+    protected final IndexedGraph graph;
+    protected final StepSink sink;
+    protected final int sourceNode;
+    protected final int targetNode;
+    private volatile boolean isAlive;
+    private final PauseGate gate;
     protected volatile boolean stopped;
 
+    // Nanoseconds spent in finished waits, and start of the current one or 0
+    private volatile long waitNanos;
+    private volatile long waitStartNanos;
+
 
     /**
      * Starts an algorithm animation.
@@ -35,51 +46,87 @@ public abstract class Algorithm implements Runnable {
 
 
     /**
-     * Constructs an {@link Algorithm}.
+     * Constructs an {@link Algorithm} that searches for a path.
      *
-     * @param gPanel The {@link javax.swing.JPanel} containing a graph.
-     * @throws IllegalArgumentException If {@code graphPanel} is null.
+     * @param graph      The {@link IndexedGraph} to run on.
+     * @param sink       Receives the steps of the algorithm.
+     * @param sourceNode Node the search starts at.
+     * @param targetNode Node the search looks for.
+     * @throws IllegalArgumentException If {@code graph} or {@code sink} is null.
      */
-    protected Algorithm(GraphPanel gPanel) throws IllegalArgumentException {
+    protected Algorithm(IndexedGraph graph, StepSink sink, int sourceNode,
+                        int targetNode) throws IllegalArgumentException {
 
-        if (gPanel == null) {
-            throw new IllegalArgumentException("ERROR: GraphPanel is null");
+        if (graph == null) {
+            throw new IllegalArgumentException("ERROR: Graph is null");
+        } else if (sink == null) {
+            throw new IllegalArgumentException("ERROR: StepSink is null");
         } else {
-            this.gPanel = gPanel;
-            lock = new Object();
+            this.graph = graph;
+            this.sink = sink;
+            this.sourceNode = sourceNode;
+            this.targetNode = targetNode;
+            gate = new PauseGate();
             isAlive = true;
-            paused = false;
             stopped = false;
         }
     }
 
 
+    /**
+     * Constructs an {@link Algorithm} that doesn't search for a path.
+     *
+     * @param graph The {@link IndexedGraph} to run on.
+     * @param sink  Receives the steps of the algorithm.
+     * @throws IllegalArgumentException If {@code graph} or {@code sink} is null.
+     */
+    protected Algorithm(IndexedGraph graph, StepSink sink)
+            throws IllegalArgumentException {
+
+        this(graph, sink, NO_NODE, NO_NODE);
+    }
+
+
     /**
      * Checks if user has paused the animation. If so, the animation process is
      * held until the user has unpaused it.
      */
     protected void checkForPause() {
 
-        synchronized (lock) {
-            while (paused && !stopped) {
-                try {
-                    lock.wait(100);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            }
+        if (!gate.isPaused()) return;
+        long start = startWaiting();
+        try {
+            gate.awaitResume();
+        } catch (InterruptedException e) {
+            interrupted();
+        } finally {
+            finishWaiting(start);
         }
     }
 
 
     /**
-     * @return True if animation is currently stopped. False otherwise.
+     * Stops the algorithm because its thread was interrupted, and keeps the
+     * thread's interrupt status for its caller.
+     */
+    private void interrupted() {
+
+        stop();
+        Thread.currentThread().interrupt();
+    }
+
+
+    /**
+     * @return True if animation is currently stopped, or its thread was
+     * interrupted. False otherwise.
      */
     protected boolean isStopped() {
 
+        // Unpaced runs never wait, so an interrupt is only seen here
+        if (Thread.currentThread().isInterrupted()) stop();
         if (stopped) {
             // Clear the current animation
-            gPanel.resetAnimation();
+            sink.reset();
             isAlive = false;
             return true;
         }
@@ -92,23 +139,88 @@ public abstract class Algorithm implements Runnable {
      */
     public boolean isPaused() {
 
-        return paused;
+        return gate.isPaused();
     }
 
 
     /**
-     * Repaints the animation within the {@link GraphPanel}. Does it slowly such
-     * that the user can visualize the algorithm stepping through.
+     * Pauses the algorithm thread between steps. Stopping the algorithm cuts
+     * the pause short.
+     *
+     * @param millis Milliseconds to pause. Nothing happens if this isn't positive.
      */
-    protected void animate() {
+    protected void pace(int millis) {
 
+        if (millis <= 0) return;
+        long start = startWaiting();
         try {
-            // Update animation
-            gPanel.repaint();
-            TimeUnit.MILLISECONDS.sleep(gPanel.speed);
+            gate.pace(millis);
         } catch (InterruptedException e) {
-            e.printStackTrace();
+            interrupted();
+        } finally {
+            finishWaiting(start);
         }
+    }
+
+
+    /**
+     * @return Start of a wait, in {@link System#nanoTime()}.
+     */
+    private long startWaiting() {
+
+        long start = System.nanoTime();
+        waitStartNanos = start;
+        return start;
+    }
+
+
+    /**
+     * Adds a finished wait to {@link #waitNanos()}.
+     */
+    private void finishWaiting(long start) {
+
+        waitNanos += System.nanoTime() - start;
+        waitStartNanos = 0;
+    }
+
+
+    /**
+     * @return Nanoseconds the algorithm has spent paused or pacing between
+     * steps, including a wait in progress, so that callers can time its work
+     * alone. Only the algorithm's thread waits, so other threads may read this
+     * while it runs.
+     */
+    public long waitNanos() {
+
+        long start = waitStartNanos;
+        long waited = waitNanos;
+        return start == 0 ? waited : waited + System.nanoTime() - start;
+    }
+
+
+    /**
+     * Completes a step of the animation in the {@link StepSink}. Does it slowly
+     * such that the user can visualize the algorithm stepping through.
+     */
+    protected void animate() {
+
+        animate(0);
+    }
+
+
+    /**
+     * Completes a step of the animation that is shown shorter than usual.
+     *
+     * @param speedUp Milliseconds to take off the pause after this step, or
+     *                {@link StepSink#INSTANT} for no pause.
+     */
+    protected void animate(int speedUp) {
+
+        // Update animation
+        sink.step(speedUp);
+        // An interrupt stops the algorithm, which cuts the waits below short
+        if (Thread.currentThread().isInterrupted()) stop();
+        pace(sink.speed() - speedUp);
 
         checkForPause();
     }
@@ -119,7 +231,7 @@ public abstract class Algorithm implements Runnable {
      */
     public void pause() {
 
-        paused = true;
+        gate.pause();
     }
 
 
@@ -128,7 +240,7 @@ public abstract class Algorithm implements Runnable {
      */
     public void unPause() {
 
-        paused = false;
+        gate.resume();
     }
 
 
@@ -138,6 +250,17 @@ public abstract class Algorithm implements Runnable {
     public void stop() {
 
         stopped = true;
+        gate.close();
+    }
+
+
+    /**
+     * @return True if the algorithm was signaled to stop, so the steps it
+     * produced may be incomplete. False otherwise.
+     */
+    public boolean wasStopped() {
+
+        return stopped;
     }
 
 
@@ -158,9 +281,9 @@ public abstract class Algorithm implements Runnable {
     @Override
     public void run() {
 
-        gPanel.resetAnimation();
+        sink.reset();
         isAlive = true;
-        if (gPanel.isShortPathAlg) runAlgorithm(gPanel.sourceNode);
+        if (sourceNode != NO_NODE) runAlgorithm(sourceNode);
         else runAlgorithm();
         isAlive = false;
     }
@@ -0,0 +1,75 @@
+package main.java.util.algorithms;
+
+import main.java.util.Defs;
+import main.java.util.graph.IndexedGraph;
+
+/**
+ * Creates {@link Algorithm}s by their names in {@link Defs#algNames}.
+ *
+ * @author Ryan Albertson
+ */
+public final class AlgorithmFactory {
+
+
+    private AlgorithmFactory() {
+
+    }
+
+
+    /**
+     * Creates an {@link Algorithm}. The source and target nodes are ignored by
+     * algorithms that don't search for a path.
+     *
+     * @param algName    Name of the algorithm, from {@link Defs#algNames}.
+     * @param graph      {@link IndexedGraph} to run on.
+     * @param sink       Receives the steps of the algorithm.
+     * @param sourceNode Node a search starts at.
+     * @param targetNode Node a search looks for.
+     * @return The {@link Algorithm}, ready to run.
+     * @throws IllegalArgumentException If {@code algName} is unknown.
+     */
+    public static Algorithm create(String algName, IndexedGraph graph,
+                                   StepSink sink, int sourceNode, int targetNode)
+            throws IllegalArgumentException {
+
+        if (algName == null) {
+            throw new IllegalArgumentException("ERROR: Invalid algorithm");
+        }
+        switch (algName) {
+            case "Depth-First Search":
+                return new DepthFirstSearch(graph, sink, sourceNode, targetNode);
+            case "Breadth-First Search":
+                return new BreadthFirstSearch(graph, sink, sourceNode, targetNode);
+            case "Dijkstra":
+                return new Dijkstra(graph, sink, sourceNode, targetNode);
+            case "A*":
+                return new A_Star(graph, sink, sourceNode, targetNode);
+            case "A* (ALT)":
+                return new A_Star(graph, sink, sourceNode, targetNode, true);
+            case "Bidirectional Dijkstra":
+                return new BidirectionalDijkstra(graph, sink, sourceNode, targetNode);
+            case "Bidirectional A*":
+                return new BidirectionalA_Star(graph, sink, sourceNode, targetNode);
+            case "Contraction Hierarchies":
+                return new ContractionHierarchies(graph, sink, sourceNode, targetNode);
+            case "Bellman-Ford":
+                return new BellmanFord(graph, sink, sourceNode, targetNode);
+            case "Delta-Stepping":
+                return new DeltaStepping(graph, sink, sourceNode, targetNode);
+            case "Floyd-Warshall":
+                return new FloydWarshall(graph, sink, sourceNode, targetNode);
+            case "Johnson":
+                return new Johnson(graph, sink, sourceNode, targetNode);
+            case "Reverse Delete":
+                return new ReverseDelete(graph, sink);
+            case "Kruskal":
+                return new Kruskal(graph, sink);
+            case "Prim":
+                return new Prim(graph, sink);
+            case "Boruvka":
+                return new Boruvka(graph, sink);
+            default:
+                throw new IllegalArgumentException("ERROR: Invalid algorithm");
+        }
+    }
+}
@@ -1,15 +1,13 @@
 package main.java.util.algorithms;
 
 
-import main.java.GraphPanel;
-import org.jgrapht.graph.DefaultWeightedEdge;
+import main.java.util.graph.IndexedGraph;
 
 import java.util.Arrays;
-import java.util.concurrent.TimeUnit;
 
 /**
- * Implements a Bellman-Ford algorithm to find a shortest path from a
- * {@link GraphPanel#sourceNode} to a {@link  GraphPanel#targetNode}.
+ * Implements a Bellman-Ford algorithm to find a shortest path from a source
+ * node to a target node.
  *
  * @author Ryan Albertson
  */
@@ -18,11 +16,15 @@ public class BellmanFord extends Algorithm {
 
     /**
      * Constructor.
-     * @param gPanel {@link GraphPanel}.
+     * @param graph      {@link IndexedGraph} to search.
+     * @param sink       Receives the steps of the search.
+     * @param sourceNode Node the search starts at.
+     * @param targetNode Node the search looks for.
      */
-    public BellmanFord(GraphPanel gPanel) {
+    public BellmanFord(IndexedGraph graph, StepSink sink, int sourceNode,
+                       int targetNode) {
 
-        super(gPanel);
+        super(graph, sink, sourceNode, targetNode);
     }
 
 
@@ -32,56 +34,41 @@ public class BellmanFord extends Algorithm {
     @Override
     protected void animate() {
 
-        try {
-            // Update animation
-            gPanel.repaint();
-            // Make Bellman-Ford animation faster
-            int speed = gPanel.speed;
-            if (speed > 0) {
-                speed -= 325;
-            }
-            TimeUnit.MILLISECONDS.sleep(speed);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-
-        checkForPause();
+        // Make Bellman-Ford animation faster
+        animate(325);
     }
 
 
     public void runAlgorithm(Integer node) {
 
         // Init min dist to each node from the source node
-        double[] distanceTo = new double[gPanel.nodeCount];
+        double[] distanceTo = new double[graph.nodeCount()];
         Arrays.fill(distanceTo, Double.POSITIVE_INFINITY);
         distanceTo[node] = 0.0;
 
-        for (int i = 0; i < gPanel.nodeCount; i++) {
-            gPanel.visitedEdges.clear();
-            for (DefaultWeightedEdge edge : gPanel.graph.edgeSet()) {
+        for (int i = 0; i < graph.nodeCount(); i++) {
+            sink.clearVisitedEdges();
+            for (int edge = 0; edge < graph.edgeCount(); edge++) {
 
-                gPanel.visitedEdges.add(edge);
+                sink.visitEdge(edge);
 
                 // Update predecessor if there's a shorter path to the node
-                int edgeSource = gPanel.graph.getEdgeSource(edge);
-                int edgeTarget = gPanel.graph.getEdgeTarget(edge);
+                int edgeSource = graph.edgeSource(edge);
+                int edgeTarget = graph.edgeTarget(edge);
+                double weight = graph.edgeWeight(edge);
                 double currDist = distanceTo[edgeTarget];
-                double newDist = distanceTo[edgeSource] +
-                        gPanel.graph.getEdgeWeight(edge);
+                double newDist = distanceTo[edgeSource] + weight;
                 if (newDist < currDist) {
                     distanceTo[edgeTarget] = newDist;
-                    gPanel.path[edgeTarget] = edgeSource;
+                    sink.setPredecessor(edgeTarget, edgeSource);
                 }
 
                 // Consider the other direction of current edge
-                edgeSource = gPanel.graph.getEdgeTarget(edge);
-                edgeTarget = gPanel.graph.getEdgeSource(edge);
-                currDist = distanceTo[edgeTarget];
-                newDist = distanceTo[edgeSource] +
-                        gPanel.graph.getEdgeWeight(edge);
+                currDist = distanceTo[edgeSource];
+                newDist = distanceTo[edgeTarget] + weight;
                 if (newDist < currDist) {
-                    distanceTo[edgeTarget] = newDist;
-                    gPanel.path[edgeTarget] = edgeSource;
+                    distanceTo[edgeSource] = newDist;
+                    sink.setPredecessor(edgeSource, edgeTarget);
                 }
 
                 // Check if user has stopped or paused algorithm
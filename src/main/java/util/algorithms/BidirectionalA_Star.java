@@ -0,0 +1,42 @@
+package main.java.util.algorithms;
+
+import main.java.util.graph.IndexedGraph;
+
+
+/**
+ * Implements a bidirectional A* search algorithm to find a shortest path from
+ * a source node to a target node. It's a {@link BidirectionalDijkstra} whose
+ * potential is the average of the forward and backward euclidean estimates,
+ * {@code (distance to target - distance to source) / 2}. Edges are at least
+ * as long as the distance between their ends, so this potential is
+ * consistent for both searches and the usual stopping rule stays exact.
+ *
+ * @author Ryan Albertson
+ */
+public class BidirectionalA_Star extends BidirectionalDijkstra {
+
+
+    /**
+     * Constructor.
+     * @param graph      {@link IndexedGraph} to search.
+     * @param sink       Receives the steps of the search.
+     * @param sourceNode Node the search starts at.
+     * @param targetNode Node the search looks for.
+     */
+    public BidirectionalA_Star(IndexedGraph graph, StepSink sink,
+                               int sourceNode, int targetNode) {
+
+        super(graph, sink, sourceNode, targetNode);
+    }
+
+
+    @Override
+    protected double potential(int node) {
+
+        double distanceToTarget = Math.hypot(graph.x(node) - graph.x(targetNode),
+                graph.y(node) - graph.y(targetNode));
+        double distanceToSource = Math.hypot(graph.x(node) - graph.x(sourceNode),
+                graph.y(node) - graph.y(sourceNode));
+        return (distanceToTarget - distanceToSource) / 2;
+    }
+}
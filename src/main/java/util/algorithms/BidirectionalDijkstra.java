@@ -0,0 +1,139 @@
+package main.java.util.algorithms;
+
+import main.java.util.Defs;
+import main.java.util.graph.IndexedGraph;
+import main.java.util.structures.IndexedMinHeap;
+
+import java.util.Arrays;
+
+
+/**
+ * Implements a bidirectional Dijkstra's algorithm to find a shortest path from
+ * a source node to a target node. A forward search from the source and a
+ * backward search from the target take turns settling a node. Whenever a
+ * node is reached by both, the path through it is a candidate. The search
+ * stops once the smallest keys of both queues add up to at least the best
+ * candidate, since no path through unsettled nodes can be shorter.
+ * <p>
+ * Keys include a potential, zero here, that {@link BidirectionalA_Star}
+ * overrides. The backward search uses the negated potential.
+ *
+ * @author Ryan Albertson
+ */
+public class BidirectionalDijkstra extends Algorithm {
+
+
+    /**
+     * Constructor.
+     * @param graph      {@link IndexedGraph} to search.
+     * @param sink       Receives the steps of the search.
+     * @param sourceNode Node the search starts at.
+     * @param targetNode Node the search looks for.
+     */
+    public BidirectionalDijkstra(IndexedGraph graph, StepSink sink,
+                                 int sourceNode, int targetNode) {
+
+        super(graph, sink, sourceNode, targetNode);
+    }
+
+
+    /**
+     * @param node A node.
+     * @return Potential of {@code node} in the forward search. Must be
+     * consistent, so that no edge has a negative reduced weight.
+     */
+    protected double potential(int node) {
+
+        return 0.0;
+    }
+
+
+    public void runAlgorithm(Integer node) {
+
+        int nodeCount = graph.nodeCount();
+
+        // Each array is indexed by frontier, then by node
+        double[][] distanceTo = new double[2][nodeCount];
+        int[][] prevNode = new int[2][nodeCount];
+        int[][] edgeTo = new int[2][nodeCount];
+        boolean[][] isSettled = new boolean[2][nodeCount];
+        IndexedMinHeap[] nodesPQ = new IndexedMinHeap[2];
+        for (int side = StepSink.FORWARD; side <= StepSink.BACKWARD; side++) {
+            Arrays.fill(distanceTo[side], Double.POSITIVE_INFINITY);
+            Arrays.fill(edgeTo[side], -1);
+            nodesPQ[side] = new IndexedMinHeap(nodeCount, Defs.HEAP_ARITY);
+        }
+        distanceTo[StepSink.FORWARD][node] = 0.0;
+        distanceTo[StepSink.BACKWARD][targetNode] = 0.0;
+        nodesPQ[StepSink.FORWARD].insert(node, potential(node));
+        nodesPQ[StepSink.BACKWARD].insert(targetNode, -potential(targetNode));
+
+        // Shortest path found so far, and the node where its halves meet
+        double bestDist = node == targetNode ? 0.0 : Double.POSITIVE_INFINITY;
+        int meetNode = node == targetNode ? node : NO_NODE;
+
+        int side = StepSink.FORWARD;
+        while (!nodesPQ[StepSink.FORWARD].isEmpty() && !nodesPQ[StepSink.BACKWARD].isEmpty()) {
+            // Stop if neither frontier can lead to a shorter path
+            double minKeys = nodesPQ[StepSink.FORWARD].key(nodesPQ[StepSink.FORWARD].peek())
+                    + nodesPQ[StepSink.BACKWARD].key(nodesPQ[StepSink.BACKWARD].peek());
+            if (minKeys >= bestDist) break;
+
+            int otherSide = 1 - side;
+            int currentNode = nodesPQ[side].poll();
+            isSettled[side][currentNode] = true;
+            // The edge to a settled node is final, so it's shown now
+            if (edgeTo[side][currentNode] != -1) {
+                sink.visitEdge(edgeTo[side][currentNode], side);
+                if (side == StepSink.FORWARD) {
+                    sink.setPredecessor(currentNode, prevNode[side][currentNode]);
+                }
+                // Check if user has stopped or paused algorithm
+                animate();
+                if (isStopped()) return;
+            }
+
+            // Relax every edge to a node this frontier hasn't settled
+            double potentialSign = side == StepSink.FORWARD ? 1.0 : -1.0;
+            for (int arc = graph.firstArc(currentNode);
+                 arc < graph.endArc(currentNode); arc++) {
+                int adjNode = graph.arcTarget(arc);
+                if (isSettled[side][adjNode]) continue;
+                double newDist = distanceTo[side][currentNode] + graph.arcWeight(arc);
+                if (newDist < distanceTo[side][adjNode]) {
+                    distanceTo[side][adjNode] = newDist;
+                    prevNode[side][adjNode] = currentNode;
+                    edgeTo[side][adjNode] = graph.arcEdge(arc);
+                    nodesPQ[side].insertOrDecrease(adjNode,
+                            newDist + potentialSign * potential(adjNode));
+
+                    // Check the path through adjNode, if both frontiers reached it
+                    double pathDist = newDist + distanceTo[otherSide][adjNode];
+                    if (pathDist < bestDist) {
+                        bestDist = pathDist;
+                        meetNode = adjNode;
+                    }
+                }
+            }
+            side = otherSide;
+        }
+        if (meetNode == NO_NODE) return;
+
+        // Join both halves of the path at the meeting node
+        for (int pathNode = meetNode; pathNode != node;
+             pathNode = prevNode[StepSink.FORWARD][pathNode]) {
+            sink.setPredecessor(pathNode, prevNode[StepSink.FORWARD][pathNode]);
+        }
+        for (int pathNode = meetNode; pathNode != targetNode;
+             pathNode = prevNode[StepSink.BACKWARD][pathNode]) {
+            sink.setPredecessor(prevNode[StepSink.BACKWARD][pathNode], pathNode);
+        }
+        animate();
+    }
+
+
+    public void runAlgorithm() {
+
+        // This signature isn't needed for this algorithm.
+    }
+}
@@ -0,0 +1,122 @@
+package main.java.util.algorithms;
+
+import main.java.util.graph.IndexedGraph;
+import main.java.util.structures.ConcurrentUnionFind;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Implements Boruvka's algorithm to find the minimum spanning tree of a
+ * {@link IndexedGraph}. Each round, every component finds its cheapest
+ * outgoing edge in parallel, then all of those edges are added at once and
+ * their components merged in a {@link ConcurrentUnionFind}. Edges are ordered
+ * by weight, then by id, so the tree is the same one {@link Kruskal} finds.
+ * Each round is animated as one step.
+ *
+ * @author Ryan Albertson
+ */
+public class Boruvka extends Algorithm {
+
+
+    /**
+     * Constructor.
+     * @param graph {@link IndexedGraph} to span.
+     * @param sink  Receives the steps of the algorithm.
+     */
+    public Boruvka(IndexedGraph graph, StepSink sink) {
+
+        super(graph, sink);
+    }
+
+
+    /**
+     * @return True if {@code edge1} comes before {@code edge2} by weight, then id.
+     */
+    private boolean isLighter(int edge1, int edge2) {
+
+        int comparison = Double.compare(graph.edgeWeight(edge1),
+                graph.edgeWeight(edge2));
+        return comparison < 0 || (comparison == 0 && edge1 < edge2);
+    }
+
+
+    /**
+     * Makes {@code edge} the cheapest edge of {@code component}, if it's
+     * lighter than the current one.
+     */
+    private void offerEdge(AtomicIntegerArray cheapestEdge, int component,
+                           int edge) {
+
+        int currentEdge = cheapestEdge.get(component);
+        while (currentEdge == -1 || isLighter(edge, currentEdge)) {
+            if (cheapestEdge.compareAndSet(component, currentEdge, edge)) return;
+            currentEdge = cheapestEdge.get(component);
+        }
+    }
+
+
+    protected void runAlgorithm() {
+
+        int nodeCount = graph.nodeCount();
+        ConcurrentUnionFind components = new ConcurrentUnionFind(nodeCount);
+        int[] componentOf = new int[nodeCount];
+        AtomicIntegerArray cheapestEdge = new AtomicIntegerArray(nodeCount);
+        boolean[] inMST = new boolean[graph.edgeCount()];
+
+        // Edges that may still join two components
+        int[] edges = IntStream.range(0, graph.edgeCount()).toArray();
+
+        while (true) {
+            IntStream.range(0, nodeCount).parallel().forEach(node -> {
+                componentOf[node] = components.find(node);
+                cheapestEdge.set(node, -1);
+            });
+
+            // Drop edges within a component, they can never join the tree
+            edges = Arrays.stream(edges).parallel()
+                    .filter(edge -> componentOf[graph.edgeSource(edge)]
+                            != componentOf[graph.edgeTarget(edge)])
+                    .toArray();
+            if (edges.length == 0) break;
+
+            // Find the cheapest edge leaving each component
+            Arrays.stream(edges).parallel().forEach(edge -> {
+                offerEdge(cheapestEdge, componentOf[graph.edgeSource(edge)], edge);
+                offerEdge(cheapestEdge, componentOf[graph.edgeTarget(edge)], edge);
+            });
+
+            // Add them all. Two components may pick the same edge, but only
+            // one union of its endpoints merges anything
+            int[] roundEdges = IntStream.range(0, nodeCount).parallel()
+                    .filter(node -> componentOf[node] == node
+                            && cheapestEdge.get(node) != -1)
+                    .map(cheapestEdge::get)
+                    .toArray();
+            Arrays.stream(roundEdges).parallel().forEach(edge -> {
+                if (components.union(graph.edgeSource(edge), graph.edgeTarget(edge))) {
+                    inMST[edge] = true;
+                }
+            });
+
+            // Add edge to MST. (mark as visited)
+            Arrays.sort(roundEdges);
+            for (int i = 0; i < roundEdges.length; i++) {
+                int edge = roundEdges[i];
+                if (inMST[edge] && (i == 0 || roundEdges[i - 1] != edge)) {
+                    sink.visitEdge(edge);
+                }
+            }
+            // Check if user has stopped or paused algorithm
+            animate();
+            if (isStopped()) return;
+        }
+    }
+
+
+    protected void runAlgorithm(Integer node) {
+
+        // This signature isn't needed for this algorithm.
+    }
+}
@@ -1,17 +1,12 @@
 package main.java.util.algorithms;
 
-import main.java.GraphPanel;
-import org.jgrapht.graph.DefaultWeightedEdge;
-
-import java.util.ArrayDeque;
-import java.util.Deque;
+import main.java.util.graph.IndexedGraph;
 
 
 /**
  * Implements a breadth first search to find a shortest path between a
- * {@link GraphPanel#sourceNode} and {@link  GraphPanel#targetNode}. Note that
- * the graph input is weighted and undirected. This implementation ignores the
- * weights.
+ * source node and target node. Note that the graph input is weighted and
+ * undirected. This implementation ignores the weights.
  *
  * @author Ryan Albertson
  */
@@ -23,39 +18,45 @@ public class BreadthFirstSearch extends Algorithm {
 
     /**
      * Constructor.
-     * @param gPanel {@link GraphPanel}.
+     * @param graph      {@link IndexedGraph} to search.
+     * @param sink       Receives the steps of the search.
+     * @param sourceNode Node the search starts at.
+     * @param targetNode Node the search looks for.
      */
-    public BreadthFirstSearch(GraphPanel gPanel) {
+    public BreadthFirstSearch(IndexedGraph graph, StepSink sink, int sourceNode,
+                              int targetNode) {
 
-        super(gPanel);
-        visited = new boolean[gPanel.nodeCount];
+        super(graph, sink, sourceNode, targetNode);
+        visited = new boolean[graph.nodeCount()];
     }
 
 
     protected void runAlgorithm(Integer node) {
 
-        Deque<Integer> queue = new ArrayDeque<>();
-        queue.addLast(node);
+        // Every node is queued at most once, so the queue never wraps
+        int[] queue = new int[graph.nodeCount()];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = node;
         visited[node] = true;
 
         search:
-        while (!queue.isEmpty()) {
-            Integer currentNode = queue.removeFirst();
+        while (head < tail) {
+            int currentNode = queue[head++];
             // source node equals target node
-            if (currentNode.equals(gPanel.targetNode)) {
+            if (currentNode == targetNode) {
                 checkForPause();
                 animate();
                 break;
             }
 
-            for (DefaultWeightedEdge edge : gPanel.graph.edgesOf(currentNode)) {
-                Integer adjNode = gPanel.graph.getEdgeTarget(edge);
-                if (adjNode.equals(currentNode)) adjNode =
-                        gPanel.graph.getEdgeSource(edge);
+            for (int arc = graph.firstArc(currentNode);
+                 arc < graph.endArc(currentNode); arc++) {
+                int adjNode = graph.arcTarget(arc);
 
                 // Stop BFS when target is found
-                if (adjNode.equals(gPanel.targetNode)) {
-                    gPanel.path[adjNode] = currentNode;
+                if (adjNode == targetNode) {
+                    sink.setPredecessor(adjNode, currentNode);
                     // Check if user has stopped or paused algorithm
                     if (isStopped()) return;
                     animate();
@@ -65,9 +66,9 @@ public class BreadthFirstSearch extends Algorithm {
                 // Explore unvisited neighbors of currentNode
                 if (!visited[adjNode]) {
                     visited[adjNode] = true;
-                    gPanel.path[adjNode] = currentNode;
-                    queue.addLast(adjNode);
-                    gPanel.visitedEdges.add(edge);
+                    sink.setPredecessor(adjNode, currentNode);
+                    queue[tail++] = adjNode;
+                    sink.visitEdge(graph.arcEdge(arc));
                     // Check if user has stopped or paused algorithm
                     animate();
                     if (isStopped()) return;
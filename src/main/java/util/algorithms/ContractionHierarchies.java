@@ -0,0 +1,65 @@
+package main.java.util.algorithms;
+
+import main.java.util.ch.CHQuery;
+import main.java.util.ch.ContractionHierarchy;
+import main.java.util.graph.IndexedGraph;
+
+
+/**
+ * Finds a shortest path from a source node to a target node with a
+ * {@link ContractionHierarchy}. The hierarchy is built the first time a graph
+ * is searched and reused for every later search of it. Each node settled by
+ * the upward searches is shown with the graph edges of the shortcut it was
+ * reached by, and the path is unpacked into graph edges at the end.
+ *
+ * @author Ryan Albertson
+ */
+public class ContractionHierarchies extends Algorithm {
+
+
+    /**
+     * Constructor.
+     * @param graph      {@link IndexedGraph} to search.
+     * @param sink       Receives the steps of the search.
+     * @param sourceNode Node the search starts at.
+     * @param targetNode Node the search looks for.
+     */
+    public ContractionHierarchies(IndexedGraph graph, StepSink sink,
+                                  int sourceNode, int targetNode) {
+
+        super(graph, sink, sourceNode, targetNode);
+    }
+
+
+    public void runAlgorithm(Integer node) {
+
+        CHQuery query = ContractionHierarchy.of(graph).newQuery();
+        query.setRecording(true);
+        query.distance(node, targetNode);
+
+        // Show each settled node's shortcut as one step
+        for (int i = 0; i < query.settledCount(); i++) {
+            int side = query.settledSide(i);
+            query.forEachSettledEdge(i, edge -> sink.visitEdge(edge, side));
+            // Check if user has stopped or paused algorithm
+            animate();
+            if (isStopped()) return;
+        }
+
+        // Unpack the path into predecessors, from the source on
+        int[] pathNode = {node};
+        query.forEachPathEdge(edge -> {
+            int nextNode = graph.edgeSource(edge) == pathNode[0]
+                    ? graph.edgeTarget(edge) : graph.edgeSource(edge);
+            sink.setPredecessor(nextNode, pathNode[0]);
+            pathNode[0] = nextNode;
+        });
+        animate();
+    }
+
+
+    public void runAlgorithm() {
+
+        // This signature isn't needed for this algorithm.
+    }
+}
@@ -0,0 +1,95 @@
+package main.java.util.algorithms;
+
+/**
+ * A {@link StepSink} that only counts the steps of an {@link Algorithm}. Used
+ * to measure algorithms without rendering them.
+ *
+ * @author Ryan Albertson
+ */
+public class CountingSink implements StepSink {
+
+    private long steps;
+    private long edgeVisits;
+    private long edgeUnvisits;
+    private long predecessorUpdates;
+
+
+    @Override
+    public void reset() {
+
+        steps = 0;
+        edgeVisits = 0;
+        edgeUnvisits = 0;
+        predecessorUpdates = 0;
+    }
+
+
+    @Override
+    public void visitEdge(int edge) {
+
+        edgeVisits++;
+    }
+
+
+    @Override
+    public void unvisitEdge(int edge) {
+
+        edgeUnvisits++;
+    }
+
+
+    @Override
+    public void clearVisitedEdges() {
+
+    }
+
+
+    @Override
+    public void setPredecessor(int node, int predecessor) {
+
+        predecessorUpdates++;
+    }
+
+
+    @Override
+    public void step(int speedUp) {
+
+        steps++;
+    }
+
+
+    /**
+     * @return Number of completed steps.
+     */
+    public long getSteps() {
+
+        return steps;
+    }
+
+
+    /**
+     * @return Number of times an edge was marked visited.
+     */
+    public long getEdgeVisits() {
+
+        return edgeVisits;
+    }
+
+
+    /**
+     * @return Number of times an edge was unmarked.
+     */
+    public long getEdgeUnvisits() {
+
+        return edgeUnvisits;
+    }
+
+
+    /**
+     * @return Number of path predecessor updates.
+     */
+    public long getPredecessorUpdates() {
+
+        return predecessorUpdates;
+    }
+}
@@ -0,0 +1,336 @@
+package main.java.util.algorithms;
+
+import main.java.util.graph.IndexedGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Implements the delta-stepping algorithm to find a shortest path from a
+ * source node to a target node. Reached nodes are kept in buckets of distance
+ * width delta. Buckets are emptied in order, and the arcs of every node in a
+ * bucket are relaxed in parallel on the common ForkJoinPool. Light arcs, no
+ * heavier than delta, may refill the current bucket and are relaxed until it
+ * stays empty. Heavy arcs can't, so they're relaxed once afterwards. Each
+ * emptied bucket is animated as one step.
+ *
+ * @author Ryan Albertson
+ */
+public class DeltaStepping extends Algorithm {
+
+    // Frontiers smaller than this are relaxed on the calling thread
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private final double delta;
+
+    // Tentative distance of each node, as the bits of a non-negative double.
+    // These order the same way as the doubles, so they can be lowered by CAS
+    private AtomicLongArray distanceTo;
+
+    // Round in which each node was last added to the changed nodes
+    private AtomicIntegerArray changedRound;
+    private int[] changed;
+    private AtomicInteger changedCount;
+    private int round;
+
+
+    /**
+     * Constructor. Delta is the mean edge weight.
+     * @param graph      {@link IndexedGraph} to search.
+     * @param sink       Receives the steps of the search.
+     * @param sourceNode Node the search starts at.
+     * @param targetNode Node the search looks for.
+     */
+    public DeltaStepping(IndexedGraph graph, StepSink sink, int sourceNode,
+                         int targetNode) {
+
+        this(graph, sink, sourceNode, targetNode, meanWeight(graph));
+    }
+
+
+    /**
+     * Constructor.
+     * @param graph      {@link IndexedGraph} to search.
+     * @param sink       Receives the steps of the search.
+     * @param sourceNode Node the search starts at.
+     * @param targetNode Node the search looks for.
+     * @param delta      Distance width of each bucket.
+     * @throws IllegalArgumentException If {@code delta} isn't positive.
+     */
+    public DeltaStepping(IndexedGraph graph, StepSink sink, int sourceNode,
+                         int targetNode, double delta)
+            throws IllegalArgumentException {
+
+        super(graph, sink, sourceNode, targetNode);
+        if (!(delta > 0)) {
+            throw new IllegalArgumentException("ERROR: Delta must be positive");
+        }
+        this.delta = delta;
+    }
+
+
+    /**
+     * @param graph An {@link IndexedGraph}.
+     * @return Mean weight of the edges of {@code graph}, or 1 if it has none.
+     */
+    private static double meanWeight(IndexedGraph graph) {
+
+        double totalWeight = 0;
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            totalWeight += graph.edgeWeight(edge);
+        }
+        double meanWeight = totalWeight / graph.edgeCount();
+        return meanWeight > 0 ? meanWeight : 1;
+    }
+
+
+    public void runAlgorithm(Integer node) {
+
+        int nodeCount = graph.nodeCount();
+        distanceTo = new AtomicLongArray(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            distanceTo.set(i, Double.doubleToRawLongBits(Double.POSITIVE_INFINITY));
+        }
+        distanceTo.set(node, Double.doubleToRawLongBits(0.0));
+        changedRound = new AtomicIntegerArray(nodeCount);
+        changed = new int[nodeCount];
+        changedCount = new AtomicInteger();
+        round = 0;
+
+        // Reached nodes by bucket. May hold stale entries of nodes that moved
+        // to a lower bucket since, which are skipped
+        List<NodeList> buckets = new ArrayList<>();
+        bucketAt(buckets, 0).add(node);
+
+        // Round in which each node was last put in a frontier
+        int[] frontierRound = new int[nodeCount];
+        boolean[] isSettled = new boolean[nodeCount];
+        int[] prevNode = new int[nodeCount];
+        int[] edgeTo = new int[nodeCount];
+        Arrays.fill(edgeTo, -1);
+
+        for (int index = 0; index < buckets.size(); index++) {
+            NodeList bucket = buckets.get(index);
+            if (null == bucket) continue;
+            buckets.set(index, null);
+
+            // Nodes removed from this bucket, settled once it stays empty
+            NodeList settled = new NodeList();
+            while (bucket.size > 0) {
+                round++;
+                NodeList frontier = new NodeList();
+                for (int i = 0; i < bucket.size; i++) {
+                    int frontierNode = bucket.nodes[i];
+                    if (bucketOf(frontierNode) != index
+                            || frontierRound[frontierNode] == round) continue;
+                    frontierRound[frontierNode] = round;
+                    frontier.add(frontierNode);
+                    if (!isSettled[frontierNode]) {
+                        isSettled[frontierNode] = true;
+                        settled.add(frontierNode);
+                    }
+                }
+                relax(frontier, true);
+
+                // Changed nodes either refill this bucket or go to a later one
+                bucket = new NodeList();
+                for (int i = 0; i < changedCount.get(); i++) {
+                    int changedNode = changed[i];
+                    int changedIndex = bucketOf(changedNode);
+                    if (changedIndex == index) bucket.add(changedNode);
+                    else bucketAt(buckets, changedIndex).add(changedNode);
+                }
+            }
+
+            round++;
+            relax(settled, false);
+            for (int i = 0; i < changedCount.get(); i++) {
+                bucketAt(buckets, bucketOf(changed[i])).add(changed[i]);
+            }
+
+            // Distances of settled nodes are final, so their shortest path
+            // edges are too. Find them in parallel, then show them in order
+            stream(settled.size).forEach(i -> findEdgeTo(settled.nodes[i],
+                    prevNode, edgeTo));
+            findZeroWeightEdgesTo(settled, prevNode, edgeTo);
+            boolean isTargetSettled = false;
+            for (int i = 0; i < settled.size; i++) {
+                int settledNode = settled.nodes[i];
+                if (edgeTo[settledNode] != -1) {
+                    sink.visitEdge(edgeTo[settledNode]);
+                    sink.setPredecessor(settledNode, prevNode[settledNode]);
+                }
+                if (settledNode == targetNode) isTargetSettled = true;
+            }
+            // Check if user has stopped or paused algorithm
+            animate();
+            if (isStopped() || isTargetSettled) return;
+        }
+    }
+
+
+    /**
+     * Relaxes the light or heavy arcs of every node of {@code frontier} in
+     * parallel, collecting the nodes whose distance dropped into
+     * {@link #changed}.
+     *
+     * @param frontier Nodes whose arcs are relaxed.
+     * @param isLight  True to relax the arcs no heavier than delta, false to
+     *                 relax the rest.
+     */
+    private void relax(NodeList frontier, boolean isLight) {
+
+        changedCount.set(0);
+        stream(frontier.size).forEach(i -> {
+            int node = frontier.nodes[i];
+            double distance = Double.longBitsToDouble(distanceTo.get(node));
+            for (int arc = graph.firstArc(node); arc < graph.endArc(node); arc++) {
+                double weight = graph.arcWeight(arc);
+                if ((weight <= delta) == isLight) {
+                    lowerDistance(graph.arcTarget(arc), distance + weight);
+                }
+            }
+        });
+    }
+
+
+    /**
+     * Lowers the distance of a node if {@code newDist} is shorter, and adds the
+     * node to {@link #changed} the first time this round that it's lowered.
+     */
+    private void lowerDistance(int node, double newDist) {
+
+        long newBits = Double.doubleToRawLongBits(newDist);
+        long oldBits = distanceTo.get(node);
+        while (newBits < oldBits) {
+            if (distanceTo.compareAndSet(node, oldBits, newBits)) {
+                int oldRound = changedRound.get(node);
+                if (oldRound != round
+                        && changedRound.compareAndSet(node, oldRound, round)) {
+                    changed[changedCount.getAndIncrement()] = node;
+                }
+                return;
+            }
+            oldBits = distanceTo.get(node);
+        }
+    }
+
+
+    /**
+     * Finds the edge that a settled node's shortest path arrives by. Of equally
+     * short paths, the one through the lowest edge id is used. Only strictly
+     * closer nodes can be the predecessor, so zero-weight edges never make two
+     * nodes each other's predecessor. Nodes with no closer predecessor are left
+     * to {@link #findZeroWeightEdgesTo}. The source has no predecessor.
+     */
+    private void findEdgeTo(int node, int[] prevNode, int[] edgeTo) {
+
+        if (node == sourceNode) return;
+        double distance = Double.longBitsToDouble(distanceTo.get(node));
+        double bestDist = Double.POSITIVE_INFINITY;
+        for (int arc = graph.firstArc(node); arc < graph.endArc(node); arc++) {
+            int adjNode = graph.arcTarget(arc);
+            double adjDist = Double.longBitsToDouble(distanceTo.get(adjNode));
+            double newDist = adjDist + graph.arcWeight(arc);
+            if (adjDist >= distance || newDist > distance) continue;
+            if (newDist < bestDist || (newDist == bestDist
+                    && graph.arcEdge(arc) < edgeTo[node])) {
+                bestDist = newDist;
+                prevNode[node] = adjNode;
+                edgeTo[node] = graph.arcEdge(arc);
+            }
+        }
+    }
+
+
+    /**
+     * Finds the edges that settled nodes only reachable over zero-weight edges
+     * from nodes of the same distance arrive by, spreading out from the settled
+     * nodes that already have one. Each node gets its edge from a node that got
+     * one before it, so the edges never form a cycle.
+     */
+    private void findZeroWeightEdgesTo(NodeList settled, int[] prevNode,
+                                       int[] edgeTo) {
+
+        NodeList reached = new NodeList();
+        for (int i = 0; i < settled.size; i++) {
+            int node = settled.nodes[i];
+            if (edgeTo[node] != -1 || node == sourceNode) reached.add(node);
+        }
+        for (int i = 0; i < reached.size && reached.size < settled.size; i++) {
+            int node = reached.nodes[i];
+            for (int arc = graph.firstArc(node); arc < graph.endArc(node); arc++) {
+                int adjNode = graph.arcTarget(arc);
+                if (graph.arcWeight(arc) != 0.0 || edgeTo[adjNode] != -1
+                        || adjNode == sourceNode
+                        || distanceTo.get(adjNode) != distanceTo.get(node)) continue;
+                prevNode[adjNode] = node;
+                edgeTo[adjNode] = graph.arcEdge(arc);
+                reached.add(adjNode);
+            }
+        }
+    }
+
+
+    /**
+     * @return Index of the bucket that {@code node}'s distance falls in.
+     */
+    private int bucketOf(int node) {
+
+        return (int) (Double.longBitsToDouble(distanceTo.get(node)) / delta);
+    }
+
+
+    /**
+     * @return The bucket at {@code index}, created if needed.
+     */
+    private static NodeList bucketAt(List<NodeList> buckets, int index) {
+
+        while (buckets.size() <= index) buckets.add(null);
+        NodeList bucket = buckets.get(index);
+        if (null == bucket) {
+            bucket = new NodeList();
+            buckets.set(index, bucket);
+        }
+        return bucket;
+    }
+
+
+    /**
+     * @return Stream over {@code 0..size-1}, parallel if {@code size} is large
+     * enough to be worth it.
+     */
+    private static IntStream stream(int size) {
+
+        IntStream indices = IntStream.range(0, size);
+        return size < PARALLEL_THRESHOLD ? indices : indices.parallel();
+    }
+
+
+    public void runAlgorithm() {
+
+        // This signature isn't needed for this algorithm.
+    }
+
+
+    /**
+     * A growable list of nodes.
+     */
+    private static final class NodeList {
+
+        private int[] nodes = new int[8];
+        private int size = 0;
+
+
+        private void add(int node) {
+
+            if (size == nodes.length) nodes = Arrays.copyOf(nodes, 2 * size);
+            nodes[size++] = node;
+        }
+    }
+}
@@ -1,64 +1,75 @@
 package main.java.util.algorithms;
 
-import main.java.GraphPanel;
-import org.jgrapht.graph.DefaultWeightedEdge;
+import main.java.util.graph.IndexedGraph;
 
 
 /**
- * Implements a depth first search to find a path between a
- * {@link GraphPanel#sourceNode} and {@link GraphPanel#targetNode}.
+ * Implements a depth first search to find a path between a source node and
+ * target node.
  *
  * @author Ryan Albertson
  */
 public class DepthFirstSearch extends Algorithm {
 
     private final boolean[] visited;
-    private boolean targetFound;
 
 
     /**
      * Constructor.
-     * @param gPanel {@link GraphPanel}.
+     * @param graph      {@link IndexedGraph} to search.
+     * @param sink       Receives the steps of the search.
+     * @param sourceNode Node the search starts at.
+     * @param targetNode Node the search looks for.
      */
-    public DepthFirstSearch(GraphPanel gPanel) {
+    public DepthFirstSearch(IndexedGraph graph, StepSink sink, int sourceNode,
+                            int targetNode) {
 
-        super(gPanel);
-        visited = new boolean[gPanel.nodeCount];
-        targetFound = false;
+        super(graph, sink, sourceNode, targetNode);
+        visited = new boolean[graph.nodeCount()];
     }
 
 
     /**
-     * Recursively checks the given node's neighbors until the
-     * {@link GraphPanel#targetNode} is found. The preceding node for every node
-     * is stored such that a path can be traced from the
-     * {@link GraphPanel#targetNode} to the {@link GraphPanel#sourceNode}.
+     * Checks the given node's neighbors depth first until the target node is
+     * found. The preceding node for every node is stored such that a path can
+     * be traced from the target node to the source node. An explicit stack is
+     * used so that deep graphs can't overflow the call stack.
      *
      * @param node DFS is started at this node.
      */
     protected void runAlgorithm(Integer node) {
 
-        // Stop DFS when target is found
-        if (node.equals(gPanel.targetNode)) {
-            targetFound = true;
-            return;
-        }
+        if (node == targetNode) return;
+
+        // Nodes on the current DFS path, and the next arc to try at each of them
+        int[] stack = new int[graph.nodeCount()];
+        int[] nextArc = new int[graph.nodeCount()];
+        int top = 0;
+        stack[top++] = node;
+        nextArc[node] = graph.firstArc(node);
         visited[node] = true;
 
-        // Recursively check adjacent nodes
-        for (DefaultWeightedEdge edge : gPanel.graph.edgesOf(node)) {
-            // Stop searching if target has been found further down the recursion
-            if (targetFound) return;
-            Integer adjNode = gPanel.graph.getEdgeTarget(edge);
-            // Convert directed edges to undirected
-            if (adjNode.equals(node)) adjNode = gPanel.graph.getEdgeSource(edge);
+        while (top > 0) {
+            int currentNode = stack[top - 1];
+            // Backtrack once every adjacent node has been checked
+            if (nextArc[currentNode] == graph.endArc(currentNode)) {
+                top--;
+                continue;
+            }
+            int arc = nextArc[currentNode]++;
+            int adjNode = graph.arcTarget(arc);
             if (!visited[adjNode]) {
-                gPanel.visitedEdges.add(edge);
-                gPanel.path[adjNode] = node;
+                sink.visitEdge(graph.arcEdge(arc));
+                sink.setPredecessor(adjNode, currentNode);
                 // Check if user has stopped or paused algorithm
                 animate();
                 if (isStopped()) return;
-                runAlgorithm(adjNode);
+                // Stop DFS when target is found
+                if (adjNode == targetNode) return;
+
+                visited[adjNode] = true;
+                nextArc[adjNode] = graph.firstArc(adjNode);
+                stack[top++] = adjNode;
             }
         }
     }
@@ -1,17 +1,16 @@
 package main.java.util.algorithms;
 
-import main.java.GraphPanel;
-import org.jgrapht.graph.DefaultWeightedEdge;
+import main.java.util.Defs;
+import main.java.util.graph.IndexedGraph;
+import main.java.util.structures.IndexedMinHeap;
 
-import java.util.ArrayDeque;
 import java.util.Arrays;
-import java.util.Deque;
-import java.util.PriorityQueue;
 
 
 /**
  * Implements Dijkstra's algorithm to find a shortest path from a
- * {@link GraphPanel#sourceNode} to a {@link  GraphPanel#targetNode}.
+ * source node to a target node. Nodes are settled in order of distance, and
+ * the search stops as soon as the target node is settled.
  *
  * @author Ryan Albertson
  */
@@ -20,63 +19,61 @@ public class Dijkstra extends Algorithm {
 
     /**
      * Constructor.
-     * @param gPanel {@link GraphPanel}.
+     * @param graph      {@link IndexedGraph} to search.
+     * @param sink       Receives the steps of the search.
+     * @param sourceNode Node the search starts at.
+     * @param targetNode Node the search looks for.
      */
-    public Dijkstra(GraphPanel gPanel) {
+    public Dijkstra(IndexedGraph graph, StepSink sink, int sourceNode,
+                    int targetNode) {
 
-        super(gPanel);
+        super(graph, sink, sourceNode, targetNode);
     }
 
 
     public void runAlgorithm(Integer node) {
 
-        double[] distanceTo = new double[gPanel.nodeCount];
+        double[] distanceTo = new double[graph.nodeCount()];
         Arrays.fill(distanceTo, Double.POSITIVE_INFINITY);
         distanceTo[node] = 0.0;
 
-        // Order of nodes to be visited
-        Deque<Integer> nodesQueue = new ArrayDeque<>(
-                gPanel.graph.vertexSet().size());
-        nodesQueue.addLast(node);
-
-        // Order of adjacent edges to be explored at each node (min. priority bv weight)
-        PriorityQueue<DefaultWeightedEdge> edgesPQ = new PriorityQueue<>((e1, e2) ->
-        {
-            Double e1Weight = gPanel.graph.getEdgeWeight(e1);
-            Double e2Weight = gPanel.graph.getEdgeWeight(e2);
-            return e1Weight.compareTo(e2Weight);
-        });
-        boolean[] isExplored = new boolean[gPanel.nodeCount];
-
-        while (!nodesQueue.isEmpty()) {
-            Integer currentNode = nodesQueue.poll();
-            edgesPQ.addAll(gPanel.graph.edgesOf(currentNode));
-            while (!edgesPQ.isEmpty()) {
-                // Find nearest adjacent node from available adjacent edges
-                DefaultWeightedEdge leastEdge = edgesPQ.poll();
-                if (gPanel.visitedEdges.contains(leastEdge)) continue;
-                Integer adjNode = gPanel.graph.getEdgeTarget(leastEdge);
-                // Account for directed edges
-                if (adjNode.equals(currentNode)) {
-                    adjNode = gPanel.graph.getEdgeSource(leastEdge);
-                }
-                if (isExplored[adjNode]) continue;
-                nodesQueue.addLast(adjNode);
-                gPanel.visitedEdges.add(leastEdge);
-
-                // Update adjNode's distance if proposed predecessor is shorter
-                double currentDist = distanceTo[adjNode];
-                double newDist = distanceTo[currentNode] +
-                        gPanel.graph.getEdgeWeight(leastEdge);
-                if (newDist < currentDist) {
-                    distanceTo[adjNode] = newDist;
-                    gPanel.path[adjNode] = currentNode;
-                }
+        // Node & edge used to reach each node on its current shortest path
+        int[] prevNode = new int[graph.nodeCount()];
+        int[] edgeTo = new int[graph.nodeCount()];
+        Arrays.fill(edgeTo, -1);
+        boolean[] isSettled = new boolean[graph.nodeCount()];
+
+        // Unsettled nodes that have been reached (min. priority by distance)
+        IndexedMinHeap nodesPQ = new IndexedMinHeap(graph.nodeCount(),
+                Defs.HEAP_ARITY);
+        nodesPQ.insert(node, 0.0);
+
+        while (!nodesPQ.isEmpty()) {
+            int currentNode = nodesPQ.poll();
+            isSettled[currentNode] = true;
+            // The edge to a settled node is final, so it's shown now
+            if (edgeTo[currentNode] != -1) {
+                sink.visitEdge(edgeTo[currentNode]);
+                sink.setPredecessor(currentNode, prevNode[currentNode]);
                 // Check if user has stopped or paused algorithm
                 animate();
                 if (isStopped()) return;
             }
-            isExplored[currentNode] = true;
+            if (currentNode == targetNode) break;
+
+            // Relax every edge to an unsettled adjacent node
+            for (int arc = graph.firstArc(currentNode);
+                 arc < graph.endArc(currentNode); arc++) {
+                int adjNode = graph.arcTarget(arc);
+                if (isSettled[adjNode]) continue;
+                double newDist = distanceTo[currentNode] + graph.arcWeight(arc);
+                if (newDist < distanceTo[adjNode]) {
+                    distanceTo[adjNode] = newDist;
+                    prevNode[adjNode] = currentNode;
+                    edgeTo[adjNode] = graph.arcEdge(arc);
+                    nodesPQ.insertOrDecrease(adjNode, newDist);
+                }
+            }
         }
     }
 
@@ -1,31 +1,58 @@
 package main.java.util.algorithms;
 
-
-import main.java.GraphPanel;
-import org.jgrapht.graph.DefaultWeightedEdge;
+import main.java.util.Defs;
+import main.java.util.apsp.BlockedFloydWarshall;
+import main.java.util.apsp.DistanceMatrix;
+import main.java.util.graph.IndexedGraph;
 
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
-import java.util.concurrent.TimeUnit;
 
 /**
- * Implements a Floyd-Warshall algorithm to find a shortest path from a
- * {@link GraphPanel#sourceNode} to a {@link  GraphPanel#targetNode}.
+ * Implements a Floyd-Warshall algorithm to find a shortest path from a source
+ * node to a target node. Small graphs are animated cell by cell. Larger graphs
+ * are solved with {@link BlockedFloydWarshall}, and only the resulting shortest
+ * paths are animated.
  *
  * @author Ryan Albertson
  */
 public class FloydWarshall extends Algorithm {
-    
+
+    private final boolean isBlocked;
+
+
+    /**
+     * Constructor. Uses the blocked engine if the graph has more than
+     * {@link Defs#FLOYD_WARSHALL_ANIMATED_NODES} nodes.
+     * @param graph      {@link IndexedGraph} to search.
+     * @param sink       Receives the steps of the search.
+     * @param sourceNode Node the search starts at.
+     * @param targetNode Node the search looks for.
+     */
+    public FloydWarshall(IndexedGraph graph, StepSink sink, int sourceNode,
+                         int targetNode) {
+
+        this(graph, sink, sourceNode, targetNode,
+                graph.nodeCount() > Defs.FLOYD_WARSHALL_ANIMATED_NODES);
+    }
+
 
     /**
      * Constructor.
-     * @param gPanel {@link GraphPanel}.
+     * @param graph      {@link IndexedGraph} to search.
+     * @param sink       Receives the steps of the search.
+     * @param sourceNode Node the search starts at.
+     * @param targetNode Node the search looks for.
+     * @param isBlocked  True to use the blocked engine, false to animate every
+     *                   cell of the matrix.
      */
-    public FloydWarshall(GraphPanel gPanel) {
+    public FloydWarshall(IndexedGraph graph, StepSink sink, int sourceNode,
+                         int targetNode, boolean isBlocked) {
 
-        super(gPanel);
+        super(graph, sink, sourceNode, targetNode);
+        this.isBlocked = isBlocked;
     }
 
 
@@ -35,36 +62,37 @@ public class FloydWarshall extends Algorithm {
      */
     protected void animate(boolean skip) {
 
-        int speed = gPanel.speed > 0 ? gPanel.speed - 350 : gPanel.speed;
-        if (skip) speed = 0;
-        try {
-            // Update animation
-            gPanel.repaint();
-            TimeUnit.MILLISECONDS.sleep(speed);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-
-        checkForPause();
+        animate(skip ? StepSink.INSTANT : 350);
     }
 
 
     public void runAlgorithm(Integer node) {
 
+        if (isBlocked) {
+            runBlocked();
+            return;
+        }
+
         // distanceTo[i][j] is the min weight path from node i to node j
-        double[][] distanceTo = new double[gPanel.nodeCount][gPanel.nodeCount];
+        double[][] distanceTo = new double[graph.nodeCount()][graph.nodeCount()];
         for (double[] row : distanceTo) Arrays.fill(row, Double.MAX_VALUE);
 
         // Pointers to next nodes in paths within the graph
-        int[][] next = new int[gPanel.nodeCount][gPanel.nodeCount];
+        int[][] next = new int[graph.nodeCount()][graph.nodeCount()];
         for (int[] row : next) Arrays.fill(row, -1);
 
+        // Id of the edge directly between each node pair
+        int[][] edgeBetween = new int[graph.nodeCount()][graph.nodeCount()];
+        for (int[] row : edgeBetween) Arrays.fill(row, -1);
+
         // Init the weights of direct edges between node pairs
-        for (DefaultWeightedEdge edge : gPanel.graph.edgeSet()) {
-            int edgeSource = gPanel.graph.getEdgeSource(edge);
-            int edgeTarget = gPanel.graph.getEdgeTarget(edge);
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            int edgeSource = graph.edgeSource(edge);
+            int edgeTarget = graph.edgeTarget(edge);
+            edgeBetween[edgeSource][edgeTarget] = edge;
+            edgeBetween[edgeTarget][edgeSource] = edge;
 
-            distanceTo[edgeSource][edgeTarget] = gPanel.graph.getEdgeWeight(edge);
+            distanceTo[edgeSource][edgeTarget] = graph.edgeWeight(edge);
             next[edgeSource][edgeTarget] = edgeTarget;
             // Consider the other direction of current edge
             distanceTo[edgeTarget][edgeSource] = distanceTo[edgeSource][edgeTarget];
@@ -72,10 +100,10 @@ public class FloydWarshall extends Algorithm {
         }
 
         // For every node in the graph, iterate through every pair of nodes
-        for (int k = 0; k < gPanel.nodeCount; k++) {
+        for (int k = 0; k < graph.nodeCount(); k++) {
             // Check if we can reroute path i~j through node k
-            for (int i = 0; i < gPanel.nodeCount; i++) {
-                for (int j = 0; j < gPanel.nodeCount; j++) {
+            for (int i = 0; i < graph.nodeCount(); i++) {
+                for (int j = 0; j < graph.nodeCount(); j++) {
                     // Bypass animation pause if no updates were made
                     boolean skipAnimation = true;
                     // Update distance if shorter path is found between i~j
@@ -84,23 +112,20 @@ public class FloydWarshall extends Algorithm {
                         // Update pointer for this path
                         next[i][j] = next[i][k];
 
-                        DefaultWeightedEdge edge = gPanel.graph.getEdge(i, k);
-                        if (null == edge) edge = gPanel.graph.getEdge(k, i);
-                        if (null != edge) {
-                            gPanel.visitedEdges.add(edge);
+                        int edge = edgeBetween[i][k];
+                        if (edge != -1) {
+                            sink.visitEdge(edge);
                             skipAnimation = false;
                         }
-                        edge = gPanel.graph.getEdge(k, j);
-                        if (null == edge) edge = gPanel.graph.getEdge(j, k);
-                        if (null != edge) {
-                            gPanel.visitedEdges.add(edge);
+                        edge = edgeBetween[k][j];
+                        if (edge != -1) {
+                            sink.visitEdge(edge);
                             skipAnimation = false;
                         }
                     } else {
-                        DefaultWeightedEdge edge = gPanel.graph.getEdge(i, j);
-                        if (null == edge) edge = gPanel.graph.getEdge(j, i);
-                        if (null != edge) {
-                            gPanel.visitedEdges.add(edge);
+                        int edge = edgeBetween[i][j];
+                        if (edge != -1) {
+                            sink.visitEdge(edge);
                             skipAnimation = false;
                         }
                     }
@@ -109,10 +134,10 @@ public class FloydWarshall extends Algorithm {
                     if (isStopped()) return;
                 }
             }
-            gPanel.visitedEdges.clear();
+            sink.clearVisitedEdges();
 
-            int u = gPanel.sourceNode;
-            int v = gPanel.targetNode;
+            int u = sourceNode;
+            int v = targetNode;
             // If path exists
             if (next[u][v] != -1) {
                 // Build path and then trace in reverse order for animation
@@ -124,9 +149,9 @@ public class FloydWarshall extends Algorithm {
                 }
                 ListIterator<Integer> it = path.listIterator(path.size());
                 Integer curr = path.get(path.size() - 1);
-                while (it.hasPrevious() && !curr.equals(gPanel.sourceNode)) {
+                while (it.hasPrevious() && curr != sourceNode) {
                     int prev = it.previous();
-                    gPanel.path[curr] = prev;
+                    sink.setPredecessor(curr, prev);
                     curr = prev;
                 }
 
@@ -138,6 +163,72 @@ public class FloydWarshall extends Algorithm {
     }
 
 
+    /**
+     * @return Shortest paths between every pair of nodes, from
+     * {@link BlockedFloydWarshall}.
+     */
+    protected DistanceMatrix solveAllPairs() {
+
+        return new BlockedFloydWarshall().compute(graph);
+    }
+
+
+    /**
+     * Solves all pairs with {@link #solveAllPairs()}, then animates the
+     * shortest path from every node to the target, nearest nodes first, and
+     * finally the path from the source.
+     */
+    private void runBlocked() {
+
+        DistanceMatrix matrix = solveAllPairs();
+        if (isStopped()) return;
+
+        // Sort the nodes that reach the target by their distance to it
+        Integer[] nodes = new Integer[graph.nodeCount()];
+        int reachCount = 0;
+        for (int i = 0; i < graph.nodeCount(); i++) {
+            if (i != targetNode && matrix.next(i, targetNode) != DistanceMatrix.NO_NODE) {
+                nodes[reachCount++] = i;
+            }
+        }
+        Arrays.sort(nodes, 0, reachCount, (node1, node2) -> Double.compare(
+                matrix.distance(node1, targetNode), matrix.distance(node2, targetNode)));
+
+        // Highlight the first edge of each node's shortest path to the target
+        for (int i = 0; i < reachCount; i++) {
+            int edge = edgeTo(nodes[i], matrix.next(nodes[i], targetNode));
+            if (edge != -1) sink.visitEdge(edge);
+            animate(false);
+            if (isStopped()) return;
+        }
+
+        int[] path = matrix.path(sourceNode, targetNode);
+        for (int i = 1; i < path.length; i++) {
+            sink.setPredecessor(path[i], path[i - 1]);
+        }
+        animate(true);
+    }
+
+
+    /**
+     * @param node    A node.
+     * @param adjNode A node adjacent to {@code node}.
+     * @return Id of the lightest edge between the nodes, or -1 if there is none.
+     */
+    private int edgeTo(int node, int adjNode) {
+
+        int lightestEdge = -1;
+        double lightestWeight = Double.POSITIVE_INFINITY;
+        for (int arc = graph.firstArc(node); arc < graph.endArc(node); arc++) {
+            if (graph.arcTarget(arc) == adjNode && graph.arcWeight(arc) < lightestWeight) {
+                lightestWeight = graph.arcWeight(arc);
+                lightestEdge = graph.arcEdge(arc);
+            }
+        }
+        return lightestEdge;
+    }
+
+
     public void runAlgorithm() {
 
         // This signature isn't needed for this algorithm.
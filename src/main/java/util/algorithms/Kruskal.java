@@ -1,84 +1,174 @@
 package main.java.util.algorithms;
 
-import main.java.GraphPanel;
-import org.jgrapht.graph.DefaultWeightedEdge;
+import main.java.util.graph.IndexedGraph;
+import main.java.util.structures.UnionFind;
 
-import java.util.PriorityQueue;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
 
 /**
  * Implements Kruskal's algorithm to find the minimum spanning tree of a
- * {@link org.jgrapht.graph.DefaultUndirectedWeightedGraph}.
+ * {@link IndexedGraph}. Edges are packed into longs that sort by weight, then
+ * id, and joined with a {@link UnionFind}.
+ * <p>
+ * In filter mode, Filter-Kruskal is used instead of sorting every edge. The
+ * edges are partitioned around a random pivot, the light half is solved
+ * first, and then heavy edges already inside a component are dropped before
+ * the heavy half is solved. On dense graphs most heavy edges are never sorted.
  *
  * @author Ryan Albertson
  */
 public class Kruskal extends Algorithm {
 
-    private final int[] parent;
+    // Edge ranges no longer than this are sorted rather than partitioned
+    private static final int FILTER_THRESHOLD = 1024;
+
+    private final boolean isFiltered;
+    private UnionFind components;
+    private int sizeMST;
 
 
     /**
-     * Constructor.
-     * @param gPanel {@link GraphPanel}.
+     * Constructor. Uses filter mode.
+     * @param graph {@link IndexedGraph} to span.
+     * @param sink  Receives the steps of the algorithm.
      */
-    public Kruskal(GraphPanel gPanel) {
+    public Kruskal(IndexedGraph graph, StepSink sink) {
 
-        super(gPanel);
-        parent = new int[gPanel.nodeCount];
+        this(graph, sink, true);
     }
 
 
     /**
-     * Traces through edges of a set of edges to find the root node.
-     * @param node Search starts at this node.
-     * @return The root of the set that {@code node} belongs to.
+     * Constructor.
+     * @param graph      {@link IndexedGraph} to span.
+     * @param sink       Receives the steps of the algorithm.
+     * @param isFiltered True to use Filter-Kruskal, false to sort every edge.
      */
-    protected int findParent(int node) {
+    public Kruskal(IndexedGraph graph, StepSink sink, boolean isFiltered) {
 
-        if (parent[node] != node) {
-            return findParent(parent[node]);
-        }
-        return node;
+        super(graph, sink);
+        this.isFiltered = isFiltered;
     }
 
 
-    protected void runAlgorithm() {
-
-        // All edges in the graph (min. priority by weight)
-        PriorityQueue<DefaultWeightedEdge> edgesPQ = new PriorityQueue<>((e1, e2) ->
-        {
-            Double e1Weight = gPanel.graph.getEdgeWeight(e1);
-            Double e2Weight = gPanel.graph.getEdgeWeight(e2);
-            return e1Weight.compareTo(e2Weight);
-        });
-        edgesPQ.addAll(gPanel.graph.edgeSet());
+    /**
+     * Packs every edge into a long, with the rank of its weight among all
+     * distinct weights in the high half and its id in the low half. Sorting
+     * these orders edges by weight, then id.
+     *
+     * @param graph {@link IndexedGraph} whose edges are packed.
+     * @return The packed edges, in id order.
+     */
+    static long[] packEdges(IndexedGraph graph) {
 
-        // Initialize each node's parent node to itself.
-        for (int node = 0; node < gPanel.nodeCount; node++) {
-            parent[node] = node;
+        // Sort the distinct weights, so each weight has an int rank
+        double[] weights = new double[graph.edgeCount()];
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            weights[edge] = graph.edgeWeight(edge);
+        }
+        Arrays.parallelSort(weights);
+        int distinctCount = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (distinctCount == 0
+                    || Double.compare(weights[i], weights[distinctCount - 1]) != 0) {
+                weights[distinctCount++] = weights[i];
+            }
         }
+        final int weightCount = distinctCount;
 
-        // Build the MST
-        int sizeMST = 0;
-        while (sizeMST < gPanel.nodeCount - 1) {
-            DefaultWeightedEdge leastEdge = edgesPQ.poll();
+        long[] edges = new long[graph.edgeCount()];
+        IntStream.range(0, edges.length).parallel().forEach(edge -> {
+            long rank = Arrays.binarySearch(weights, 0, weightCount,
+                    graph.edgeWeight(edge));
+            edges[edge] = rank << 32 | edge;
+        });
+        return edges;
+    }
 
-            // Find root nodes for each pair of edges.
-            int sourceNode = gPanel.graph.getEdgeSource(leastEdge);
-            int targetNode = gPanel.graph.getEdgeTarget(leastEdge);
-            int set1Root = findParent(sourceNode);
-            int set2Root = findParent(targetNode);
 
+    /**
+     * Adds the edges of a sorted range to the MST, skipping those that would
+     * form a cycle.
+     *
+     * @return False if the algorithm was stopped, otherwise true.
+     */
+    private boolean addEdges(long[] edges, int from, int to) {
+
+        for (int i = from; i < to && sizeMST < graph.nodeCount() - 1; i++) {
+            int edge = (int) edges[i];
             // Cycle exists, ignore this edge.
-            if (set1Root == set2Root) continue;
+            if (!components.union(graph.edgeSource(edge), graph.edgeTarget(edge))) {
+                continue;
+            }
 
             // Add edge to MST. (mark as visited)
-            gPanel.visitedEdges.add(leastEdge);
-
-            parent[set2Root] = set1Root;
+            sink.visitEdge(edge);
             sizeMST++;
             // Check if user has stopped or paused algorithm
             animate();
-            if (isStopped()) return;
+            if (isStopped()) return false;
+        }
+        return true;
+    }
+
+
+    /**
+     * Runs Filter-Kruskal on a range of packed edges.
+     *
+     * @return False if the algorithm was stopped, otherwise true.
+     */
+    private boolean filterKruskal(long[] edges, int from, int to) {
+
+        if (to - from <= FILTER_THRESHOLD) {
+            Arrays.sort(edges, from, to);
+            return addEdges(edges, from, to);
+        }
+
+        // Move the edges lighter than a random pivot to the front
+        long pivot = edges[ThreadLocalRandom.current().nextInt(from, to)];
+        int split = from;
+        for (int i = from; i < to; i++) {
+            if (edges[i] < pivot) {
+                long edge = edges[i];
+                edges[i] = edges[split];
+                edges[split++] = edge;
+            }
+        }
+        // The pivot was the lightest edge, so nothing was split off
+        if (split == from) {
+            Arrays.sort(edges, from, to);
+            return addEdges(edges, from, to);
+        }
+
+        if (!filterKruskal(edges, from, split)) return false;
+        if (sizeMST == graph.nodeCount() - 1) return true;
+
+        // Drop heavy edges whose endpoints the light edges already connected
+        int kept = split;
+        for (int i = split; i < to; i++) {
+            int edge = (int) edges[i];
+            if (!components.connected(graph.edgeSource(edge), graph.edgeTarget(edge))) {
+                edges[kept++] = edges[i];
+            }
+        }
+        return filterKruskal(edges, split, kept);
+    }
+
+
+    protected void runAlgorithm() {
+
+        components = new UnionFind(graph.nodeCount());
+        sizeMST = 0;
+        long[] edges = packEdges(graph);
+
+        // Build the MST
+        if (isFiltered) {
+            filterKruskal(edges, 0, edges.length);
+        } else {
+            Arrays.parallelSort(edges);
+            addEdges(edges, 0, edges.length);
         }
     }
 
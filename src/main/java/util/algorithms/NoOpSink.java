@@ -0,0 +1,53 @@
+package main.java.util.algorithms;
+
+/**
+ * A {@link StepSink} that ignores every step, so that an {@link Algorithm}
+ * runs at full speed.
+ *
+ * @author Ryan Albertson
+ */
+public final class NoOpSink implements StepSink {
+
+    public static final NoOpSink INSTANCE = new NoOpSink();
+
+
+    private NoOpSink() {
+
+    }
+
+
+    @Override
+    public void reset() {
+
+    }
+
+
+    @Override
+    public void visitEdge(int edge) {
+
+    }
+
+
+    @Override
+    public void unvisitEdge(int edge) {
+
+    }
+
+
+    @Override
+    public void clearVisitedEdges() {
+
+    }
+
+
+    @Override
+    public void setPredecessor(int node, int predecessor) {
+
+    }
+
+
+    @Override
+    public void step(int speedUp) {
+
+    }
+}
@@ -1,98 +1,95 @@
 package main.java.util.algorithms;
 
-import main.java.GraphPanel;
-import org.jgrapht.graph.DefaultWeightedEdge;
+import main.java.util.Defs;
+import main.java.util.graph.IndexedGraph;
+import main.java.util.structures.IndexedMinHeap;
 
-import java.util.HashSet;
-import java.util.PriorityQueue;
-import java.util.Set;
+import java.util.Arrays;
 
 
 /**
  * Implements a Prim's algorithm to find the minimum spanning tree of a
- * {@link org.jgrapht.graph.DefaultUndirectedWeightedGraph}.
+ * {@link IndexedGraph}. Every node outside the tree keeps its lightest edge
+ * to the tree in an {@link IndexedMinHeap}, so each step takes the lightest
+ * crossing edge in O(log V) rather than rescanning the tree.
  *
  * @author Ryan Albertson
  */
 public class Prim extends Algorithm {
 
 
-    private final Set<DefaultWeightedEdge> reached;
     private final boolean[] inMST;
 
+    // Lightest edge from the tree to each node outside it (min. priority by weight)
+    private final IndexedMinHeap crossingPQ;
+    private final int[] edgeTo;
+
 
     /**
      * Constructor.
-     * @param gPanel {@link GraphPanel}.
+     * @param graph {@link IndexedGraph} to span.
+     * @param sink  Receives the steps of the algorithm.
      */
-    public Prim(GraphPanel gPanel) {
+    public Prim(IndexedGraph graph, StepSink sink) {
 
-        super(gPanel);
-        inMST = new boolean[gPanel.nodeCount];
-        reached = new HashSet<>(gPanel.nodeCount);
+        super(graph, sink);
+        inMST = new boolean[graph.nodeCount()];
+        crossingPQ = new IndexedMinHeap(graph.nodeCount(), Defs.HEAP_ARITY);
+        edgeTo = new int[graph.nodeCount()];
     }
 
 
     /**
-     * Finds the closest reachable edge that is reachable from the current tree.
+     * Adds a node to the current tree, and offers its edges to nodes outside
+     * the tree as their crossing edges.
      *
-     * @return Closest reachable edge for current tree. Returns null if no
-     * unvisited edge exists.
+     * @param node Node to add.
      */
-    private DefaultWeightedEdge getLeastEdge() {
-
-        double leastDist = Double.POSITIVE_INFINITY;
-        DefaultWeightedEdge leastEdge = null;
-
-        // Look at all reachable edges from current tree
-        Set<DefaultWeightedEdge> reachableEdges = new HashSet<>();
-        for (DefaultWeightedEdge edge : reached) {
-            int edgeSource = gPanel.graph.getEdgeSource(edge);
-            int edgeTarget = gPanel.graph.getEdgeTarget(edge);
-
-            reachableEdges.addAll(gPanel.graph.edgesOf(edgeSource));
-            reachableEdges.addAll(gPanel.graph.edgesOf(edgeTarget));
-            for (DefaultWeightedEdge adjEdge : reachableEdges) {
-                int adjEdgeSource = gPanel.graph.getEdgeSource(adjEdge);
-                int adjEdgeTarget = gPanel.graph.getEdgeTarget(adjEdge);
-                // Ignore edges to nodes that are already in MST
-                if (inMST[adjEdgeSource] && inMST[adjEdgeTarget]) continue;
-
-                double adjDist = gPanel.graph.getEdgeWeight(adjEdge);
-                if (adjDist < leastDist) {
-                    leastDist = adjDist;
-                    leastEdge = adjEdge;
-                }
+    private void addToTree(int node) {
+
+        inMST[node] = true;
+        for (int arc = graph.firstArc(node); arc < graph.endArc(node); arc++) {
+            int adjNode = graph.arcTarget(arc);
+            // Ignore edges to nodes that are already in MST
+            if (inMST[adjNode]) continue;
+
+            if (crossingPQ.insertOrDecrease(adjNode, graph.arcWeight(arc))) {
+                edgeTo[adjNode] = graph.arcEdge(arc);
             }
         }
-        inMST[gPanel.graph.getEdgeSource(leastEdge)] = true;
-        inMST[gPanel.graph.getEdgeTarget(leastEdge)] = true;
-
-        return leastEdge;
     }
 
 
     protected void runAlgorithm() {
 
+        Arrays.fill(inMST, false);
+        crossingPQ.clear();
+        if (graph.edgeCount() == 0) return;
+
         // Start at the smallest edge
-        PriorityQueue<DefaultWeightedEdge> edgesPQ = new PriorityQueue<>((e1, e2) ->
-        {
-            Double e1Weight = gPanel.graph.getEdgeWeight(e1);
-            Double e2Weight = gPanel.graph.getEdgeWeight(e2);
-            return e1Weight.compareTo(e2Weight);
-        });
-        edgesPQ.addAll(gPanel.graph.edgeSet());
-        DefaultWeightedEdge edge = edgesPQ.poll();
-        gPanel.visitedEdges.add(edge);
-        reached.add(edge);
+        int edge = 0;
+        for (int e = 1; e < graph.edgeCount(); e++) {
+            if (graph.edgeWeight(e) < graph.edgeWeight(edge)) edge = e;
+        }
+        sink.visitEdge(edge);
+        // Mark both ends first, so neither offers the other a crossing edge
+        inMST[graph.edgeSource(edge)] = true;
+        inMST[graph.edgeTarget(edge)] = true;
+        addToTree(graph.edgeSource(edge));
+        addToTree(graph.edgeTarget(edge));
 
         // Build MST
-        while (gPanel.visitedEdges.size() < gPanel.nodeCount - 1) {
-            // Find and add least costly edge to MST
-            edge = getLeastEdge();
-            if (edge == null) return;
-            gPanel.visitedEdges.add(edge);
-            reached.add(edge);
+        int sizeMST = 1;
+        while (sizeMST < graph.nodeCount() - 1) {
+            // No edge leaves the tree
+            if (crossingPQ.isEmpty()) return;
+
+            // Add least costly crossing edge to MST
+            int node = crossingPQ.poll();
+            edge = edgeTo[node];
+            addToTree(node);
+            sink.visitEdge(edge);
+            sizeMST++;
             // Check if user has stopped or paused algorithm
             animate();
             if (isStopped()) return;
@@ -105,5 +102,3 @@ public class Prim extends Algorithm {
         // This signature isn't needed for this algorithm.
     }
 }
-
-
@@ -1,64 +1,36 @@
 package main.java.util.algorithms;
 
-import main.java.GraphPanel;
-import org.jgrapht.graph.DefaultUndirectedWeightedGraph;
-import org.jgrapht.graph.DefaultWeightedEdge;
+import main.java.util.graph.IndexedGraph;
+import main.java.util.structures.UnionFind;
 
-import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.Arrays;
 
 /**
  * Implements a Reverse Delete algorithm to find the mimimum spanning tree of a
- * {@link org.jgrapht.graph.DefaultUndirectedWeightedGraph}.
+ * {@link IndexedGraph}.
+ * <p>
+ * Whether each edge is a bridge when its turn comes is answered offline. With
+ * edges ordered heaviest first, Reverse Delete keeps exactly the edges of the
+ * minimum spanning tree for that order, which is what Kruskal finds by adding
+ * edges in the reverse order. So one {@link UnionFind} pass over the edges
+ * lightest first decides every deletion, and the deletions are then shown in
+ * the usual heaviest first order. Edges are packed into longs as in
+ * {@link Kruskal}, so they sort as primitives, and equally heavy edges are
+ * deleted in decreasing id order.
  *
  * @author Ryan Albertson
  */
 public class ReverseDelete extends Algorithm {
 
-    private final DefaultUndirectedWeightedGraph<Integer, DefaultWeightedEdge> graphCopy;
 
     /**
-     * Constructor
-     * @param gPanel {@link GraphPanel}.
+     * Constructor.
+     * @param graph {@link IndexedGraph} to span.
+     * @param sink  Receives the steps of the algorithm.
      */
-    public ReverseDelete(GraphPanel gPanel) {
+    public ReverseDelete(IndexedGraph graph, StepSink sink) {
 
-        super(gPanel);
-        graphCopy = (DefaultUndirectedWeightedGraph<Integer, DefaultWeightedEdge>) gPanel.graph.clone();
-    }
-
-
-    /**
-     * @param graph {@link DefaultUndirectedWeightedGraph} to check for connectivity.
-     * @return True if {@code graph} is connected, otherwise false.
-     */
-    private static boolean isConnected(DefaultUndirectedWeightedGraph<Integer,
-            DefaultWeightedEdge> graph) {
-
-        Set<Integer> vertices = graph.vertexSet();
-
-        // Edges cases
-        if (vertices.size() <= 1) return true;
-        if (vertices.size() - 1 > graph.edgeSet().size()) return false;
-
-        Set<Integer> visited = new HashSet<>();
-        Deque<DefaultWeightedEdge> queue = new ArrayDeque<>();
-        Integer startNode = vertices.iterator().next();
-
-        // BFS to determine connectivity
-        visited.add(startNode);
-        graph.edgesOf(startNode).forEach(queue::addLast);
-        while (visited.size() != vertices.size() && queue.size() != 0) {
-            DefaultWeightedEdge edge = queue.pollFirst();
-            Integer source = graph.getEdgeSource(edge);
-            Integer target = graph.getEdgeTarget(edge);
-            Integer adjNode = visited.contains(source) ? target : source;
-            if (!visited.contains(adjNode)) {
-                visited.add(adjNode);
-                graph.edgesOf(adjNode).forEach(queue::addLast);
-            }
-        }
-        return visited.size() == vertices.size();
+        super(graph, sink);
     }
 
 
@@ -68,53 +40,42 @@ public class ReverseDelete extends Algorithm {
     @Override
     protected void animate() {
 
-        try {
-            // Update animation
-            gPanel.repaint();
-            // Make reverse delete animation faster
-            int speed = gPanel.speed;
-            if (speed > 0) {
-                speed -= 325;
-            }
-            TimeUnit.MILLISECONDS.sleep(speed);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-
-        checkForPause();
+        // Make reverse delete animation faster
+        animate(325);
     }
 
 
     protected void runAlgorithm() {
 
-        // All edges in the graph (decreasing order by weight)
-        List<DefaultWeightedEdge> edges = new ArrayList<>(graphCopy.edgeSet().size());
-        edges.addAll(graphCopy.edgeSet());
-        edges.sort((e1, e2) ->
-        {
-            Double e1Weight = graphCopy.getEdgeWeight(e1);
-            Double e2Weight = graphCopy.getEdgeWeight(e2);
-            return e2Weight.compareTo(e1Weight);
-        });
+        // All edges in the graph (increasing order by weight, then id)
+        long[] edges = Kruskal.packEdges(graph);
+        Arrays.parallelSort(edges);
+
+        // Edges that are bridges when reached, found by adding edges in reverse
+        boolean[] isKept = new boolean[graph.edgeCount()];
+        UnionFind components = new UnionFind(graph.nodeCount());
+        for (long packed : edges) {
+            int edge = (int) packed;
+            isKept[edge] = components.union(graph.edgeSource(edge),
+                    graph.edgeTarget(edge));
+        }
 
         // Initially mark all edges as visited.
-        gPanel.visitedEdges.addAll(edges);
+        for (int edge = 0; edge < graph.edgeCount(); edge++) sink.visitEdge(edge);
 
-        // Remove largest edges if they don't disconnect graph
-        for (DefaultWeightedEdge edge : edges) {
-            int source = graphCopy.getEdgeSource(edge);
-            int target = graphCopy.getEdgeTarget(edge);
-            graphCopy.removeEdge(edge);
+        // Any removal would leave a disconnected graph disconnected
+        if (components.setCount() > 1) return;
 
+        // Remove largest edges if they don't disconnect graph
+        for (int i = edges.length - 1; i >= 0; i--) {
+            int edge = (int) edges[i];
             // Ignore if this edge disconnects current graph
-            if (!isConnected(graphCopy)) {
-                graphCopy.addEdge(source, target);
-            } else {
-                // Otherwise remove edge from the graph
-                gPanel.visitedEdges.remove(edge); // thread 1
-                animate();                        // thread 2
-                if (isStopped()) return;
-            }
+            if (isKept[edge]) continue;
+
+            // Otherwise remove edge from the graph
+            sink.unvisitEdge(edge);
+            animate();
+            if (isStopped()) return;
         }
     }
 
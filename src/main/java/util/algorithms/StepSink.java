@@ -0,0 +1,85 @@
+package main.java.util.algorithms;
+
+/**
+ * Receives the visible steps of an {@link Algorithm}. A {@link StepSink} can
+ * draw them, record them, count them or ignore them, so the same algorithms
+ * run in the GUI and in headless batch jobs alike.
+ *
+ * @author Ryan Albertson
+ */
+public interface StepSink {
+
+    // Speed-up of steps that should be shown without any pause
+    int INSTANT = Integer.MAX_VALUE;
+
+    // Frontiers of a search. Only bidirectional searches have a backward one
+    int FORWARD = 0;
+    int BACKWARD = 1;
+
+    /**
+     * Clears all visited edges and path predecessors.
+     */
+    void reset();
+
+
+    /**
+     * Marks an edge as visited.
+     *
+     * @param edge An edge id.
+     */
+    void visitEdge(int edge);
+
+
+    /**
+     * Marks an edge as visited by one frontier of a search. By default every
+     * frontier is shown as plainly visited.
+     *
+     * @param edge     An edge id.
+     * @param frontier {@link #FORWARD} or {@link #BACKWARD}.
+     */
+    default void visitEdge(int edge, int frontier) {
+
+        visitEdge(edge);
+    }
+
+
+    /**
+     * Unmarks a visited edge, whichever frontier visited it.
+     *
+     * @param edge An edge id.
+     */
+    void unvisitEdge(int edge);
+
+
+    /**
+     * Unmarks every visited edge.
+     */
+    void clearVisitedEdges();
+
+
+    /**
+     * Sets the node that precedes {@code node} on the current path.
+     *
+     * @param node        A node.
+     * @param predecessor Node preceding {@code node}.
+     */
+    void setPredecessor(int node, int predecessor);
+
+
+    /**
+     * Signals that one visible step of the algorithm is complete.
+     *
+     * @param speedUp Milliseconds this step should be shown shorter than
+     *                {@link #speed()}, or {@link #INSTANT} for no pause.
+     */
+    void step(int speedUp);
+
+
+    /**
+     * @return Milliseconds the algorithm should pause after each step.
+     */
+    default int speed() {
+
+        return 0;
+    }
+}
@@ -0,0 +1,141 @@
+package main.java.util.apsp;
+
+import main.java.util.graph.IndexedGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Computes all pairs shortest paths with the cache-blocked Floyd-Warshall
+ * algorithm. The matrix is split into square tiles, and for each block of
+ * intermediate nodes k:
+ * <ol>
+ *     <li>the diagonal tile (k, k) is updated on its own,</li>
+ *     <li>the tiles in row k and column k are updated in parallel,</li>
+ *     <li>all remaining tiles are updated in parallel.</li>
+ * </ol>
+ * Each tile update only reads tiles finished in an earlier phase, so tiles
+ * of the same phase never conflict, and a tile's rows stay in cache while
+ * the whole block of k is applied to it.
+ *
+ * @author Ryan Albertson
+ */
+public final class BlockedFloydWarshall {
+
+    // Tile side length, so that three tiles of doubles fit in L2 cache
+    public static final int TILE_SIZE = 64;
+
+    private final ForkJoinPool pool;
+    private final int tileSize;
+
+
+    /**
+     * Constructs a {@link BlockedFloydWarshall} that runs on the common pool.
+     */
+    public BlockedFloydWarshall() {
+
+        this(ForkJoinPool.commonPool(), TILE_SIZE);
+    }
+
+
+    /**
+     * @param pool     Pool that runs the tiles of each phase.
+     * @param tileSize Side length of the tiles.
+     * @throws IllegalArgumentException If {@code tileSize} isn't positive.
+     */
+    public BlockedFloydWarshall(ForkJoinPool pool, int tileSize)
+            throws IllegalArgumentException {
+
+        if (tileSize < 1) {
+            throw new IllegalArgumentException("ERROR: Tile size must be positive");
+        }
+        this.pool = pool;
+        this.tileSize = tileSize;
+    }
+
+
+    /**
+     * @param graph {@link IndexedGraph} to search.
+     * @return Shortest paths between every pair of nodes of {@code graph}.
+     */
+    public DistanceMatrix compute(IndexedGraph graph) {
+
+        DistanceMatrix matrix = DistanceMatrix.ofEdges(graph);
+        int nodeCount = graph.nodeCount();
+        int tileCount = (nodeCount + tileSize - 1) / tileSize;
+
+        for (int kTile = 0; kTile < tileCount; kTile++) {
+            final int k = kTile;
+            // Phase 1: the diagonal tile depends only on itself
+            updateTile(matrix, k, k, k);
+
+            // Phase 2: tiles sharing a row or column with the diagonal tile
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(2 * tileCount);
+            for (int tile = 0; tile < tileCount; tile++) {
+                if (tile == k) continue;
+                final int other = tile;
+                tasks.add(ForkJoinTask.adapt(() -> updateTile(matrix, k, other, k)));
+                tasks.add(ForkJoinTask.adapt(() -> updateTile(matrix, other, k, k)));
+            }
+            invokeAll(tasks);
+
+            // Phase 3: every other tile
+            tasks = new ArrayList<>(tileCount * tileCount);
+            for (int iTile = 0; iTile < tileCount; iTile++) {
+                if (iTile == k) continue;
+                for (int jTile = 0; jTile < tileCount; jTile++) {
+                    if (jTile == k) continue;
+                    final int i = iTile, j = jTile;
+                    tasks.add(ForkJoinTask.adapt(() -> updateTile(matrix, i, j, k)));
+                }
+            }
+            invokeAll(tasks);
+        }
+        return matrix;
+    }
+
+
+    /**
+     * Runs tasks on {@link #pool} and waits for all of them.
+     */
+    private void invokeAll(List<ForkJoinTask<?>> tasks) {
+
+        if (tasks.isEmpty()) return;
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+
+
+    /**
+     * Reroutes the paths of tile (iTile, jTile) through each node of tile
+     * column kTile.
+     */
+    private void updateTile(DistanceMatrix matrix, int iTile, int jTile, int kTile) {
+
+        int nodeCount = matrix.nodeCount();
+        double[] distances = matrix.distances;
+        int[] next = matrix.next;
+        int iEnd = Math.min(nodeCount, (iTile + 1) * tileSize);
+        int jStart = jTile * tileSize;
+        int jEnd = Math.min(nodeCount, jStart + tileSize);
+        int kEnd = Math.min(nodeCount, (kTile + 1) * tileSize);
+
+        for (int k = kTile * tileSize; k < kEnd; k++) {
+            int kRow = k * nodeCount;
+            for (int i = iTile * tileSize; i < iEnd; i++) {
+                int iRow = i * nodeCount;
+                double distanceIK = distances[iRow + k];
+                if (distanceIK == Double.POSITIVE_INFINITY) continue;
+                int nextIK = next[iRow + k];
+                for (int j = jStart; j < jEnd; j++) {
+                    double distance = distanceIK + distances[kRow + j];
+                    if (distance < distances[iRow + j]) {
+                        distances[iRow + j] = distance;
+                        next[iRow + j] = nextIK;
+                    }
+                }
+            }
+        }
+    }
+}
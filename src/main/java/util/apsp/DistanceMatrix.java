@@ -0,0 +1,162 @@
+package main.java.util.apsp;
+
+import main.java.util.graph.IndexedGraph;
+
+import java.util.Arrays;
+
+/**
+ * Shortest path distances and next-hop pointers between every pair of nodes,
+ * stored row-major in flat arrays.
+ *
+ * @author Ryan Albertson
+ */
+public final class DistanceMatrix {
+
+    public static final int NO_NODE = -1;
+
+    private final int nodeCount;
+
+    // distances[i * nodeCount + j] is the length of the shortest path i~j
+    final double[] distances;
+
+    // next[i * nodeCount + j] is the node after i on the shortest path i~j
+    final int[] next;
+
+
+    /**
+     * Constructs a {@link DistanceMatrix} where each node only reaches itself.
+     *
+     * @param nodeCount Number of nodes.
+     * @throws IllegalArgumentException If the matrix would be too large.
+     */
+    DistanceMatrix(int nodeCount) throws IllegalArgumentException {
+
+        this(nodeCount, new double[cellCount(nodeCount)], new int[cellCount(nodeCount)]);
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(next, NO_NODE);
+        for (int node = 0; node < nodeCount; node++) {
+            distances[node * nodeCount + node] = 0;
+            next[node * nodeCount + node] = node;
+        }
+    }
+
+
+    private DistanceMatrix(int nodeCount, double[] distances, int[] next) {
+
+        this.nodeCount = nodeCount;
+        this.distances = distances;
+        this.next = next;
+    }
+
+
+    /**
+     * Allocates a {@link DistanceMatrix} without filling it, for engines that
+     * write every cell themselves.
+     *
+     * @param nodeCount Number of nodes.
+     * @return The {@link DistanceMatrix}, with every cell unset.
+     * @throws IllegalArgumentException If the matrix would be too large.
+     */
+    static DistanceMatrix unfilled(int nodeCount) throws IllegalArgumentException {
+
+        return new DistanceMatrix(nodeCount, new double[cellCount(nodeCount)],
+                new int[cellCount(nodeCount)]);
+    }
+
+
+    /**
+     * @return Number of cells of a matrix over {@code nodeCount} nodes.
+     * @throws IllegalArgumentException If they don't fit in one array.
+     */
+    private static int cellCount(int nodeCount) throws IllegalArgumentException {
+
+        long cellCount = (long) nodeCount * nodeCount;
+        if (cellCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("ERROR: Graph is too large for a distance matrix");
+        }
+        return (int) cellCount;
+    }
+
+
+    /**
+     * Constructs a {@link DistanceMatrix} holding only the edges of a graph.
+     * Of parallel edges, the lightest is kept.
+     *
+     * @param graph {@link IndexedGraph} whose edges are copied.
+     * @return The {@link DistanceMatrix}.
+     */
+    static DistanceMatrix ofEdges(IndexedGraph graph) {
+
+        int nodeCount = graph.nodeCount();
+        DistanceMatrix matrix = new DistanceMatrix(nodeCount);
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            int edgeSource = graph.edgeSource(edge);
+            int edgeTarget = graph.edgeTarget(edge);
+            double weight = graph.edgeWeight(edge);
+            int forward = edgeSource * nodeCount + edgeTarget;
+            int backward = edgeTarget * nodeCount + edgeSource;
+            if (weight < matrix.distances[forward]) {
+                matrix.distances[forward] = weight;
+                matrix.distances[backward] = weight;
+                matrix.next[forward] = edgeTarget;
+                matrix.next[backward] = edgeSource;
+            }
+        }
+        return matrix;
+    }
+
+
+    /**
+     * @return Number of nodes.
+     */
+    public int nodeCount() {
+
+        return nodeCount;
+    }
+
+
+    /**
+     * @param sourceNode A node.
+     * @param targetNode A node.
+     * @return Length of the shortest path from {@code sourceNode} to
+     * {@code targetNode}, or infinity if there is none.
+     */
+    public double distance(int sourceNode, int targetNode) {
+
+        return distances[sourceNode * nodeCount + targetNode];
+    }
+
+
+    /**
+     * @param sourceNode A node.
+     * @param targetNode A node.
+     * @return The node after {@code sourceNode} on the shortest path to
+     * {@code targetNode}, or {@link #NO_NODE} if there is none.
+     */
+    public int next(int sourceNode, int targetNode) {
+
+        return next[sourceNode * nodeCount + targetNode];
+    }
+
+
+    /**
+     * @param sourceNode A node.
+     * @param targetNode A node.
+     * @return Nodes of the shortest path from {@code sourceNode} to
+     * {@code targetNode}, both included, or an empty array if there is none.
+     * A path can't be longer than the node count, so one that would be isn't
+     * followed.
+     */
+    public int[] path(int sourceNode, int targetNode) {
+
+        if (next(sourceNode, targetNode) == NO_NODE) return new int[0];
+        int length = 1;
+        for (int node = sourceNode; node != targetNode; node = next(node, targetNode)) {
+            if (node == NO_NODE || ++length > nodeCount) return new int[0];
+        }
+        int[] path = new int[length];
+        path[0] = sourceNode;
+        for (int i = 1; i < length; i++) path[i] = next(path[i - 1], targetNode);
+        return path;
+    }
+}
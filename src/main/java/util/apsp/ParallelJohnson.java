@@ -0,0 +1,161 @@
+package main.java.util.apsp;
+
+import main.java.util.Defs;
+import main.java.util.graph.IndexedGraph;
+import main.java.util.structures.IndexedMinHeap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Computes all pairs shortest paths with Johnson's algorithm, which suits
+ * sparse graphs far better than Floyd-Warshall's O(V^3). One Bellman-Ford
+ * pass from a virtual node joined to every node finds a potential h for
+ * which every reweighted edge {@code w(u, v) + h(u) - h(v)} is non-negative.
+ * Then a Dijkstra's search from every node fills its row of the matrix, in
+ * O(V E log V) overall. The rows are independent, so they're split into
+ * chunks that run in parallel, each with its own queue and scratch arrays.
+ * <p>
+ * Edges are undirected, so the search from a node also gives the next hop of
+ * every other node toward it: its predecessor in the search. Each column of
+ * next hops is taken from the one search of its target, so following them
+ * never cycles, even where zero-weight edges make several paths equally short.
+ *
+ * @author Ryan Albertson
+ */
+public final class ParallelJohnson {
+
+    // Chunks of rows per thread, so that threads finishing early can steal more
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final ForkJoinPool pool;
+
+
+    /**
+     * Constructs a {@link ParallelJohnson} that runs on the common pool.
+     */
+    public ParallelJohnson() {
+
+        this(ForkJoinPool.commonPool());
+    }
+
+
+    /**
+     * @param pool Pool that runs the rows.
+     */
+    public ParallelJohnson(ForkJoinPool pool) {
+
+        this.pool = pool;
+    }
+
+
+    /**
+     * @param graph {@link IndexedGraph} to search.
+     * @return Shortest paths between every pair of nodes of {@code graph}.
+     * @throws IllegalArgumentException If {@code graph} has a negative cycle,
+     *                                  or is too large for a matrix.
+     */
+    public DistanceMatrix compute(IndexedGraph graph) throws IllegalArgumentException {
+
+        int nodeCount = graph.nodeCount();
+        double[] potentials = potentials(graph);
+        DistanceMatrix matrix = DistanceMatrix.unfilled(nodeCount);
+
+        int chunkCount = Math.max(1, Math.min(nodeCount,
+                CHUNKS_PER_THREAD * pool.getParallelism()));
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(chunkCount);
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            final int from = (int) ((long) nodeCount * chunk / chunkCount);
+            final int to = (int) ((long) nodeCount * (chunk + 1) / chunkCount);
+            tasks.add(ForkJoinTask.adapt(() -> fillRows(graph, potentials, matrix,
+                    from, to)));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        return matrix;
+    }
+
+
+    /**
+     * Runs Bellman-Ford from a virtual node with a zero weight edge to every
+     * node. Each edge is undirected, so relaxing it relaxes both arcs.
+     *
+     * @return Distance from the virtual node to each node.
+     * @throws IllegalArgumentException If {@code graph} has a negative cycle.
+     */
+    private static double[] potentials(IndexedGraph graph) throws IllegalArgumentException {
+
+        double[] potentials = new double[graph.nodeCount()];
+        for (int round = 0; round <= graph.nodeCount(); round++) {
+            boolean isChanged = false;
+            for (int edge = 0; edge < graph.edgeCount(); edge++) {
+                int edgeSource = graph.edgeSource(edge);
+                int edgeTarget = graph.edgeTarget(edge);
+                double weight = graph.edgeWeight(edge);
+                if (potentials[edgeSource] + weight < potentials[edgeTarget]) {
+                    potentials[edgeTarget] = potentials[edgeSource] + weight;
+                    isChanged = true;
+                }
+                if (potentials[edgeTarget] + weight < potentials[edgeSource]) {
+                    potentials[edgeSource] = potentials[edgeTarget] + weight;
+                    isChanged = true;
+                }
+            }
+            // Non-negative weights settle in the first round
+            if (!isChanged) return potentials;
+        }
+        throw new IllegalArgumentException("ERROR: Graph has a negative cycle");
+    }
+
+
+    /**
+     * Fills the distances of rows {@code from..to-1} of the matrix and the next
+     * hops of the same columns, each with a Dijkstra's search over the
+     * reweighted edges from the row's node.
+     */
+    private static void fillRows(IndexedGraph graph, double[] potentials,
+                                 DistanceMatrix matrix, int from, int to) {
+
+        int nodeCount = graph.nodeCount();
+        double[] distanceTo = new double[nodeCount];
+        // Node before each node on its path from the row's node
+        int[] prevNode = new int[nodeCount];
+        IndexedMinHeap nodesPQ = new IndexedMinHeap(nodeCount, Defs.HEAP_ARITY);
+
+        for (int sourceNode = from; sourceNode < to; sourceNode++) {
+            Arrays.fill(distanceTo, Double.POSITIVE_INFINITY);
+            Arrays.fill(prevNode, DistanceMatrix.NO_NODE);
+            distanceTo[sourceNode] = 0.0;
+            prevNode[sourceNode] = sourceNode;
+            nodesPQ.clear();
+            nodesPQ.insert(sourceNode, 0.0);
+
+            while (!nodesPQ.isEmpty()) {
+                int currentNode = nodesPQ.poll();
+                for (int arc = graph.firstArc(currentNode);
+                     arc < graph.endArc(currentNode); arc++) {
+                    int adjNode = graph.arcTarget(arc);
+                    double reweighted = graph.arcWeight(arc)
+                            + potentials[currentNode] - potentials[adjNode];
+                    double newDist = distanceTo[currentNode] + Math.max(0.0, reweighted);
+                    if (newDist < distanceTo[adjNode]) {
+                        distanceTo[adjNode] = newDist;
+                        prevNode[adjNode] = currentNode;
+                        nodesPQ.insertOrDecrease(adjNode, newDist);
+                    }
+                }
+            }
+
+            // Undo the reweighting while writing the row. The predecessors
+            // lead back to the row's node, so they're its column of next hops
+            int row = sourceNode * nodeCount;
+            for (int node = 0; node < nodeCount; node++) {
+                matrix.distances[row + node] = distanceTo[node]
+                        - potentials[sourceNode] + potentials[node];
+                matrix.next[node * nodeCount + sourceNode] = prevNode[node];
+            }
+        }
+    }
+}
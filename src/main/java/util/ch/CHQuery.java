@@ -0,0 +1,264 @@
+package main.java.util.ch;
+
+import main.java.util.Defs;
+import main.java.util.structures.IndexedMinHeap;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Answers shortest path queries on a {@link ContractionHierarchy} with a
+ * bidirectional search that only follows arcs to higher ranked nodes. Each
+ * side stops once its nearest unsettled node is no closer than the best path
+ * found, and the path is then unpacked from shortcuts into graph edges.
+ * <p>
+ * A query keeps its arrays between searches and marks the entries of each
+ * search with a stamp, so a search only costs the nodes it touches.
+ *
+ * @author Ryan Albertson
+ */
+public final class CHQuery {
+
+    public static final int NO_NODE = -1;
+    private static final int NO_EDGE = -1;
+
+    private static final int FORWARD = 0;
+    private static final int BACKWARD = 1;
+
+    private final ContractionHierarchy hierarchy;
+
+    // Search state by [side][node], valid where stamps[side][node] == stamp
+    private final double[][] distanceTo;
+    private final int[][] edgeTo;
+    private final int[][] stamps;
+    private int stamp;
+    private final IndexedMinHeap[] sidePQs;
+
+    private int sourceNode;
+    private int meetNode;
+    private double bestDist;
+    private int settledCount;
+
+    // Settled nodes in order, with the side that settled them
+    private boolean isRecording;
+    private int[] settledNodes;
+    private int[] settledSides;
+
+    private final int[] unpackStack;
+
+
+    /**
+     * @param hierarchy {@link ContractionHierarchy} to search.
+     */
+    CHQuery(ContractionHierarchy hierarchy) {
+
+        this.hierarchy = hierarchy;
+        int nodeCount = hierarchy.nodeCount();
+        distanceTo = new double[2][nodeCount];
+        edgeTo = new int[2][nodeCount];
+        stamps = new int[2][nodeCount];
+        stamp = 0;
+        sidePQs = new IndexedMinHeap[] {
+                new IndexedMinHeap(nodeCount, Defs.HEAP_ARITY),
+                new IndexedMinHeap(nodeCount, Defs.HEAP_ARITY)};
+        settledNodes = new int[16];
+        settledSides = new int[16];
+        unpackStack = new int[2 * nodeCount + 2];
+        meetNode = NO_NODE;
+        bestDist = Double.POSITIVE_INFINITY;
+    }
+
+
+    /**
+     * Sets whether searches record the nodes they settle, for
+     * {@link #settledSide} and {@link #forEachSettledEdge}. Off by default.
+     *
+     * @param isRecording True to record settled edges.
+     */
+    public void setRecording(boolean isRecording) {
+
+        this.isRecording = isRecording;
+    }
+
+
+    /**
+     * Searches for a shortest path.
+     *
+     * @param sourceNode Node the path starts at.
+     * @param targetNode Node the path ends at.
+     * @return Length of the shortest path, or infinity if there's none.
+     */
+    public double distance(int sourceNode, int targetNode) {
+
+        this.sourceNode = sourceNode;
+        stamp++;
+        settledCount = 0;
+        sidePQs[FORWARD].clear();
+        sidePQs[BACKWARD].clear();
+        reach(FORWARD, sourceNode, 0.0, NO_EDGE);
+        reach(BACKWARD, targetNode, 0.0, NO_EDGE);
+        meetNode = NO_NODE;
+        bestDist = Double.POSITIVE_INFINITY;
+
+        int side = BACKWARD;
+        while (true) {
+            boolean isForwardDone = isDone(FORWARD);
+            boolean isBackwardDone = isDone(BACKWARD);
+            if (isForwardDone && isBackwardDone) break;
+            // Alternate sides while both are still searching
+            side = isForwardDone ? BACKWARD : isBackwardDone ? FORWARD : 1 - side;
+            settle(side);
+        }
+        return bestDist;
+    }
+
+
+    /**
+     * @return True if a side has nothing closer than the best path to settle.
+     */
+    private boolean isDone(int side) {
+
+        IndexedMinHeap pq = sidePQs[side];
+        return pq.isEmpty() || pq.key(pq.peek()) >= bestDist;
+    }
+
+
+    /**
+     * Settles the nearest node of one side, and relaxes its upward arcs.
+     */
+    private void settle(int side) {
+
+        int node = sidePQs[side].poll();
+        double dist = distanceTo[side][node];
+        settledCount++;
+        if (isRecording) record(side, node);
+
+        // Check whether the sides meet at this node
+        int otherSide = 1 - side;
+        if (stamps[otherSide][node] == stamp) {
+            double pathDist = dist + distanceTo[otherSide][node];
+            if (pathDist < bestDist) {
+                bestDist = pathDist;
+                meetNode = node;
+            }
+        }
+
+        for (int arc = hierarchy.upStarts[node]; arc < hierarchy.upStarts[node + 1]; arc++) {
+            int adjNode = hierarchy.upTargets[arc];
+            double newDist = dist + hierarchy.upWeights[arc];
+            if (stamps[side][adjNode] != stamp || newDist < distanceTo[side][adjNode]) {
+                reach(side, adjNode, newDist, hierarchy.upEdges[arc]);
+            }
+        }
+    }
+
+
+    /**
+     * Lowers the distance of a node on one side to {@code dist}.
+     */
+    private void reach(int side, int node, double dist, int edge) {
+
+        stamps[side][node] = stamp;
+        distanceTo[side][node] = dist;
+        edgeTo[side][node] = edge;
+        sidePQs[side].insertOrDecrease(node, dist);
+    }
+
+
+    /**
+     * Records a settled node.
+     */
+    private void record(int side, int node) {
+
+        int index = settledCount - 1;
+        if (index == settledNodes.length) {
+            settledNodes = Arrays.copyOf(settledNodes, 2 * index);
+            settledSides = Arrays.copyOf(settledSides, 2 * index);
+        }
+        settledNodes[index] = node;
+        settledSides[index] = side;
+    }
+
+
+    /**
+     * @return Number of nodes the last search settled, on both sides.
+     */
+    public int settledCount() {
+
+        return settledCount;
+    }
+
+
+    /**
+     * @return Length of the last path found, or infinity if there was none.
+     */
+    public double pathDistance() {
+
+        return bestDist;
+    }
+
+
+    /**
+     * Calls {@code action} with the graph edges of the last path found, in
+     * order from its source node. Does nothing if there was no path.
+     *
+     * @param action Receives graph edge ids.
+     */
+    public void forEachPathEdge(IntConsumer action) {
+
+        if (meetNode == NO_NODE) return;
+
+        // Forward half, collected from the meet node back to the source
+        int length = 0;
+        int[] edges = new int[8];
+        for (int node = meetNode; edgeTo[FORWARD][node] != NO_EDGE; ) {
+            if (length == edges.length) edges = Arrays.copyOf(edges, 2 * length);
+            int edge = edgeTo[FORWARD][node];
+            edges[length++] = edge;
+            node = hierarchy.otherEnd(edge, node);
+        }
+        int node = sourceNode;
+        for (int i = length - 1; i >= 0; i--) {
+            hierarchy.unpack(edges[i], node, unpackStack, action);
+            node = hierarchy.otherEnd(edges[i], node);
+        }
+
+        // Backward half, which runs from the meet node to the target already
+        for (node = meetNode; edgeTo[BACKWARD][node] != NO_EDGE; ) {
+            int edge = edgeTo[BACKWARD][node];
+            hierarchy.unpack(edge, node, unpackStack, action);
+            node = hierarchy.otherEnd(edge, node);
+        }
+    }
+
+
+    /**
+     * @param index Position of a node in the settling order of the last
+     *              search, below {@link #settledCount()}. Only recorded while
+     *              recording.
+     * @return Side that settled the node, 0 for the source's and 1 for the
+     * target's.
+     */
+    public int settledSide(int index) {
+
+        return settledSides[index];
+    }
+
+
+    /**
+     * Calls {@code action} with the graph edges of the hierarchy edge by
+     * which a node was settled in the last search. Only recorded while
+     * recording. Does nothing for the source and target nodes.
+     *
+     * @param index  Position of the node in the settling order, below
+     *               {@link #settledCount()}.
+     * @param action Receives graph edge ids.
+     */
+    public void forEachSettledEdge(int index, IntConsumer action) {
+
+        int node = settledNodes[index];
+        int edge = edgeTo[settledSides[index]][node];
+        if (edge == NO_EDGE) return;
+        hierarchy.unpack(edge, hierarchy.otherEnd(edge, node), unpackStack, action);
+    }
+}
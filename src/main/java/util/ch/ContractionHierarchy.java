@@ -0,0 +1,202 @@
+package main.java.util.ch;
+
+import main.java.util.graph.GraphCache;
+import main.java.util.graph.IndexedGraph;
+
+import java.util.function.IntConsumer;
+
+/**
+ * A contraction hierarchy of an {@link IndexedGraph}. Every node has a rank,
+ * the order in which it was contracted, and the graph is extended with
+ * shortcut edges that keep the distances between the remaining nodes intact
+ * as each node is removed. A shortest path then always climbs to its highest
+ * ranked node and descends again, so a {@link CHQuery} only searches upward
+ * from both ends, which settles a tiny fraction of the graph.
+ * <p>
+ * The upward arcs of each node are stored in flat arrays, and the hierarchy of
+ * a graph is built once and cached for as long as the graph is in use.
+ * Contraction suits sparse graphs with small separators, such as road
+ * networks. Random graphs leave a dense core that is slow to contract.
+ *
+ * @author Ryan Albertson
+ */
+public final class ContractionHierarchy {
+
+    // Hierarchies of the graphs in use. A hierarchy mustn't refer to its
+    // graph, or the graph would never be dropped from the cache
+    private static final GraphCache<ContractionHierarchy> cache =
+            new GraphCache<>(ContractionHierarchy::new);
+
+    private final int nodeCount;
+    private final int graphEdgeCount;
+    private final int[] ranks;
+
+    // Edges of the hierarchy. The first graphEdgeCount are the graph's
+    // edges with the same ids, the rest are shortcuts
+    private final int[] edgeSources;
+    private final int[] edgeTargets;
+
+    // Node each shortcut bypasses, and its two halves, by edge id - graphEdgeCount
+    private final int[] shortcutMiddles;
+    private final int[] shortcutFirsts;
+    private final int[] shortcutSeconds;
+
+    // Arcs to higher ranked nodes of node u are upStarts[u] .. upStarts[u + 1] - 1
+    final int[] upStarts;
+    final int[] upTargets;
+    final double[] upWeights;
+    final int[] upEdges;
+
+
+    /**
+     * Contracts every node of {@code graph}.
+     *
+     * @param graph {@link IndexedGraph} to contract.
+     */
+    private ContractionHierarchy(IndexedGraph graph) {
+
+        nodeCount = graph.nodeCount();
+        graphEdgeCount = graph.edgeCount();
+        Contractor contractor = new Contractor(graph);
+        contractor.contractAll();
+        ranks = contractor.ranks;
+        int edgeCount = contractor.edgeCount;
+        edgeSources = contractor.edgeSources;
+        edgeTargets = contractor.edgeTargets;
+        shortcutMiddles = contractor.shortcutMiddles;
+        shortcutFirsts = contractor.shortcutFirsts;
+        shortcutSeconds = contractor.shortcutSeconds;
+
+        // Store each edge as an arc from its lower to its higher ranked end
+        upStarts = new int[nodeCount + 1];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            upStarts[lowerEnd(edge) + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            upStarts[node + 1] += upStarts[node];
+        }
+        upTargets = new int[edgeCount];
+        upWeights = new double[edgeCount];
+        upEdges = new int[edgeCount];
+        int[] nextArc = new int[nodeCount];
+        System.arraycopy(upStarts, 0, nextArc, 0, nodeCount);
+        for (int edge = 0; edge < edgeCount; edge++) {
+            int lowerEnd = lowerEnd(edge);
+            int arc = nextArc[lowerEnd]++;
+            upTargets[arc] = otherEnd(edge, lowerEnd);
+            upWeights[arc] = contractor.edgeWeights[edge];
+            upEdges[arc] = edge;
+        }
+    }
+
+
+    /**
+     * Gets the hierarchy of a graph, contracting it the first time it's asked
+     * for. Contracting it doesn't block lookups of other graphs. The graph
+     * mustn't change afterwards.
+     *
+     * @param graph An {@link IndexedGraph}.
+     * @return The {@link ContractionHierarchy} of {@code graph}.
+     */
+    public static ContractionHierarchy of(IndexedGraph graph) {
+
+        return cache.get(graph);
+    }
+
+
+    /**
+     * @return A new {@link CHQuery} over this hierarchy. Queries aren't
+     * thread-safe, so each thread needs its own.
+     */
+    public CHQuery newQuery() {
+
+        return new CHQuery(this);
+    }
+
+
+    /**
+     * @return Number of nodes of the graph this hierarchy was built from.
+     */
+    public int nodeCount() {
+
+        return nodeCount;
+    }
+
+
+    /**
+     * @return Number of shortcut edges added by contraction.
+     */
+    public int shortcutCount() {
+
+        return upEdges.length - graphEdgeCount;
+    }
+
+
+    /**
+     * @param node A node.
+     * @return Order in which {@code node} was contracted.
+     */
+    public int rank(int node) {
+
+        return ranks[node];
+    }
+
+
+    /**
+     * @return The end of {@code edge} that isn't {@code node}.
+     */
+    int otherEnd(int edge, int node) {
+
+        return edgeSources[edge] == node ? edgeTargets[edge] : edgeSources[edge];
+    }
+
+
+    /**
+     * @return The lower ranked end of {@code edge}.
+     */
+    private int lowerEnd(int edge) {
+
+        int source = edgeSources[edge];
+        int target = edgeTargets[edge];
+        return ranks[source] < ranks[target] ? source : target;
+    }
+
+
+    /**
+     * Replaces an edge of the hierarchy with the graph edges it stands for.
+     *
+     * @param edge     An edge of the hierarchy.
+     * @param fromNode The end of {@code edge} the path starts at.
+     * @param stack    Scratch space of at least {@code 2 * nodeCount + 2} ints.
+     * @param action   Receives the graph edges in path order.
+     */
+    void unpack(int edge, int fromNode, int[] stack, IntConsumer action) {
+
+        // Pending (edge, start node) pairs, the next one on top
+        int depth = 0;
+        stack[depth++] = edge;
+        stack[depth++] = fromNode;
+        while (depth > 0) {
+            int node = stack[--depth];
+            int current = stack[--depth];
+            if (current < graphEdgeCount) {
+                action.accept(current);
+                continue;
+            }
+            int shortcut = current - graphEdgeCount;
+            int middle = shortcutMiddles[shortcut];
+            int first = shortcutFirsts[shortcut];
+            int second = shortcutSeconds[shortcut];
+            // Walk the half at node first, so push the other half below it
+            if (node != edgeSources[current]) {
+                int swap = first;
+                first = second;
+                second = swap;
+            }
+            stack[depth++] = second;
+            stack[depth++] = middle;
+            stack[depth++] = first;
+            stack[depth++] = node;
+        }
+    }
+}
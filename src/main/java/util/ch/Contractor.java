@@ -0,0 +1,293 @@
+package main.java.util.ch;
+
+import main.java.util.Defs;
+import main.java.util.graph.IndexedGraph;
+import main.java.util.structures.IndexedMinHeap;
+
+import java.util.Arrays;
+
+/**
+ * Contracts the nodes of a graph one by one to build a
+ * {@link ContractionHierarchy}. Nodes are ordered by edge difference: the
+ * shortcuts contracting a node would add, minus the edges it would remove,
+ * plus how many of its neighbors are already contracted. Priorities are
+ * updated lazily, by recomputing a node's priority when it reaches the front
+ * of the queue and putting it back if it's no longer the smallest.
+ *
+ * @author Ryan Albertson
+ */
+final class Contractor {
+
+    // Nodes a witness search settles before assuming there's no witness
+    private static final int WITNESS_SETTLE_LIMIT = 64;
+
+    private final IndexedGraph graph;
+    private final int nodeCount;
+
+    // Edges of the hierarchy. The first graph.edgeCount() are the graph's
+    // edges with the same ids, the rest are shortcuts
+    int edgeCount;
+    int[] edgeSources;
+    int[] edgeTargets;
+    double[] edgeWeights;
+
+    // Node each shortcut bypasses, and its two halves, by shortcut id - graph.edgeCount()
+    int[] shortcutMiddles;
+    int[] shortcutFirsts;
+    int[] shortcutSeconds;
+
+    // Edges at each node, including those to contracted nodes
+    private final int[][] adjEdges;
+    private final int[] adjCounts;
+
+    private final boolean[] isContracted;
+    private final int[] contractedNeighbors;
+    final int[] ranks;
+
+    // Uncontracted neighbors of the node being contracted, with the lightest
+    // edge to each. neighborStamps[u] == stamp if u is one of them
+    private final int[] neighbors;
+    private final int[] neighborEdges;
+    private final int[] neighborIndex;
+    private final int[] neighborStamps;
+    private int neighborCount;
+    private int stamp;
+
+    // State of the last witness search, valid where witnessStamps[u] == witnessStamp
+    private final double[] witnessDists;
+    private final int[] witnessStamps;
+    private int witnessStamp;
+    private final IndexedMinHeap witnessPQ;
+
+
+    /**
+     * @param graph {@link IndexedGraph} to contract.
+     */
+    Contractor(IndexedGraph graph) {
+
+        this.graph = graph;
+        nodeCount = graph.nodeCount();
+
+        edgeCount = graph.edgeCount();
+        int capacity = Math.max(16, 2 * edgeCount);
+        edgeSources = new int[capacity];
+        edgeTargets = new int[capacity];
+        edgeWeights = new double[capacity];
+        shortcutMiddles = new int[capacity - edgeCount];
+        shortcutFirsts = new int[capacity - edgeCount];
+        shortcutSeconds = new int[capacity - edgeCount];
+
+        adjEdges = new int[nodeCount][];
+        adjCounts = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            adjEdges[node] = new int[Math.max(2, graph.degree(node))];
+        }
+        for (int edge = 0; edge < edgeCount; edge++) {
+            edgeSources[edge] = graph.edgeSource(edge);
+            edgeTargets[edge] = graph.edgeTarget(edge);
+            edgeWeights[edge] = graph.edgeWeight(edge);
+            addAdjacent(edgeSources[edge], edge);
+            addAdjacent(edgeTargets[edge], edge);
+        }
+
+        isContracted = new boolean[nodeCount];
+        contractedNeighbors = new int[nodeCount];
+        ranks = new int[nodeCount];
+        neighbors = new int[nodeCount];
+        neighborEdges = new int[nodeCount];
+        neighborIndex = new int[nodeCount];
+        neighborStamps = new int[nodeCount];
+        witnessDists = new double[nodeCount];
+        witnessStamps = new int[nodeCount];
+        witnessPQ = new IndexedMinHeap(nodeCount, Defs.HEAP_ARITY);
+        stamp = 0;
+        witnessStamp = 0;
+    }
+
+
+    /**
+     * Contracts every node.
+     */
+    void contractAll() {
+
+        IndexedMinHeap nodesPQ = new IndexedMinHeap(nodeCount, Defs.HEAP_ARITY);
+        for (int node = 0; node < nodeCount; node++) {
+            nodesPQ.insert(node, priority(node));
+        }
+
+        int rank = 0;
+        while (!nodesPQ.isEmpty()) {
+            int node = nodesPQ.poll();
+            // Put the node back if its priority grew past the next one's
+            double priority = priority(node);
+            if (!nodesPQ.isEmpty() && priority > nodesPQ.key(nodesPQ.peek())) {
+                nodesPQ.insert(node, priority);
+                continue;
+            }
+            contract(node, true);
+            isContracted[node] = true;
+            ranks[node] = rank++;
+
+            // Neighbors' priorities are rechecked once they reach the front
+            for (int i = 0; i < neighborCount; i++) contractedNeighbors[neighbors[i]]++;
+        }
+    }
+
+
+    /**
+     * @return Priority of {@code node}, lower is contracted sooner.
+     */
+    private double priority(int node) {
+
+        int shortcutCount = contract(node, false);
+        return shortcutCount - neighborCount + contractedNeighbors[node];
+    }
+
+
+    /**
+     * Finds the shortcuts needed to contract a node: one between each pair of
+     * its uncontracted neighbors, unless a witness path without the node is
+     * no longer.
+     *
+     * @param node  Node to contract.
+     * @param apply True to add the shortcuts, false to only count them.
+     * @return Number of shortcuts needed.
+     */
+    private int contract(int node, boolean apply) {
+
+        findNeighbors(node);
+        int shortcutCount = 0;
+        for (int i = 0; i < neighborCount - 1; i++) {
+            int neighbor = neighbors[i];
+            double weightIn = edgeWeights[neighborEdges[i]];
+
+            // Search as far as the longest path through node from neighbor
+            double maxWeightOut = 0;
+            for (int j = i + 1; j < neighborCount; j++) {
+                maxWeightOut = Math.max(maxWeightOut, edgeWeights[neighborEdges[j]]);
+            }
+            witnessSearch(neighbor, node, weightIn + maxWeightOut);
+
+            for (int j = i + 1; j < neighborCount; j++) {
+                int otherNeighbor = neighbors[j];
+                double viaDist = weightIn + edgeWeights[neighborEdges[j]];
+                boolean hasWitness = witnessStamps[otherNeighbor] == witnessStamp
+                        && witnessDists[otherNeighbor] <= viaDist;
+                if (hasWitness) continue;
+                shortcutCount++;
+                if (apply) {
+                    addShortcut(neighbor, otherNeighbor, viaDist, node,
+                            neighborEdges[i], neighborEdges[j]);
+                }
+            }
+        }
+        return shortcutCount;
+    }
+
+
+    /**
+     * Collects the uncontracted neighbors of {@code node} into
+     * {@link #neighbors}, each with its lightest edge to {@code node}. The
+     * edges at {@code node} are trimmed to these, since the others can no
+     * longer be part of a witness path or shortcut.
+     */
+    private void findNeighbors(int node) {
+
+        stamp++;
+        neighborCount = 0;
+        for (int i = 0; i < adjCounts[node]; i++) {
+            int edge = adjEdges[node][i];
+            int neighbor = edgeSources[edge] == node ? edgeTargets[edge]
+                    : edgeSources[edge];
+            if (isContracted[neighbor] || neighbor == node) continue;
+            if (neighborStamps[neighbor] != stamp) {
+                neighborStamps[neighbor] = stamp;
+                neighborIndex[neighbor] = neighborCount;
+                neighbors[neighborCount] = neighbor;
+                neighborEdges[neighborCount++] = edge;
+            } else if (edgeWeights[edge] < edgeWeights[neighborEdges[neighborIndex[neighbor]]]) {
+                neighborEdges[neighborIndex[neighbor]] = edge;
+            }
+        }
+        System.arraycopy(neighborEdges, 0, adjEdges[node], 0, neighborCount);
+        adjCounts[node] = neighborCount;
+    }
+
+
+    /**
+     * Runs a limited Dijkstra's search over uncontracted nodes, avoiding
+     * {@code ignoredNode}. Distances found are left in {@link #witnessDists}.
+     *
+     * @param sourceNode  Node the search starts at.
+     * @param ignoredNode Node being contracted.
+     * @param maxDist     Distance beyond which nodes aren't settled.
+     */
+    private void witnessSearch(int sourceNode, int ignoredNode, double maxDist) {
+
+        witnessStamp++;
+        witnessPQ.clear();
+        witnessDists[sourceNode] = 0.0;
+        witnessStamps[sourceNode] = witnessStamp;
+        witnessPQ.insert(sourceNode, 0.0);
+        int settledCount = 0;
+        while (!witnessPQ.isEmpty() && settledCount++ < WITNESS_SETTLE_LIMIT) {
+            int currentNode = witnessPQ.poll();
+            double currentDist = witnessDists[currentNode];
+            if (currentDist > maxDist) break;
+            for (int i = 0; i < adjCounts[currentNode]; i++) {
+                int edge = adjEdges[currentNode][i];
+                int adjNode = edgeSources[edge] == currentNode ? edgeTargets[edge]
+                        : edgeSources[edge];
+                if (adjNode == ignoredNode || isContracted[adjNode]) continue;
+                double newDist = currentDist + edgeWeights[edge];
+                if (witnessStamps[adjNode] != witnessStamp
+                        || newDist < witnessDists[adjNode]) {
+                    witnessStamps[adjNode] = witnessStamp;
+                    witnessDists[adjNode] = newDist;
+                    witnessPQ.insertOrDecrease(adjNode, newDist);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Adds a shortcut edge between two neighbors of a contracted node.
+     */
+    private void addShortcut(int source, int target, double weight, int middle,
+                             int firstEdge, int secondEdge) {
+
+        if (edgeCount == edgeSources.length) {
+            int capacity = 2 * edgeCount;
+            edgeSources = Arrays.copyOf(edgeSources, capacity);
+            edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+            edgeWeights = Arrays.copyOf(edgeWeights, capacity);
+            int shortcutCapacity = capacity - graph.edgeCount();
+            shortcutMiddles = Arrays.copyOf(shortcutMiddles, shortcutCapacity);
+            shortcutFirsts = Arrays.copyOf(shortcutFirsts, shortcutCapacity);
+            shortcutSeconds = Arrays.copyOf(shortcutSeconds, shortcutCapacity);
+        }
+        int edge = edgeCount++;
+        edgeSources[edge] = source;
+        edgeTargets[edge] = target;
+        edgeWeights[edge] = weight;
+        int shortcut = edge - graph.edgeCount();
+        shortcutMiddles[shortcut] = middle;
+        shortcutFirsts[shortcut] = firstEdge;
+        shortcutSeconds[shortcut] = secondEdge;
+        addAdjacent(source, edge);
+        addAdjacent(target, edge);
+    }
+
+
+    /**
+     * Adds an edge to the edges at {@code node}.
+     */
+    private void addAdjacent(int node, int edge) {
+
+        if (adjCounts[node] == adjEdges[node].length) {
+            adjEdges[node] = Arrays.copyOf(adjEdges[node], 2 * adjCounts[node]);
+        }
+        adjEdges[node][adjCounts[node]++] = edge;
+    }
+}
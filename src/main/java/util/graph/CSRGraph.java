@@ -0,0 +1,202 @@
+package main.java.util.graph;
+
+/**
+ * An immutable compressed-sparse-row copy of an undirected, weighted graph.
+ * Nodes are the ints {@code 0..nodeCount-1} and edges are the ints
+ * {@code 0..edgeCount-1}. Every undirected edge is stored as two arcs, one in
+ * the adjacency row of each endpoint, so traversals are plain array indexing.
+ *
+ * @author Ryan Albertson
+ */
+public final class CSRGraph implements IndexedGraph {
+
+    private final long version;
+    private final int nodeCount;
+    private final int edgeCount;
+
+    // Arcs of node v are the indices offsets[v] .. offsets[v + 1] - 1
+    private final int[] offsets;
+    private final int[] arcTargets;
+    private final double[] arcWeights;
+    private final int[] arcEdges;
+
+    // Endpoints and weight of each undirected edge, indexed by edge id
+    private final int[] edgeSources;
+    private final int[] edgeTargets;
+    private final double[] edgeWeights;
+
+    private final double[] nodeX;
+    private final double[] nodeY;
+
+
+    /**
+     * Constructs a {@link CSRGraph} from an edge list. Arcs of each node are
+     * ordered by edge id.
+     */
+    private CSRGraph(int nodeCount, int[] edgeSources, int[] edgeTargets,
+                     double[] edgeWeights, double[] nodeX, double[] nodeY) {
+
+        this.version = GraphVersions.next();
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeSources.length;
+        this.edgeSources = edgeSources;
+        this.edgeTargets = edgeTargets;
+        this.edgeWeights = edgeWeights;
+        this.nodeX = nodeX;
+        this.nodeY = nodeY;
+
+        // Count degrees, then prefix sum them into row offsets
+        offsets = new int[nodeCount + 1];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            offsets[edgeSources[edge] + 1]++;
+            offsets[edgeTargets[edge] + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            offsets[node + 1] += offsets[node];
+        }
+
+        // Scatter both directions of every edge into their rows
+        arcTargets = new int[2 * edgeCount];
+        arcWeights = new double[2 * edgeCount];
+        arcEdges = new int[2 * edgeCount];
+        int[] next = new int[nodeCount];
+        System.arraycopy(offsets, 0, next, 0, nodeCount);
+        for (int edge = 0; edge < edgeCount; edge++) {
+            int source = edgeSources[edge];
+            int target = edgeTargets[edge];
+            int arc = next[source]++;
+            arcTargets[arc] = target;
+            arcWeights[arc] = edgeWeights[edge];
+            arcEdges[arc] = edge;
+            arc = next[target]++;
+            arcTargets[arc] = source;
+            arcWeights[arc] = edgeWeights[edge];
+            arcEdges[arc] = edge;
+        }
+    }
+
+
+    /**
+     * Builds a {@link CSRGraph} from an edge list. The arrays are used as is,
+     * not copied.
+     *
+     * @param nodeCount   Number of nodes.
+     * @param edgeSources Source endpoint of each edge.
+     * @param edgeTargets Target endpoint of each edge.
+     * @param edgeWeights Weight of each edge.
+     * @param nodeX       X coordinate of each node.
+     * @param nodeY       Y coordinate of each node.
+     * @return The {@link CSRGraph}.
+     * @throws IllegalArgumentException If the edge arrays differ in length.
+     */
+    public static CSRGraph fromEdges(int nodeCount, int[] edgeSources,
+                                     int[] edgeTargets, double[] edgeWeights,
+                                     double[] nodeX, double[] nodeY)
+            throws IllegalArgumentException {
+
+        if (edgeSources.length != edgeTargets.length
+                || edgeSources.length != edgeWeights.length) {
+            throw new IllegalArgumentException("ERROR: Edge arrays differ in length");
+        }
+        return new CSRGraph(nodeCount, edgeSources, edgeTargets, edgeWeights,
+                nodeX, nodeY);
+    }
+
+
+    @Override
+    public int nodeCount() {
+
+        return nodeCount;
+    }
+
+
+    @Override
+    public int edgeCount() {
+
+        return edgeCount;
+    }
+
+
+    @Override
+    public long version() {
+
+        return version;
+    }
+
+
+    @Override
+    public int firstArc(int node) {
+
+        return offsets[node];
+    }
+
+
+    @Override
+    public int endArc(int node) {
+
+        return offsets[node + 1];
+    }
+
+
+    @Override
+    public int degree(int node) {
+
+        return offsets[node + 1] - offsets[node];
+    }
+
+
+    @Override
+    public int arcTarget(int arc) {
+
+        return arcTargets[arc];
+    }
+
+
+    @Override
+    public double arcWeight(int arc) {
+
+        return arcWeights[arc];
+    }
+
+
+    @Override
+    public int arcEdge(int arc) {
+
+        return arcEdges[arc];
+    }
+
+
+    @Override
+    public int edgeSource(int edge) {
+
+        return edgeSources[edge];
+    }
+
+
+    @Override
+    public int edgeTarget(int edge) {
+
+        return edgeTargets[edge];
+    }
+
+
+    @Override
+    public double edgeWeight(int edge) {
+
+        return edgeWeights[edge];
+    }
+
+
+    @Override
+    public double x(int node) {
+
+        return nodeX[node];
+    }
+
+
+    @Override
+    public double y(int node) {
+
+        return nodeY[node];
+    }
+}
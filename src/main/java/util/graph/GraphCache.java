@@ -0,0 +1,78 @@
+package main.java.util.graph;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Caches one value per {@link IndexedGraph}, such as the result of an
+ * expensive preprocessing step, for as long as the graph is in use. Graphs
+ * are held weakly, by identity, so values mustn't refer to their graph.
+ * <p>
+ * The lock only guards the map. Values are computed outside of it, so a long
+ * computation for one graph never blocks lookups of another. Threads asking
+ * for a graph whose value is being computed wait for that computation rather
+ * than repeating it.
+ *
+ * @param <V> Type of the cached values.
+ * @author Ryan Albertson
+ */
+public final class GraphCache<V> {
+
+    private final Map<IndexedGraph, CompletableFuture<V>> values = new WeakHashMap<>();
+    private final Function<IndexedGraph, V> compute;
+
+
+    /**
+     * @param compute Computes the value of a graph. The graph mustn't change
+     *                afterwards.
+     */
+    public GraphCache(Function<IndexedGraph, V> compute) {
+
+        this.compute = compute;
+    }
+
+
+    /**
+     * Gets the value of a graph, computing it on the calling thread the first
+     * time it's asked for. If that computation fails, the failure is thrown
+     * to every thread waiting on it, and the next call tries again.
+     *
+     * @param graph An {@link IndexedGraph}.
+     * @return The value of {@code graph}.
+     */
+    public V get(IndexedGraph graph) {
+
+        CompletableFuture<V> value;
+        boolean isComputing = false;
+        synchronized (values) {
+            value = values.get(graph);
+            if (null == value) {
+                value = new CompletableFuture<>();
+                values.put(graph, value);
+                isComputing = true;
+            }
+        }
+
+        if (isComputing) {
+            try {
+                value.complete(compute.apply(graph));
+            } catch (RuntimeException | Error e) {
+                synchronized (values) {
+                    values.remove(graph, value);
+                }
+                value.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return value.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error) throw (Error) e.getCause();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package main.java.util.graph;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out the versions of {@link IndexedGraph}s. Every graph is immutable,
+ * so each one built or loaded gets a version of its own.
+ *
+ * @author Ryan Albertson
+ */
+final class GraphVersions {
+
+    private static final AtomicLong nextVersion = new AtomicLong();
+
+
+    private GraphVersions() {
+
+    }
+
+
+    /**
+     * @return A version no graph has had before.
+     */
+    static long next() {
+
+        return nextVersion.incrementAndGet();
+    }
+}
@@ -0,0 +1,111 @@
+package main.java.util.graph;
+
+/**
+ * Read-only view of an undirected, weighted graph whose nodes are the ints
+ * {@code 0..nodeCount-1} and whose edges are the ints {@code 0..edgeCount-1}.
+ * Each undirected edge appears as one arc in the adjacency of each endpoint.
+ * Algorithms only read graphs through this interface, so they don't depend on
+ * Swing.
+ *
+ * @author Ryan Albertson
+ */
+public interface IndexedGraph {
+
+    /**
+     * @return Number of nodes.
+     */
+    int nodeCount();
+
+
+    /**
+     * @return Number of undirected edges.
+     */
+    int edgeCount();
+
+
+    /**
+     * @return Version of this graph. Graphs with the same version have the
+     * same contents, so results computed on one stay valid for the other.
+     */
+    long version();
+
+
+    /**
+     * @param node A node.
+     * @return Index of the first arc leaving {@code node}.
+     */
+    int firstArc(int node);
+
+
+    /**
+     * @param node A node.
+     * @return Index one past the last arc leaving {@code node}.
+     */
+    int endArc(int node);
+
+
+    /**
+     * @param node A node.
+     * @return Number of edges incident to {@code node}.
+     */
+    default int degree(int node) {
+
+        return endArc(node) - firstArc(node);
+    }
+
+
+    /**
+     * @param arc An arc index.
+     * @return The node that {@code arc} leads to.
+     */
+    int arcTarget(int arc);
+
+
+    /**
+     * @param arc An arc index.
+     * @return Weight of {@code arc}.
+     */
+    double arcWeight(int arc);
+
+
+    /**
+     * @param arc An arc index.
+     * @return Id of the undirected edge that {@code arc} belongs to.
+     */
+    int arcEdge(int arc);
+
+
+    /**
+     * @param edge An edge id.
+     * @return Source endpoint of {@code edge}.
+     */
+    int edgeSource(int edge);
+
+
+    /**
+     * @param edge An edge id.
+     * @return Target endpoint of {@code edge}.
+     */
+    int edgeTarget(int edge);
+
+
+    /**
+     * @param edge An edge id.
+     * @return Weight of {@code edge}.
+     */
+    double edgeWeight(int edge);
+
+
+    /**
+     * @param node A node.
+     * @return X coordinate of {@code node}.
+     */
+    double x(int node);
+
+
+    /**
+     * @param node A node.
+     * @return Y coordinate of {@code node}.
+     */
+    double y(int node);
+}
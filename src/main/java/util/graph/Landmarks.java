@@ -0,0 +1,171 @@
+package main.java.util.graph;
+
+import main.java.util.Defs;
+import main.java.util.structures.IndexedMinHeap;
+
+import java.util.Arrays;
+
+/**
+ * Shortest path distances from a few landmark nodes to every node of an
+ * {@link IndexedGraph}, for the ALT (A*, landmarks, triangle inequality)
+ * heuristic. For any landmark L, {@code |d(L, t) - d(L, v)|} is a lower bound
+ * on {@code d(v, t)}, and it's tight when v lies on a shortest path from L to
+ * t or beyond it, which is what makes it strong around detours.
+ * <p>
+ * Landmarks are picked by farthest-point selection: each new landmark is the
+ * node farthest from the ones picked so far, so they end up spread along the
+ * edges of the graph, and in every component of it.
+ *
+ * @author Ryan Albertson
+ */
+public final class Landmarks {
+
+    // Landmarks of the graphs in use. Landmarks mustn't refer to their graph,
+    // or the graph would never be dropped from the cache
+    private static final GraphCache<Landmarks> cache =
+            new GraphCache<>(graph -> new Landmarks(graph, Defs.ALT_LANDMARK_COUNT));
+
+    private final int[] landmarks;
+
+    // distances[node * landmarks.length + i] is the distance from landmark i to node
+    private final double[] distances;
+
+
+    /**
+     * Picks landmarks and computes their distances.
+     *
+     * @param graph {@link IndexedGraph} to pick landmarks of.
+     * @param count Number of landmarks, capped at the number of nodes.
+     * @throws IllegalArgumentException If {@code count} is negative.
+     */
+    public Landmarks(IndexedGraph graph, int count) throws IllegalArgumentException {
+
+        if (count < 0) {
+            throw new IllegalArgumentException("ERROR: Landmark count must not be negative");
+        }
+        int nodeCount = graph.nodeCount();
+        count = Math.min(count, nodeCount);
+        landmarks = new int[count];
+        distances = new double[nodeCount * count];
+
+        double[] distanceTo = new double[nodeCount];
+        // Distance from each node to its nearest landmark so far
+        double[] nearestDist = new double[nodeCount];
+        Arrays.fill(nearestDist, Double.POSITIVE_INFINITY);
+        IndexedMinHeap nodesPQ = new IndexedMinHeap(nodeCount, Defs.HEAP_ARITY);
+
+        // Start from the node farthest from node 0, rather than node 0 itself
+        int landmark = 0;
+        if (count > 0) {
+            shortestDistances(graph, 0, distanceTo, nodesPQ);
+            landmark = farthest(distanceTo);
+        }
+        for (int i = 0; i < count; i++) {
+            landmarks[i] = landmark;
+            shortestDistances(graph, landmark, distanceTo, nodesPQ);
+            for (int node = 0; node < nodeCount; node++) {
+                distances[node * count + i] = distanceTo[node];
+                nearestDist[node] = Math.min(nearestDist[node], distanceTo[node]);
+            }
+            landmark = farthest(nearestDist);
+        }
+    }
+
+
+    /**
+     * Gets the landmarks of a graph, picking {@link Defs#ALT_LANDMARK_COUNT}
+     * of them the first time they're asked for. Picking them doesn't block
+     * lookups of other graphs. The graph mustn't change afterwards.
+     *
+     * @param graph An {@link IndexedGraph}.
+     * @return The {@link Landmarks} of {@code graph}.
+     */
+    public static Landmarks of(IndexedGraph graph) {
+
+        return cache.get(graph);
+    }
+
+
+    /**
+     * @return Number of landmarks.
+     */
+    public int count() {
+
+        return landmarks.length;
+    }
+
+
+    /**
+     * @param index Index of a landmark, below {@link #count()}.
+     * @return Node of the landmark.
+     */
+    public int landmark(int index) {
+
+        return landmarks[index];
+    }
+
+
+    /**
+     * @param node       A node.
+     * @param targetNode Another node.
+     * @return A lower bound on the length of a shortest path from {@code node}
+     * to {@code targetNode}, infinite if a landmark shows they aren't connected.
+     */
+    public double lowerBound(int node, int targetNode) {
+
+        int count = landmarks.length;
+        int nodeBase = node * count;
+        int targetBase = targetNode * count;
+        double bound = 0.0;
+        for (int i = 0; i < count; i++) {
+            double toNode = distances[nodeBase + i];
+            double toTarget = distances[targetBase + i];
+            // Neither is reachable from this landmark, so it tells nothing
+            if (toNode == toTarget) continue;
+            bound = Math.max(bound, Math.abs(toTarget - toNode));
+        }
+        return bound;
+    }
+
+
+    /**
+     * Runs Dijkstra's algorithm from {@code sourceNode} over the whole graph.
+     *
+     * @param distanceTo Receives the distance to each node, infinite if it
+     *                   can't be reached.
+     */
+    private static void shortestDistances(IndexedGraph graph, int sourceNode,
+                                          double[] distanceTo,
+                                          IndexedMinHeap nodesPQ) {
+
+        Arrays.fill(distanceTo, Double.POSITIVE_INFINITY);
+        distanceTo[sourceNode] = 0.0;
+        nodesPQ.clear();
+        nodesPQ.insert(sourceNode, 0.0);
+        while (!nodesPQ.isEmpty()) {
+            int currentNode = nodesPQ.poll();
+            for (int arc = graph.firstArc(currentNode);
+                 arc < graph.endArc(currentNode); arc++) {
+                int adjNode = graph.arcTarget(arc);
+                double newDist = distanceTo[currentNode] + graph.arcWeight(arc);
+                if (newDist < distanceTo[adjNode]) {
+                    distanceTo[adjNode] = newDist;
+                    nodesPQ.insertOrDecrease(adjNode, newDist);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * @return Index of the largest value, unreachable (infinite) ones first.
+     */
+    private static int farthest(double[] distances) {
+
+        int farthest = 0;
+        for (int node = 1; node < distances.length; node++) {
+            if (distances[node] > distances[farthest]) farthest = node;
+        }
+        return farthest;
+    }
+}
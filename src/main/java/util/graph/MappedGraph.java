@@ -0,0 +1,350 @@
+package main.java.util.graph;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An {@link IndexedGraph} read straight from a memory-mapped snapshot file.
+ * Opening one only maps the file and checks its header, so even graphs with
+ * millions of nodes load in milliseconds, and algorithms read the mapped pages
+ * directly instead of heap copies. Pages are loaded by the OS as they're
+ * first touched.
+ * <p>
+ * A snapshot is a 32 byte header followed by the CSR arrays of the graph, all
+ * little-endian and each starting on an 8 byte boundary:
+ * <pre>
+ *   header       magic "AVGR", format version, node count, edge count, 16 reserved bytes
+ *   offsets      int[nodeCount + 1]
+ *   arcTargets   int[2 * edgeCount]
+ *   arcEdges     int[2 * edgeCount]
+ *   arcWeights   double[2 * edgeCount]
+ *   edgeSources  int[edgeCount]
+ *   edgeTargets  int[edgeCount]
+ *   edgeWeights  double[edgeCount]
+ *   nodeX        double[nodeCount]
+ *   nodeY        double[nodeCount]
+ * </pre>
+ * Each array is mapped on its own, and a mapping can't exceed
+ * {@link Integer#MAX_VALUE} bytes, so the 16 byte per edge {@code arcWeights}
+ * array limits snapshots to about 134 million edges.
+ *
+ * @author Ryan Albertson
+ */
+public final class MappedGraph implements IndexedGraph {
+
+    // "AVGR" read as a little-endian int
+    private static final int MAGIC = 0x52475641;
+
+    // Layout of the snapshot files. Bumped whenever the layout changes
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_BYTES = 32;
+
+    private final long version;
+    private final int nodeCount;
+    private final int edgeCount;
+
+    private final IntBuffer offsets;
+    private final IntBuffer arcTargets;
+    private final IntBuffer arcEdges;
+    private final DoubleBuffer arcWeights;
+    private final IntBuffer edgeSources;
+    private final IntBuffer edgeTargets;
+    private final DoubleBuffer edgeWeights;
+    private final DoubleBuffer nodeX;
+    private final DoubleBuffer nodeY;
+
+
+    /**
+     * Maps every array of a snapshot.
+     */
+    private MappedGraph(FileChannel channel, FileChannel.MapMode mode, int nodeCount,
+                        int edgeCount) throws IOException {
+
+        version = GraphVersions.next();
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        Sections sections = new Sections(channel, mode);
+        offsets = sections.ints(nodeCount + 1L);
+        arcTargets = sections.ints(2L * edgeCount);
+        arcEdges = sections.ints(2L * edgeCount);
+        arcWeights = sections.doubles(2L * edgeCount);
+        edgeSources = sections.ints(edgeCount);
+        edgeTargets = sections.ints(edgeCount);
+        edgeWeights = sections.doubles(edgeCount);
+        nodeX = sections.doubles(nodeCount);
+        nodeY = sections.doubles(nodeCount);
+    }
+
+
+    /**
+     * Maps a snapshot file.
+     *
+     * @param file A snapshot written by {@link #write}.
+     * @return The {@link MappedGraph}.
+     * @throws IOException              If the file can't be read.
+     * @throws IllegalArgumentException If the file isn't a snapshot of this
+     *                                  format version, is truncated, or is too
+     *                                  large to map.
+     */
+    public static MappedGraph open(Path file) throws IOException, IllegalArgumentException {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IllegalArgumentException("ERROR: Not a graph snapshot");
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("ERROR: Not a graph snapshot");
+            }
+            if (header.getInt(4) != FORMAT_VERSION) {
+                throw new IllegalArgumentException("ERROR: Unsupported snapshot version "
+                        + header.getInt(4));
+            }
+            int nodeCount = header.getInt(8);
+            int edgeCount = header.getInt(12);
+            if (nodeCount < 0 || edgeCount < 0) {
+                throw new IllegalArgumentException("ERROR: Not a graph snapshot");
+            }
+            checkMappable(nodeCount, edgeCount);
+            if (channel.size() < fileBytes(nodeCount, edgeCount)) {
+                throw new IllegalArgumentException("ERROR: Graph snapshot is truncated");
+            }
+            // Mappings stay valid after the channel is closed
+            return new MappedGraph(channel, FileChannel.MapMode.READ_ONLY, nodeCount,
+                    edgeCount);
+        }
+    }
+
+
+    /**
+     * Writes a snapshot of a graph, replacing the file if it exists.
+     *
+     * @param graph {@link IndexedGraph} to write.
+     * @param file  File to write to.
+     * @throws IOException              If the file can't be written.
+     * @throws IllegalArgumentException If the graph is too large to map.
+     */
+    public static void write(IndexedGraph graph, Path file) throws IOException,
+            IllegalArgumentException {
+
+        int nodeCount = graph.nodeCount();
+        int edgeCount = graph.edgeCount();
+        checkMappable(nodeCount, edgeCount);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(0, MAGIC);
+            header.putInt(4, FORMAT_VERSION);
+            header.putInt(8, nodeCount);
+            header.putInt(12, edgeCount);
+
+            MappedGraph snapshot = new MappedGraph(channel, FileChannel.MapMode.READ_WRITE,
+                    nodeCount, edgeCount);
+            for (int node = 0; node <= nodeCount; node++) {
+                snapshot.offsets.put(node, node < nodeCount ? graph.firstArc(node)
+                        : 2 * edgeCount);
+            }
+            for (int arc = 0; arc < 2 * edgeCount; arc++) {
+                snapshot.arcTargets.put(arc, graph.arcTarget(arc));
+                snapshot.arcEdges.put(arc, graph.arcEdge(arc));
+                snapshot.arcWeights.put(arc, graph.arcWeight(arc));
+            }
+            for (int edge = 0; edge < edgeCount; edge++) {
+                snapshot.edgeSources.put(edge, graph.edgeSource(edge));
+                snapshot.edgeTargets.put(edge, graph.edgeTarget(edge));
+                snapshot.edgeWeights.put(edge, graph.edgeWeight(edge));
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                snapshot.nodeX.put(node, graph.x(node));
+                snapshot.nodeY.put(node, graph.y(node));
+            }
+        }
+    }
+
+
+    /**
+     * Checks that every array of a snapshot fits in a single mapping.
+     *
+     * @throws IllegalArgumentException If the largest array, {@code arcWeights}
+     *                                  or {@code nodeX}, exceeds
+     *                                  {@link Integer#MAX_VALUE} bytes.
+     */
+    private static void checkMappable(int nodeCount, int edgeCount)
+            throws IllegalArgumentException {
+
+        long sectionBytes = Math.max(16L * edgeCount, 8L * nodeCount);
+        if (sectionBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("ERROR: Graph is too large to snapshot ("
+                    + nodeCount + " nodes, " + edgeCount + " edges), since a "
+                    + sectionBytes + " byte array exceeds the " + Integer.MAX_VALUE
+                    + " byte mapping limit");
+        }
+    }
+
+
+    /**
+     * @return Size of a snapshot file, in bytes.
+     */
+    private static long fileBytes(int nodeCount, int edgeCount) {
+
+        return HEADER_BYTES + align(4 * (nodeCount + 1L)) + 2 * align(8L * edgeCount)
+                + 16L * edgeCount + 2 * align(4L * edgeCount) + 8L * edgeCount
+                + 16L * nodeCount;
+    }
+
+
+    /**
+     * @return {@code bytes} rounded up to a multiple of 8.
+     */
+    private static long align(long bytes) {
+
+        return (bytes + 7) & ~7L;
+    }
+
+
+    @Override
+    public long version() {
+
+        return version;
+    }
+
+
+    @Override
+    public int nodeCount() {
+
+        return nodeCount;
+    }
+
+
+    @Override
+    public int edgeCount() {
+
+        return edgeCount;
+    }
+
+
+    @Override
+    public int firstArc(int node) {
+
+        return offsets.get(node);
+    }
+
+
+    @Override
+    public int endArc(int node) {
+
+        return offsets.get(node + 1);
+    }
+
+
+    @Override
+    public int arcTarget(int arc) {
+
+        return arcTargets.get(arc);
+    }
+
+
+    @Override
+    public double arcWeight(int arc) {
+
+        return arcWeights.get(arc);
+    }
+
+
+    @Override
+    public int arcEdge(int arc) {
+
+        return arcEdges.get(arc);
+    }
+
+
+    @Override
+    public int edgeSource(int edge) {
+
+        return edgeSources.get(edge);
+    }
+
+
+    @Override
+    public int edgeTarget(int edge) {
+
+        return edgeTargets.get(edge);
+    }
+
+
+    @Override
+    public double edgeWeight(int edge) {
+
+        return edgeWeights.get(edge);
+    }
+
+
+    @Override
+    public double x(int node) {
+
+        return nodeX.get(node);
+    }
+
+
+    @Override
+    public double y(int node) {
+
+        return nodeY.get(node);
+    }
+
+
+    /**
+     * Maps the arrays of a snapshot one after another, each on its own
+     * mapping. Callers check the sizes with {@link #checkMappable} first.
+     */
+    private static final class Sections {
+
+        private final FileChannel channel;
+        private final FileChannel.MapMode mode;
+        private long position = HEADER_BYTES;
+
+
+        private Sections(FileChannel channel, FileChannel.MapMode mode) {
+
+            this.channel = channel;
+            this.mode = mode;
+        }
+
+
+        private IntBuffer ints(long count) throws IOException {
+
+            return map(4 * count).asIntBuffer();
+        }
+
+
+        private DoubleBuffer doubles(long count) throws IOException {
+
+            return map(8 * count).asDoubleBuffer();
+        }
+
+
+        /**
+         * Maps the next {@code bytes} bytes, then skips to the next 8 byte
+         * boundary.
+         */
+        private MappedByteBuffer map(long bytes) throws IOException {
+
+            MappedByteBuffer buffer = channel.map(mode, position, bytes);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            position += align(bytes);
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package main.java.util.graph;
+
+import java.util.function.IntConsumer;
+
+/**
+ * A uniform grid over the coordinates of the nodes of an {@link IndexedGraph}.
+ * Cells are sized so that each holds about two nodes, so finding the node
+ * under the mouse or the nodes inside a rectangle only looks at the few cells
+ * that overlap the query, whatever the size of the graph.
+ *
+ * @author Ryan Albertson
+ */
+public final class SpatialGrid {
+
+    // Average number of nodes per cell
+    private static final int NODES_PER_CELL = 2;
+
+    private final IndexedGraph graph;
+    private final double minX;
+    private final double minY;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+
+    // Nodes of cell c are cellNodes[cellStarts[c]] .. cellNodes[cellStarts[c + 1] - 1]
+    private final int[] cellStarts;
+    private final int[] cellNodes;
+
+
+    /**
+     * Constructs a {@link SpatialGrid} over the current coordinates of
+     * {@code graph}'s nodes.
+     *
+     * @param graph {@link IndexedGraph} whose nodes are indexed.
+     */
+    public SpatialGrid(IndexedGraph graph) {
+
+        this.graph = graph;
+        int nodeCount = graph.nodeCount();
+
+        // Find the bounding box of all nodes
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int node = 0; node < nodeCount; node++) {
+            minX = Math.min(minX, graph.x(node));
+            minY = Math.min(minY, graph.y(node));
+            maxX = Math.max(maxX, graph.x(node));
+            maxY = Math.max(maxY, graph.y(node));
+        }
+        if (nodeCount == 0) minX = minY = maxX = maxY = 0;
+        this.minX = minX;
+        this.minY = minY;
+
+        double area = Math.max(1, (maxX - minX) * (maxY - minY));
+        cellSize = Math.max(1, Math.sqrt(area * NODES_PER_CELL / Math.max(1, nodeCount)));
+        columns = (int) ((maxX - minX) / cellSize) + 1;
+        rows = (int) ((maxY - minY) / cellSize) + 1;
+
+        // Counting sort the nodes by cell
+        cellStarts = new int[columns * rows + 1];
+        cellNodes = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            cellStarts[cell(node) + 1]++;
+        }
+        for (int cell = 0; cell < columns * rows; cell++) {
+            cellStarts[cell + 1] += cellStarts[cell];
+        }
+        int[] next = new int[columns * rows];
+        System.arraycopy(cellStarts, 0, next, 0, next.length);
+        for (int node = 0; node < nodeCount; node++) {
+            cellNodes[next[cell(node)]++] = node;
+        }
+    }
+
+
+    /**
+     * @return Cell that contains {@code node}.
+     */
+    private int cell(int node) {
+
+        return row(graph.y(node)) * columns + column(graph.x(node));
+    }
+
+
+    /**
+     * @return Column containing {@code x}, clamped to the grid.
+     */
+    private int column(double x) {
+
+        return (int) Math.max(0, Math.min(columns - 1, (x - minX) / cellSize));
+    }
+
+
+    /**
+     * @return Row containing {@code y}, clamped to the grid.
+     */
+    private int row(double y) {
+
+        return (int) Math.max(0, Math.min(rows - 1, (y - minY) / cellSize));
+    }
+
+
+    /**
+     * Finds the node closest to a point. Cells are searched in rings around
+     * the point, stopping once no unsearched cell can hold a closer node.
+     *
+     * @param x           X coordinate of the point.
+     * @param y           Y coordinate of the point.
+     * @param maxDistance Nodes further than this from the point are ignored.
+     * @return The closest node, or -1 if no node is within {@code maxDistance}.
+     */
+    public int nearest(double x, double y, double maxDistance) {
+
+        int centerColumn = column(x);
+        int centerRow = row(y);
+        int maxRing = Math.max(columns, rows);
+        int nearestNode = -1;
+        double nearestDistance = maxDistance;
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Every cell of this ring is at least (ring - 1) cells away
+            if ((ring - 1) * cellSize > nearestDistance) break;
+
+            for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                if (row < 0 || row >= rows) continue;
+                // Only the first and last rows of a ring are full
+                boolean isEdgeRow = row == centerRow - ring || row == centerRow + ring;
+                int step = isEdgeRow ? 1 : Math.max(1, 2 * ring);
+                for (int column = centerColumn - ring; column <= centerColumn + ring;
+                     column += step) {
+                    if (column < 0 || column >= columns) continue;
+                    int cell = row * columns + column;
+                    for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+                        int node = cellNodes[i];
+                        double distance = Math.hypot(graph.x(node) - x,
+                                graph.y(node) - y);
+                        if (distance <= nearestDistance) {
+                            nearestDistance = distance;
+                            nearestNode = node;
+                        }
+                    }
+                }
+            }
+        }
+        return nearestNode;
+    }
+
+
+    /**
+     * Passes every node whose coordinates lie inside a rectangle to
+     * {@code action}.
+     *
+     * @param minX   Left edge of the rectangle.
+     * @param minY   Top edge of the rectangle.
+     * @param maxX   Right edge of the rectangle.
+     * @param maxY   Bottom edge of the rectangle.
+     * @param action Called with each node inside the rectangle.
+     */
+    public void forEachInRange(double minX, double minY, double maxX, double maxY,
+                               IntConsumer action) {
+
+        if (maxX < this.minX || maxY < this.minY) return;
+        for (int row = row(minY); row <= row(maxY); row++) {
+            for (int column = column(minX); column <= column(maxX); column++) {
+                int cell = row * columns + column;
+                for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+                    int node = cellNodes[i];
+                    double x = graph.x(node);
+                    double y = graph.y(node);
+                    if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                        action.accept(node);
+                    }
+                }
+            }
+        }
+    }
+}
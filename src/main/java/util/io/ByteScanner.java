@@ -0,0 +1,246 @@
+package main.java.util.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads whitespace separated numbers from a text file, one line at a time,
+ * through a fixed size buffer. Numbers are parsed from the bytes directly, so
+ * no strings are created for them and memory use doesn't depend on the size of
+ * the file.
+ *
+ * @author Ryan Albertson
+ */
+final class ByteScanner {
+
+    // Bytes read from the channel at a time
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    // Exactly representable powers of ten, for parsing short decimals exactly
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5,
+            1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17,
+            1e18, 1e19, 1e20, 1e21, 1e22};
+
+    // Most significant digits that always fit in the 53 bit mantissa of a double
+    private static final int EXACT_DIGITS = 15;
+
+    private static final int END_OF_FILE = -1;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private final byte[] bytes = buffer.array();
+    private int position;
+    private int limit;
+    private long lineNumber = 1;
+
+    // Bytes of the decimal being parsed
+    private byte[] token = new byte[32];
+
+
+    /**
+     * Constructor.
+     *
+     * @param channel Channel to read from. It isn't closed by the scanner.
+     */
+    ByteScanner(ReadableByteChannel channel) {
+
+        this.channel = channel;
+    }
+
+
+    /**
+     * @return The next byte, without consuming it, or {@link #END_OF_FILE}.
+     */
+    private int peek() throws IOException {
+
+        if (position == limit && !fill()) return END_OF_FILE;
+        return bytes[position];
+    }
+
+
+    /**
+     * Replaces the consumed buffer with the next bytes of the channel.
+     *
+     * @return False if the channel has no more bytes.
+     */
+    private boolean fill() throws IOException {
+
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+
+
+    /**
+     * Skips blank lines and leading whitespace.
+     *
+     * @return First byte of the next line, which isn't consumed, or -1 at the
+     * end of the file.
+     */
+    int nextLine() throws IOException {
+
+        int next;
+        while ((next = peek()) == ' ' || next == '\t' || next == '\r' || next == '\n') {
+            if (next == '\n') lineNumber++;
+            position++;
+        }
+        return next;
+    }
+
+
+    /**
+     * Consumes the rest of the current line, including its line break.
+     */
+    void skipLine() throws IOException {
+
+        int next;
+        while ((next = peek()) != END_OF_FILE) {
+            position++;
+            if (next == '\n') {
+                lineNumber++;
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Consumes the line break of the current line.
+     *
+     * @throws IllegalArgumentException If the line has more tokens.
+     */
+    void endLine() throws IOException, IllegalArgumentException {
+
+        if (hasToken()) throw error("Unexpected text at the end of the line");
+        skipLine();
+    }
+
+
+    /**
+     * Skips whitespace within the current line.
+     *
+     * @return True if the current line has another token.
+     */
+    boolean hasToken() throws IOException {
+
+        int next;
+        while ((next = peek()) == ' ' || next == '\t' || next == '\r') position++;
+        return next != END_OF_FILE && next != '\n';
+    }
+
+
+    /**
+     * Consumes the next token of the current line, whatever it holds.
+     *
+     * @throws IllegalArgumentException If the line has no more tokens.
+     */
+    void skipToken() throws IOException, IllegalArgumentException {
+
+        if (!hasToken()) throw error("Expected more values");
+        while (!isSeparator(peek())) position++;
+    }
+
+
+    /**
+     * @return The next token of the current line, parsed as an int.
+     * @throws IllegalArgumentException If the token isn't an int.
+     */
+    int nextInt() throws IOException, IllegalArgumentException {
+
+        if (!hasToken()) throw error("Expected an integer");
+        boolean isNegative = peek() == '-';
+        if (isNegative || peek() == '+') position++;
+        long value = 0;
+        int digitCount = 0;
+        int next;
+        while ((next = peek()) >= '0' && next <= '9') {
+            value = value * 10 + (next - '0');
+            if (value > Integer.MAX_VALUE + 1L) throw error("Integer is too large");
+            digitCount++;
+            position++;
+        }
+        if (isNegative) value = -value;
+        if (digitCount == 0 || !isSeparator(next) || value > Integer.MAX_VALUE) {
+            throw error("Expected an integer");
+        }
+        return (int) value;
+    }
+
+
+    /**
+     * @return The next token of the current line, parsed as a finite double.
+     * Plain decimals of up to 15 digits are parsed directly. Anything else is
+     * handed to {@link Double#parseDouble(String)}, so results are always
+     * correctly rounded.
+     * @throws IllegalArgumentException If the token isn't a finite number.
+     */
+    double nextDouble() throws IOException, IllegalArgumentException {
+
+        if (!hasToken()) throw error("Expected a number");
+        int length = 0;
+        int next;
+        while (!isSeparator(next = peek())) {
+            if (length == token.length) token = Arrays.copyOf(token, 2 * length);
+            token[length++] = (byte) next;
+            position++;
+        }
+
+        int i = 0;
+        boolean isNegative = token[0] == '-';
+        if (isNegative || token[0] == '+') i++;
+        long mantissa = 0;
+        int digitCount = 0;
+        int scale = 0;
+        for (; i < length && token[i] >= '0' && token[i] <= '9'; i++, digitCount++) {
+            mantissa = mantissa * 10 + (token[i] - '0');
+        }
+        if (i < length && token[i] == '.') {
+            for (i++; i < length && token[i] >= '0' && token[i] <= '9'; i++, digitCount++) {
+                mantissa = mantissa * 10 + (token[i] - '0');
+                scale++;
+            }
+        }
+        if (i == length && digitCount > 0 && digitCount <= EXACT_DIGITS) {
+            // Both operands are exact, so the division is correctly rounded
+            double value = mantissa / POWERS_OF_TEN[scale];
+            return isNegative ? -value : value;
+        }
+
+        String text = new String(token, 0, length, StandardCharsets.US_ASCII);
+        try {
+            double value = Double.parseDouble(text);
+            if (Double.isFinite(value)) return value;
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw error("Expected a number, found \"" + text + "\"");
+    }
+
+
+    /**
+     * @param message Description of the problem.
+     * @return An exception locating the problem at the current line.
+     */
+    IllegalArgumentException error(String message) {
+
+        return new IllegalArgumentException("ERROR: Line " + lineNumber + ": " + message);
+    }
+
+
+    /**
+     * @return True if {@code next} ends a token.
+     */
+    private static boolean isSeparator(int next) {
+
+        return next == ' ' || next == '\t' || next == '\r' || next == '\n'
+                || next == END_OF_FILE;
+    }
+}
@@ -0,0 +1,113 @@
+package main.java.util.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes text made of numbers to a channel through a fixed size buffer.
+ * Integers are formatted straight into the buffer, without strings.
+ *
+ * @author Ryan Albertson
+ */
+final class ByteWriter {
+
+    // Bytes written to the channel at a time
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    // Longest text of a long, "-9223372036854775808"
+    private static final int MAX_LONG_CHARS = 20;
+
+    // Largest magnitude below which every whole double is written as an integer
+    private static final double MAX_WHOLE = 1e15;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private final byte[] digits = new byte[MAX_LONG_CHARS];
+
+
+    /**
+     * Constructor.
+     *
+     * @param channel Channel to write to. It isn't closed by the writer.
+     */
+    ByteWriter(WritableByteChannel channel) {
+
+        this.channel = channel;
+    }
+
+
+    /**
+     * Makes sure that at least {@code bytes} bytes fit in the buffer.
+     */
+    private void reserve(int bytes) throws IOException {
+
+        if (buffer.remaining() < bytes) flush();
+    }
+
+
+    /**
+     * Writes a single ASCII character.
+     */
+    ByteWriter write(char c) throws IOException {
+
+        reserve(1);
+        buffer.put((byte) c);
+        return this;
+    }
+
+
+    /**
+     * Writes ASCII text.
+     */
+    ByteWriter write(String text) throws IOException {
+
+        for (int i = 0; i < text.length(); i++) write(text.charAt(i));
+        return this;
+    }
+
+
+    /**
+     * Writes an integer in decimal.
+     */
+    ByteWriter write(long value) throws IOException {
+
+        if (value == Long.MIN_VALUE) return write(Long.toString(value));
+        reserve(MAX_LONG_CHARS);
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        while (count > 0) buffer.put(digits[--count]);
+        return this;
+    }
+
+
+    /**
+     * Writes a number as an integer if it's whole, otherwise as the shortest
+     * decimal that reads back as the same double.
+     */
+    ByteWriter write(double value) throws IOException {
+
+        if (value == Math.rint(value) && Math.abs(value) < MAX_WHOLE) {
+            return write((long) value);
+        }
+        return write(Double.toString(value));
+    }
+
+
+    /**
+     * Writes everything buffered to the channel.
+     */
+    void flush() throws IOException {
+
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+}
@@ -0,0 +1,280 @@
+package main.java.util.io;
+
+import main.java.util.graph.CSRGraph;
+import main.java.util.graph.IndexedGraph;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads and writes graphs in the format of the 9th DIMACS Implementation
+ * Challenge, used by its road networks. A {@code .gr} file holds
+ * <pre>
+ *   c comment
+ *   p sp nodeCount arcCount
+ *   a source target weight
+ * </pre>
+ * with nodes numbered from 1, and an optional {@code .co} file holds
+ * <pre>
+ *   p aux sp co nodeCount
+ *   v node x y
+ * </pre>
+ * Files are streamed through {@link ByteScanner} straight into primitive
+ * arrays, so reading runs at about the speed of the disk.
+ * <p>
+ * Arcs are directed, but the graphs of the visualizer are undirected, so the
+ * arcs between a pair of nodes, in either direction, become a single edge
+ * with the smallest of their weights. Coordinates are read as they are. The
+ * heuristic of {@link main.java.util.algorithms.A_Star} is only exact if no
+ * edge weighs less than the distance between its endpoints, which isn't the
+ * case for the travel time graphs of the challenge.
+ *
+ * @author Ryan Albertson
+ */
+public final class DimacsFormat {
+
+    private DimacsFormat() {
+
+    }
+
+
+    /**
+     * Reads a graph.
+     *
+     * @param graphFile {@code .gr} file of the arcs.
+     * @param coordFile {@code .co} file of the node coordinates, or null to
+     *                  place every node at the origin.
+     * @return The {@link CSRGraph}.
+     * @throws IOException              If a file can't be read.
+     * @throws IllegalArgumentException If a file is malformed.
+     */
+    public static CSRGraph read(Path graphFile, Path coordFile)
+            throws IOException, IllegalArgumentException {
+
+        int nodeCount = 0;
+        int arcCount = 0;
+        int[] arcSources = null;
+        int[] arcTargets = null;
+        double[] arcWeights = null;
+
+        try (FileChannel channel = FileChannel.open(graphFile, StandardOpenOption.READ)) {
+            ByteScanner scanner = new ByteScanner(channel);
+            for (int first = scanner.nextLine(); first != -1; first = scanner.nextLine()) {
+                if (first == 'c') {
+                    scanner.skipLine();
+                    continue;
+                }
+                scanner.skipToken();
+                if (first == 'a') {
+                    if (arcSources == null) throw scanner.error("Arc before the problem line");
+                    if (arcCount == arcSources.length) {
+                        throw scanner.error("More arcs than the problem line declares");
+                    }
+                    arcSources[arcCount] = nextNode(scanner, nodeCount);
+                    arcTargets[arcCount] = nextNode(scanner, nodeCount);
+                    arcWeights[arcCount] = nextWeight(scanner);
+                    arcCount++;
+                } else if (first == 'p') {
+                    if (arcSources != null) throw scanner.error("Second problem line");
+                    scanner.skipToken();
+                    nodeCount = scanner.nextInt();
+                    int declaredArcs = scanner.nextInt();
+                    if (nodeCount < 0 || declaredArcs < 0) {
+                        throw scanner.error("Negative node or arc count");
+                    }
+                    arcSources = new int[declaredArcs];
+                    arcTargets = new int[declaredArcs];
+                    arcWeights = new double[declaredArcs];
+                } else {
+                    throw scanner.error("Unknown line type '" + (char) first + "'");
+                }
+                scanner.endLine();
+            }
+        }
+        if (arcSources == null) {
+            throw new IllegalArgumentException("ERROR: " + graphFile + " has no problem line");
+        }
+
+        double[] nodeX = new double[nodeCount];
+        double[] nodeY = new double[nodeCount];
+        if (coordFile != null) readCoordinates(coordFile, nodeX, nodeY);
+        return mergeArcs(nodeCount, arcCount, arcSources, arcTargets, arcWeights,
+                nodeX, nodeY);
+    }
+
+
+    /**
+     * Reads the coordinates of every node listed in a {@code .co} file.
+     */
+    private static void readCoordinates(Path coordFile, double[] nodeX, double[] nodeY)
+            throws IOException, IllegalArgumentException {
+
+        try (FileChannel channel = FileChannel.open(coordFile, StandardOpenOption.READ)) {
+            ByteScanner scanner = new ByteScanner(channel);
+            for (int first = scanner.nextLine(); first != -1; first = scanner.nextLine()) {
+                if (first == 'c') {
+                    scanner.skipLine();
+                    continue;
+                }
+                scanner.skipToken();
+                if (first == 'v') {
+                    int node = nextNode(scanner, nodeX.length);
+                    nodeX[node] = scanner.nextDouble();
+                    nodeY[node] = scanner.nextDouble();
+                } else if (first == 'p') {
+                    // Skips "aux sp co"
+                    for (int i = 0; i < 3; i++) scanner.skipToken();
+                    if (scanner.nextInt() != nodeX.length) {
+                        throw scanner.error("Node count differs from the graph file");
+                    }
+                } else {
+                    throw scanner.error("Unknown line type '" + (char) first + "'");
+                }
+                scanner.endLine();
+            }
+        }
+    }
+
+
+    /**
+     * @return The next node of the current line, numbered from 0.
+     * @throws IllegalArgumentException If the node doesn't exist.
+     */
+    private static int nextNode(ByteScanner scanner, int nodeCount)
+            throws IOException, IllegalArgumentException {
+
+        int node = scanner.nextInt();
+        if (node < 1 || node > nodeCount) {
+            throw scanner.error("Node " + node + " is out of range");
+        }
+        return node - 1;
+    }
+
+
+    /**
+     * @return The next edge weight of the current line.
+     * @throws IllegalArgumentException If the weight is negative, which every
+     *                                  algorithm assumes it isn't.
+     */
+    private static double nextWeight(ByteScanner scanner)
+            throws IOException, IllegalArgumentException {
+
+        double weight = scanner.nextDouble();
+        if (weight < 0) throw scanner.error("Negative weight " + weight);
+        return weight;
+    }
+
+
+    /**
+     * Merges the arcs between each pair of nodes into one undirected edge that
+     * has the smallest of their weights. Arcs are bucketed by their smaller
+     * endpoint, then duplicates within a bucket are found by stamping their
+     * larger endpoint, so this takes linear time.
+     *
+     * @return {@link CSRGraph} of the merged edges.
+     */
+    private static CSRGraph mergeArcs(int nodeCount, int arcCount, int[] arcSources,
+                                      int[] arcTargets, double[] arcWeights,
+                                      double[] nodeX, double[] nodeY) {
+
+        // Arcs whose smaller endpoint is v are order[bucketStarts[v]] .. order[bucketStarts[v + 1] - 1]
+        int[] bucketStarts = new int[nodeCount + 1];
+        for (int arc = 0; arc < arcCount; arc++) {
+            bucketStarts[Math.min(arcSources[arc], arcTargets[arc]) + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            bucketStarts[node + 1] += bucketStarts[node];
+        }
+        int[] order = new int[arcCount];
+        int[] edgeOf = Arrays.copyOf(bucketStarts, nodeCount);
+        for (int arc = 0; arc < arcCount; arc++) {
+            order[edgeOf[Math.min(arcSources[arc], arcTargets[arc])]++] = arc;
+        }
+
+        // Bucket that last reached each larger endpoint, and the edge it made
+        int[] stamp = new int[nodeCount];
+        Arrays.fill(stamp, -1);
+        int edgeCount = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            for (int i = bucketStarts[node]; i < bucketStarts[node + 1]; i++) {
+                int adjNode = Math.max(arcSources[order[i]], arcTargets[order[i]]);
+                if (stamp[adjNode] != node) {
+                    stamp[adjNode] = node;
+                    edgeCount++;
+                }
+            }
+        }
+
+        int[] sources = new int[edgeCount];
+        int[] targets = new int[edgeCount];
+        double[] weights = new double[edgeCount];
+        Arrays.fill(stamp, -1);
+        int edge = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            for (int i = bucketStarts[node]; i < bucketStarts[node + 1]; i++) {
+                int arc = order[i];
+                int adjNode = Math.max(arcSources[arc], arcTargets[arc]);
+                if (stamp[adjNode] != node) {
+                    stamp[adjNode] = node;
+                    edgeOf[adjNode] = edge;
+                    sources[edge] = node;
+                    targets[edge] = adjNode;
+                    weights[edge] = arcWeights[arc];
+                    edge++;
+                } else {
+                    int merged = edgeOf[adjNode];
+                    weights[merged] = Math.min(weights[merged], arcWeights[arc]);
+                }
+            }
+        }
+        return CSRGraph.fromEdges(nodeCount, sources, targets, weights, nodeX, nodeY);
+    }
+
+
+    /**
+     * Writes a graph. Each edge is written as an arc in both directions. Whole
+     * weights and coordinates are written as integers, as the challenge
+     * expects, and others as decimals.
+     *
+     * @param graph     {@link IndexedGraph} to write.
+     * @param graphFile {@code .gr} file to write the arcs to.
+     * @param coordFile {@code .co} file to write the node coordinates to, or
+     *                  null to skip them.
+     * @throws IOException If a file can't be written.
+     */
+    public static void write(IndexedGraph graph, Path graphFile, Path coordFile)
+            throws IOException {
+
+        try (FileChannel channel = FileChannel.open(graphFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteWriter writer = new ByteWriter(channel);
+            writer.write("p sp ").write(graph.nodeCount()).write(' ')
+                    .write(2L * graph.edgeCount()).write('\n');
+            for (int edge = 0; edge < graph.edgeCount(); edge++) {
+                int source = graph.edgeSource(edge) + 1;
+                int target = graph.edgeTarget(edge) + 1;
+                double weight = graph.edgeWeight(edge);
+                writer.write("a ").write(source).write(' ').write(target).write(' ')
+                        .write(weight).write('\n');
+                writer.write("a ").write(target).write(' ').write(source).write(' ')
+                        .write(weight).write('\n');
+            }
+            writer.flush();
+        }
+        if (coordFile == null) return;
+
+        try (FileChannel channel = FileChannel.open(coordFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteWriter writer = new ByteWriter(channel);
+            writer.write("p aux sp co ").write(graph.nodeCount()).write('\n');
+            for (int node = 0; node < graph.nodeCount(); node++) {
+                writer.write("v ").write(node + 1).write(' ').write(graph.x(node))
+                        .write(' ').write(graph.y(node)).write('\n');
+            }
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package main.java.util.io;
+
+import main.java.util.graph.CSRGraph;
+import main.java.util.graph.IndexedGraph;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes graphs as plain text edge lists with node coordinates:
+ * <pre>
+ *   # comment
+ *   nodeCount edgeCount
+ *   x y               one line per node, in order from node 0
+ *   source target     one line per edge, optionally followed by its weight
+ * </pre>
+ * Nodes are numbered from 0. An edge without a weight weighs the distance
+ * between its endpoints. Files are streamed through {@link ByteScanner}
+ * straight into arrays sized by the first line, so reading runs at about the
+ * speed of the disk.
+ *
+ * @author Ryan Albertson
+ */
+public final class EdgeListFormat {
+
+    private EdgeListFormat() {
+
+    }
+
+
+    /**
+     * Reads a graph.
+     *
+     * @param file Edge list file.
+     * @return The {@link CSRGraph}.
+     * @throws IOException              If the file can't be read.
+     * @throws IllegalArgumentException If the file is malformed.
+     */
+    public static CSRGraph read(Path file) throws IOException, IllegalArgumentException {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteScanner scanner = new ByteScanner(channel);
+            nextRecord(scanner, "the node and edge counts", -1);
+            int nodeCount = scanner.nextInt();
+            int edgeCount = scanner.nextInt();
+            if (nodeCount < 0 || edgeCount < 0) {
+                throw scanner.error("Negative node or edge count");
+            }
+            scanner.endLine();
+
+            double[] nodeX = new double[nodeCount];
+            double[] nodeY = new double[nodeCount];
+            for (int node = 0; node < nodeCount; node++) {
+                nextRecord(scanner, "the coordinates of node", node);
+                nodeX[node] = scanner.nextDouble();
+                nodeY[node] = scanner.nextDouble();
+                scanner.endLine();
+            }
+
+            int[] sources = new int[edgeCount];
+            int[] targets = new int[edgeCount];
+            double[] weights = new double[edgeCount];
+            for (int edge = 0; edge < edgeCount; edge++) {
+                nextRecord(scanner, "edge", edge);
+                int source = nextNode(scanner, nodeCount);
+                int target = nextNode(scanner, nodeCount);
+                sources[edge] = source;
+                targets[edge] = target;
+                weights[edge] = scanner.hasToken() ? nextWeight(scanner)
+                        : Math.hypot(nodeX[source] - nodeX[target],
+                        nodeY[source] - nodeY[target]);
+                scanner.endLine();
+            }
+
+            if (skipComments(scanner) != -1) {
+                throw scanner.error("More edges than the first line declares");
+            }
+            return CSRGraph.fromEdges(nodeCount, sources, targets, weights, nodeX, nodeY);
+        }
+    }
+
+
+    /**
+     * Moves to the next line that isn't a comment.
+     *
+     * @param expected Description of the line, for the error message.
+     * @param index    Node or edge the line describes, or -1 if none. Kept
+     *                 apart from {@code expected} so the message is only built
+     *                 when the file ends early.
+     * @throws IllegalArgumentException If the file has no more lines.
+     */
+    private static void nextRecord(ByteScanner scanner, String expected, int index)
+            throws IOException, IllegalArgumentException {
+
+        if (skipComments(scanner) == -1) {
+            throw scanner.error("Expected " + expected + (index < 0 ? "" : " " + index)
+                    + " but the file ended");
+        }
+    }
+
+
+    /**
+     * @return First byte of the next line that isn't a comment, or -1 at the
+     * end of the file.
+     */
+    private static int skipComments(ByteScanner scanner) throws IOException {
+
+        int first;
+        while ((first = scanner.nextLine()) == '#') scanner.skipLine();
+        return first;
+    }
+
+
+    /**
+     * @return The next node of the current line.
+     * @throws IllegalArgumentException If the node doesn't exist.
+     */
+    private static int nextNode(ByteScanner scanner, int nodeCount)
+            throws IOException, IllegalArgumentException {
+
+        int node = scanner.nextInt();
+        if (node < 0 || node >= nodeCount) {
+            throw scanner.error("Node " + node + " is out of range");
+        }
+        return node;
+    }
+
+
+    /**
+     * @return The next edge weight of the current line.
+     * @throws IllegalArgumentException If the weight is negative, which every
+     *                                  algorithm assumes it isn't.
+     */
+    private static double nextWeight(ByteScanner scanner)
+            throws IOException, IllegalArgumentException {
+
+        double weight = scanner.nextDouble();
+        if (weight < 0) throw scanner.error("Negative weight " + weight);
+        return weight;
+    }
+
+
+    /**
+     * Writes a graph, with the weight of every edge.
+     *
+     * @param graph {@link IndexedGraph} to write.
+     * @param file  File to write to.
+     * @throws IOException If the file can't be written.
+     */
+    public static void write(IndexedGraph graph, Path file) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteWriter writer = new ByteWriter(channel);
+            writer.write(graph.nodeCount()).write(' ').write(graph.edgeCount()).write('\n');
+            for (int node = 0; node < graph.nodeCount(); node++) {
+                writer.write(graph.x(node)).write(' ').write(graph.y(node)).write('\n');
+            }
+            for (int edge = 0; edge < graph.edgeCount(); edge++) {
+                writer.write(graph.edgeSource(edge)).write(' ')
+                        .write(graph.edgeTarget(edge)).write(' ')
+                        .write(graph.edgeWeight(edge)).write('\n');
+            }
+            writer.flush();
+        }
+    }
+}
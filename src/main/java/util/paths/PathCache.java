@@ -0,0 +1,421 @@
+package main.java.util.paths;
+
+import main.java.util.Defs;
+import main.java.util.algorithms.AlgorithmFactory;
+import main.java.util.algorithms.StepSink;
+import main.java.util.graph.IndexedGraph;
+import main.java.util.trace.StepLog;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A bounded cache of shortest path results, shortest path trees and recorded
+ * traces, keyed by graph version, algorithm, source and target. Entries are
+ * weighed by their approximate size, and the least recently used ones are
+ * evicted once the total exceeds the capacity. Since a graph's version
+ * changes whenever it's rebuilt, stale entries are never hit; they can be
+ * dropped right away with {@link #invalidate(long)}.
+ * <p>
+ * Algorithms in {@link Defs#exactShortPathAlgs} all find shortest paths, so
+ * their queries are answered from one {@link ShortestPathTree} per source,
+ * and changing only the target never searches again. As in
+ * {@link main.java.util.graph.GraphCache}, a tree is built outside the lock,
+ * and threads asking for a tree that's being built wait for it rather than
+ * building it again.
+ *
+ * @author Ryan Albertson
+ */
+public final class PathCache {
+
+    private static final int RESULT = 0;
+    private static final int TREE = 1;
+    private static final int TRACE = 2;
+
+    private final long capacityWords;
+    private long words;
+    private long hitCount;
+    private long missCount;
+
+    // Iterates from least to most recently used
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Trees being built, until they're cached
+    private final Map<Key, CompletableFuture<ShortestPathTree>> pendingTrees =
+            new HashMap<>();
+
+
+    /**
+     * @param capacityWords Total size of the entries kept, in longs.
+     * @throws IllegalArgumentException If {@code capacityWords} is negative.
+     */
+    public PathCache(long capacityWords) throws IllegalArgumentException {
+
+        if (capacityWords < 0) {
+            throw new IllegalArgumentException("ERROR: Cache capacity must not be negative");
+        }
+        this.capacityWords = capacityWords;
+    }
+
+
+    /**
+     * Finds a path, reusing a cached result or tree if there is one.
+     *
+     * @param graph      {@link IndexedGraph} to search.
+     * @param algName    Name of a shortest path algorithm, from {@link Defs#algNames}.
+     * @param sourceNode Node the path starts at.
+     * @param targetNode Node the path ends at.
+     * @return The path found by {@code algName}, or one just as short.
+     * @throws IllegalArgumentException If {@code algName} is unknown.
+     */
+    public PathResult query(IndexedGraph graph, String algName, int sourceNode,
+                            int targetNode) throws IllegalArgumentException {
+
+        Key key = new Key(graph.version(), RESULT, algName, sourceNode, targetNode);
+        PathResult result = (PathResult) get(key);
+        if (null != result) return result;
+
+        if (Defs.exactShortPathAlgs.contains(algName)) {
+            result = tree(graph, sourceNode).resultTo(targetNode);
+        } else {
+            result = search(graph, algName, sourceNode, targetNode);
+        }
+        put(key, result, result.words());
+        return result;
+    }
+
+
+    /**
+     * Gets the shortest path tree of a node, building it on the calling thread
+     * if it isn't cached or being built. Waiting for a tree that's being built
+     * counts as a hit. If building fails, the failure is thrown to every
+     * thread waiting on it, and the next call tries again.
+     *
+     * @param graph      {@link IndexedGraph} to search.
+     * @param sourceNode Root of the tree.
+     * @return The {@link ShortestPathTree}.
+     */
+    public ShortestPathTree tree(IndexedGraph graph, int sourceNode) {
+
+        Key key = new Key(graph.version(), TREE, null, sourceNode, PathResult.NO_NODE);
+        CompletableFuture<ShortestPathTree> tree;
+        boolean isComputing = false;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (null != entry) {
+                hitCount++;
+                return (ShortestPathTree) entry.value;
+            }
+            tree = pendingTrees.get(key);
+            if (null == tree) {
+                missCount++;
+                tree = new CompletableFuture<>();
+                pendingTrees.put(key, tree);
+                isComputing = true;
+            } else {
+                hitCount++;
+            }
+        }
+
+        if (isComputing) {
+            try {
+                ShortestPathTree computed = ShortestPathTree.compute(graph, sourceNode);
+                synchronized (this) {
+                    pendingTrees.remove(key);
+                    put(key, computed, computed.words());
+                }
+                tree.complete(computed);
+            } catch (RuntimeException | Error e) {
+                synchronized (this) {
+                    pendingTrees.remove(key);
+                }
+                tree.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return tree.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error) throw (Error) e.getCause();
+            throw e;
+        }
+    }
+
+
+    /**
+     * @param graph      {@link IndexedGraph} the trace was recorded on.
+     * @param algName    Name of the algorithm, from {@link Defs#algNames}.
+     * @param sourceNode Node the search started at, or
+     *                   {@link PathResult#NO_NODE} if there was none.
+     * @param targetNode Node the search looked for, or
+     *                   {@link PathResult#NO_NODE} if there was none.
+     * @return The cached trace, or null if there is none.
+     */
+    public StepLog trace(IndexedGraph graph, String algName, int sourceNode,
+                         int targetNode) {
+
+        return (StepLog) get(new Key(graph.version(), TRACE, algName, sourceNode,
+                targetNode));
+    }
+
+
+    /**
+     * Caches the complete trace of an algorithm. It mustn't be recorded to
+     * afterwards.
+     *
+     * @param graph      {@link IndexedGraph} the trace was recorded on.
+     * @param algName    Name of the algorithm, from {@link Defs#algNames}.
+     * @param sourceNode Node the search started at, or
+     *                   {@link PathResult#NO_NODE} if there was none.
+     * @param targetNode Node the search looked for, or
+     *                   {@link PathResult#NO_NODE} if there was none.
+     * @param log        The trace.
+     */
+    public void putTrace(IndexedGraph graph, String algName, int sourceNode,
+                         int targetNode, StepLog log) {
+
+        put(new Key(graph.version(), TRACE, algName, sourceNode, targetNode), log,
+                log.words());
+    }
+
+
+    /**
+     * Drops every entry of a graph version.
+     *
+     * @param version Version of a graph that changed or is no longer used.
+     */
+    public synchronized void invalidate(long version) {
+
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> entry = iterator.next();
+            if (entry.getKey().version == version) {
+                words -= entry.getValue().words;
+                iterator.remove();
+            }
+        }
+    }
+
+
+    /**
+     * Drops every entry. Trees being built are still cached once they're done.
+     */
+    public synchronized void clear() {
+
+        entries.clear();
+        words = 0;
+    }
+
+
+    /**
+     * @return Number of lookups that found an entry.
+     */
+    public synchronized long hitCount() {
+
+        return hitCount;
+    }
+
+
+    /**
+     * @return Number of lookups that didn't find an entry.
+     */
+    public synchronized long missCount() {
+
+        return missCount;
+    }
+
+
+    /**
+     * @return Total size of the cached entries, in longs.
+     */
+    public synchronized long words() {
+
+        return words;
+    }
+
+
+    /**
+     * @return The value cached under {@code key}, or null if there is none.
+     */
+    private synchronized Object get(Key key) {
+
+        Entry entry = entries.get(key);
+        if (null == entry) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.value;
+    }
+
+
+    /**
+     * Caches a value, then evicts the least recently used entries until the
+     * cache fits its capacity again. Values larger than the whole capacity
+     * aren't cached.
+     */
+    private synchronized void put(Key key, Object value, long valueWords) {
+
+        if (valueWords > capacityWords) return;
+        Entry old = entries.put(key, new Entry(value, valueWords));
+        if (null != old) words -= old.words;
+        words += valueWords;
+
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (words > capacityWords) {
+            words -= iterator.next().words;
+            iterator.remove();
+        }
+    }
+
+
+    /**
+     * Runs an algorithm headlessly, and follows the predecessors it set back
+     * from the target.
+     */
+    private static PathResult search(IndexedGraph graph, String algName,
+                                     int sourceNode, int targetNode) {
+
+        PredecessorSink sink = new PredecessorSink(graph.nodeCount());
+        AlgorithmFactory.create(algName, graph, sink, sourceNode, targetNode).run();
+        int[] predecessors = sink.predecessors;
+
+        // Add up the lightest arc between each node and its predecessor
+        double distance = 0.0;
+        int steps = 0;
+        for (int node = targetNode; node != sourceNode; node = predecessors[node]) {
+            int prevNode = predecessors[node];
+            if (prevNode == PathResult.NO_NODE || ++steps > graph.nodeCount()) {
+                distance = Double.POSITIVE_INFINITY;
+                break;
+            }
+            double weight = Double.POSITIVE_INFINITY;
+            for (int arc = graph.firstArc(node); arc < graph.endArc(node); arc++) {
+                if (graph.arcTarget(arc) == prevNode) {
+                    weight = Math.min(weight, graph.arcWeight(arc));
+                }
+            }
+            distance += weight;
+        }
+        return PathResult.of(sourceNode, targetNode, distance, predecessors, false);
+    }
+
+
+    /**
+     * Identifies an entry.
+     */
+    private static final class Key {
+
+        private final long version;
+        private final int kind;
+        private final String algName;
+        private final int sourceNode;
+        private final int targetNode;
+
+
+        private Key(long version, int kind, String algName, int sourceNode,
+                    int targetNode) {
+
+            this.version = version;
+            this.kind = kind;
+            this.algName = algName;
+            this.sourceNode = sourceNode;
+            this.targetNode = targetNode;
+        }
+
+
+        @Override
+        public boolean equals(Object other) {
+
+            if (!(other instanceof Key)) return false;
+            Key key = (Key) other;
+            return version == key.version && kind == key.kind
+                    && sourceNode == key.sourceNode && targetNode == key.targetNode
+                    && Objects.equals(algName, key.algName);
+        }
+
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(version, kind, algName, sourceNode, targetNode);
+        }
+    }
+
+
+    /**
+     * A cached value and its size.
+     */
+    private static final class Entry {
+
+        private final Object value;
+        private final long words;
+
+
+        private Entry(Object value, long words) {
+
+            this.value = value;
+            this.words = words;
+        }
+    }
+
+
+    /**
+     * A {@link StepSink} that only keeps the predecessors.
+     */
+    private static final class PredecessorSink implements StepSink {
+
+        private final int[] predecessors;
+
+
+        private PredecessorSink(int nodeCount) {
+
+            predecessors = new int[nodeCount];
+            Arrays.fill(predecessors, PathResult.NO_NODE);
+        }
+
+
+        @Override
+        public void reset() {
+
+            Arrays.fill(predecessors, PathResult.NO_NODE);
+        }
+
+
+        @Override
+        public void visitEdge(int edge) {
+
+        }
+
+
+        @Override
+        public void unvisitEdge(int edge) {
+
+        }
+
+
+        @Override
+        public void clearVisitedEdges() {
+
+        }
+
+
+        @Override
+        public void setPredecessor(int node, int predecessor) {
+
+            predecessors[node] = predecessor;
+        }
+
+
+        @Override
+        public void step(int speedUp) {
+
+        }
+    }
+}
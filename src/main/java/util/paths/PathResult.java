@@ -0,0 +1,108 @@
+package main.java.util.paths;
+
+/**
+ * The answer to one shortest path query: the path's length, its nodes, and
+ * the predecessors the search ended with.
+ *
+ * @author Ryan Albertson
+ */
+public final class PathResult {
+
+    public static final int NO_NODE = -1;
+
+    private final double distance;
+    private final int[] path;
+
+    // Predecessor of each node when the search finished, NO_NODE if none.
+    // May be shared with a ShortestPathTree, so it's never handed out
+    private final int[] predecessors;
+    // True if the predecessors belong to a ShortestPathTree, which is charged
+    // for them instead
+    private final boolean isShared;
+
+
+    /**
+     * @param distance     Length of the path, infinite if there's none.
+     * @param path         Nodes of the path from source to target, empty if
+     *                     there's none.
+     * @param predecessors Predecessor of each node.
+     * @param isShared     True if {@code predecessors} belongs to a
+     *                     {@link ShortestPathTree}.
+     */
+    PathResult(double distance, int[] path, int[] predecessors, boolean isShared) {
+
+        this.distance = distance;
+        this.path = path;
+        this.predecessors = predecessors;
+        this.isShared = isShared;
+    }
+
+
+    /**
+     * Builds the result for a target by following predecessors back from it.
+     *
+     * @param sourceNode   Node the path starts at.
+     * @param targetNode   Node the path ends at.
+     * @param distance     Length of the path, infinite if there's none.
+     * @param predecessors Predecessor of each node, NO_NODE if none.
+     * @param isShared     True if {@code predecessors} belongs to a
+     *                     {@link ShortestPathTree}.
+     * @return The {@link PathResult}.
+     */
+    static PathResult of(int sourceNode, int targetNode, double distance,
+                         int[] predecessors, boolean isShared) {
+
+        if (Double.isInfinite(distance)) {
+            return new PathResult(distance, new int[0], predecessors, isShared);
+        }
+        int length = 1;
+        for (int node = targetNode; node != sourceNode; node = predecessors[node]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int node = targetNode, i = length - 1; i >= 0; node = predecessors[node]) {
+            path[i--] = node;
+        }
+        return new PathResult(distance, path, predecessors, isShared);
+    }
+
+
+    /**
+     * @return Length of the path, or infinity if the target can't be reached.
+     */
+    public double distance() {
+
+        return distance;
+    }
+
+
+    /**
+     * @return Nodes of the path from source to target, or an empty array if
+     * the target can't be reached.
+     */
+    public int[] path() {
+
+        return path.clone();
+    }
+
+
+    /**
+     * @param node A node.
+     * @return Predecessor of {@code node} when the search finished, or
+     * {@link #NO_NODE} if it had none.
+     */
+    public int predecessor(int node) {
+
+        return predecessors[node];
+    }
+
+
+    /**
+     * @return Approximate size of this result, in longs. Shared predecessors
+     * aren't counted.
+     */
+    long words() {
+
+        return (path.length + (isShared ? 0 : predecessors.length)) / 2 + 2;
+    }
+}
@@ -0,0 +1,161 @@
+package main.java.util.paths;
+
+import main.java.util.Defs;
+import main.java.util.algorithms.StepSink;
+import main.java.util.graph.IndexedGraph;
+import main.java.util.structures.IndexedMinHeap;
+
+import java.util.Arrays;
+
+/**
+ * Shortest paths from one source node to every node of an
+ * {@link IndexedGraph}, found by running Dijkstra's algorithm to completion.
+ * Once built, the path to any target is read off without searching again.
+ * The order nodes were settled in is kept too, so the steps that
+ * {@link main.java.util.algorithms.Dijkstra} takes to reach any target can be
+ * replayed without searching.
+ *
+ * @author Ryan Albertson
+ */
+public final class ShortestPathTree {
+
+    private final int sourceNode;
+    private final double[] distanceTo;
+    private final int[] prevNode;
+    private final int[] edgeTo;
+
+    // Reachable nodes, in the order they were settled
+    private final int[] settleOrder;
+
+
+    private ShortestPathTree(int sourceNode, double[] distanceTo, int[] prevNode,
+                             int[] edgeTo, int[] settleOrder) {
+
+        this.sourceNode = sourceNode;
+        this.distanceTo = distanceTo;
+        this.prevNode = prevNode;
+        this.edgeTo = edgeTo;
+        this.settleOrder = settleOrder;
+    }
+
+
+    /**
+     * Builds the shortest path tree of a node. Nodes are settled exactly as
+     * {@link main.java.util.algorithms.Dijkstra} settles them.
+     *
+     * @param graph      {@link IndexedGraph} to search.
+     * @param sourceNode Root of the tree.
+     * @return The {@link ShortestPathTree}.
+     */
+    public static ShortestPathTree compute(IndexedGraph graph, int sourceNode) {
+
+        int nodeCount = graph.nodeCount();
+        double[] distanceTo = new double[nodeCount];
+        Arrays.fill(distanceTo, Double.POSITIVE_INFINITY);
+        distanceTo[sourceNode] = 0.0;
+        int[] prevNode = new int[nodeCount];
+        Arrays.fill(prevNode, PathResult.NO_NODE);
+        int[] edgeTo = new int[nodeCount];
+        Arrays.fill(edgeTo, -1);
+        boolean[] isSettled = new boolean[nodeCount];
+        int[] settleOrder = new int[nodeCount];
+        int settledCount = 0;
+
+        IndexedMinHeap nodesPQ = new IndexedMinHeap(nodeCount, Defs.HEAP_ARITY);
+        nodesPQ.insert(sourceNode, 0.0);
+        while (!nodesPQ.isEmpty()) {
+            int currentNode = nodesPQ.poll();
+            isSettled[currentNode] = true;
+            settleOrder[settledCount++] = currentNode;
+            for (int arc = graph.firstArc(currentNode);
+                 arc < graph.endArc(currentNode); arc++) {
+                int adjNode = graph.arcTarget(arc);
+                if (isSettled[adjNode]) continue;
+                double newDist = distanceTo[currentNode] + graph.arcWeight(arc);
+                if (newDist < distanceTo[adjNode]) {
+                    distanceTo[adjNode] = newDist;
+                    prevNode[adjNode] = currentNode;
+                    edgeTo[adjNode] = graph.arcEdge(arc);
+                    nodesPQ.insertOrDecrease(adjNode, newDist);
+                }
+            }
+        }
+        return new ShortestPathTree(sourceNode, distanceTo, prevNode, edgeTo,
+                Arrays.copyOf(settleOrder, settledCount));
+    }
+
+
+    /**
+     * @return Root of the tree.
+     */
+    public int sourceNode() {
+
+        return sourceNode;
+    }
+
+
+    /**
+     * @param node A node.
+     * @return Length of the shortest path to {@code node}, or infinity if it
+     * can't be reached.
+     */
+    public double distance(int node) {
+
+        return distanceTo[node];
+    }
+
+
+    /**
+     * @param node A node.
+     * @return Node before {@code node} on its shortest path, or
+     * {@link PathResult#NO_NODE} for the source and unreachable nodes.
+     */
+    public int predecessor(int node) {
+
+        return prevNode[node];
+    }
+
+
+    /**
+     * Reports the steps that {@link main.java.util.algorithms.Dijkstra} takes
+     * from the source until it settles {@code targetNode}: each settled node's
+     * tree edge and predecessor, one step per node. If the target can't be
+     * reached, every reachable node is reported.
+     *
+     * @param targetNode Node the search looks for.
+     * @param sink       Receives the steps.
+     */
+    public void replaySearch(int targetNode, StepSink sink) {
+
+        sink.reset();
+        for (int node : settleOrder) {
+            if (edgeTo[node] != -1) {
+                sink.visitEdge(edgeTo[node]);
+                sink.setPredecessor(node, prevNode[node]);
+                sink.step(0);
+            }
+            if (node == targetNode) return;
+        }
+    }
+
+
+    /**
+     * @param targetNode A node.
+     * @return The shortest path to {@code targetNode}.
+     */
+    public PathResult resultTo(int targetNode) {
+
+        return PathResult.of(sourceNode, targetNode, distanceTo[targetNode], prevNode,
+                true);
+    }
+
+
+    /**
+     * @return Approximate size of this tree, in longs.
+     */
+    long words() {
+
+        return distanceTo.length + (prevNode.length + edgeTo.length
+                + settleOrder.length) / 2 + 2;
+    }
+}
@@ -0,0 +1,143 @@
+package main.java.util.race;
+
+import main.java.util.algorithms.Algorithm;
+import main.java.util.algorithms.AlgorithmFactory;
+import main.java.util.graph.IndexedGraph;
+import main.java.util.runner.AlgorithmRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Runs several algorithms at the same time on one graph, each in its own
+ * {@link RaceLane}. The graph is immutable, so the algorithms share it
+ * without locking. All of them are held at a start line until every one has
+ * a thread, then released together. Each lane times only its algorithm's
+ * work, not its pacing or pauses, so the times are comparable at any speed.
+ *
+ * @author Ryan Albertson
+ */
+public final class Race {
+
+    private final List<RaceLane> lanes;
+    private final List<Algorithm> algorithms;
+    private final List<Future<?>> runs;
+
+
+    /**
+     * Constructor.
+     *
+     * @param graph      {@link IndexedGraph} to race on.
+     * @param algNames   Names of the algorithms to race, from
+     *                   {@link main.java.util.Defs#algNames}.
+     * @param sourceNode Node the searches start at, or {@link Algorithm#NO_NODE}.
+     * @param targetNode Node the searches look for, or {@link Algorithm#NO_NODE}.
+     * @param speed      Supplies the milliseconds to show each step for.
+     * @throws IllegalArgumentException If an algorithm name is unknown.
+     */
+    public Race(IndexedGraph graph, List<String> algNames, int sourceNode,
+                int targetNode, IntSupplier speed) throws IllegalArgumentException {
+
+        lanes = new ArrayList<>(algNames.size());
+        algorithms = new ArrayList<>(algNames.size());
+        runs = new ArrayList<>(algNames.size());
+        for (String algName : algNames) {
+            RaceLane lane = new RaceLane(algName, graph, speed);
+            lanes.add(lane);
+            algorithms.add(AlgorithmFactory.create(algName, graph, lane, sourceNode,
+                    targetNode));
+        }
+    }
+
+
+    /**
+     * Starts every algorithm. A race can only be started once.
+     *
+     * @param runner Runs the algorithms.
+     * @throws IllegalStateException If the race was already started.
+     */
+    public void start(AlgorithmRunner runner) throws IllegalStateException {
+
+        if (!runs.isEmpty()) throw new IllegalStateException("ERROR: Race already started");
+        // Every algorithm's thread arrives here, and the last one releases them all
+        CountDownLatch startLine = new CountDownLatch(lanes.size());
+        AtomicInteger finishCount = new AtomicInteger();
+        for (int i = 0; i < lanes.size(); i++) {
+            RaceLane lane = lanes.get(i);
+            Algorithm algorithm = algorithms.get(i);
+            runs.add(runner.submit(() -> {
+                startLine.countDown();
+                try {
+                    startLine.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                lane.start(algorithm);
+                algorithm.run();
+                lane.finish(finishCount.incrementAndGet());
+            }));
+        }
+    }
+
+
+    /**
+     * @return Lanes of the race, in the order of the algorithm names.
+     */
+    public List<RaceLane> lanes() {
+
+        return Collections.unmodifiableList(lanes);
+    }
+
+
+    /**
+     * @return True if any algorithm is still running. False otherwise.
+     */
+    public boolean isRunning() {
+
+        for (Future<?> run : runs) {
+            if (!run.isDone()) return true;
+        }
+        return false;
+    }
+
+
+    /**
+     * @return True if the race is paused. False otherwise.
+     */
+    public boolean isPaused() {
+
+        return !algorithms.isEmpty() && algorithms.get(0).isPaused();
+    }
+
+
+    /**
+     * Pauses every algorithm.
+     */
+    public void pause() {
+
+        algorithms.forEach(Algorithm::pause);
+    }
+
+
+    /**
+     * Resumes every algorithm.
+     */
+    public void unPause() {
+
+        algorithms.forEach(Algorithm::unPause);
+    }
+
+
+    /**
+     * Stops every algorithm.
+     */
+    public void stop() {
+
+        algorithms.forEach(Algorithm::stop);
+    }
+}
@@ -0,0 +1,232 @@
+package main.java.util.race;
+
+import main.java.util.algorithms.Algorithm;
+import main.java.util.algorithms.StepSink;
+import main.java.util.graph.IndexedGraph;
+
+import java.util.Arrays;
+import java.util.function.IntSupplier;
+
+/**
+ * Keeps the state of one algorithm of a {@link Race}: the edges it visited,
+ * its predecessors, and live counters. Each lane is only written by the
+ * thread of its own algorithm, so lanes never share mutable state. Other
+ * threads may read a lane while it runs, and see a state that lags by at most
+ * a few steps.
+ *
+ * @author Ryan Albertson
+ */
+public final class RaceLane implements StepSink {
+
+    // Frontier of an edge that no frontier has visited
+    public static final byte NOT_VISITED = -1;
+
+    private final String algName;
+    private final IntSupplier speed;
+
+    // Frontier that last visited each edge, or NOT_VISITED
+    private final byte[] edgeFrontiers;
+    private final boolean[] isReached;
+    private final int[] predecessors;
+    private final IndexedGraph graph;
+
+    private volatile int nodesSettled;
+    private volatile long steps;
+    private volatile long startNanos;
+    private volatile long endNanos;
+    private volatile int place;
+
+    // Algorithm that runs in this lane, once started, for its waiting time
+    private volatile Algorithm algorithm;
+
+
+    /**
+     * Constructor.
+     *
+     * @param algName Name of the algorithm that runs in this lane.
+     * @param graph   {@link IndexedGraph} the algorithm runs on.
+     * @param speed   Supplies the milliseconds to show each step for.
+     */
+    RaceLane(String algName, IndexedGraph graph, IntSupplier speed) {
+
+        this.algName = algName;
+        this.graph = graph;
+        this.speed = speed;
+        edgeFrontiers = new byte[graph.edgeCount()];
+        isReached = new boolean[graph.nodeCount()];
+        predecessors = new int[graph.nodeCount()];
+        reset();
+    }
+
+
+    /**
+     * Marks the lane as started, before its algorithm runs.
+     *
+     * @param algorithm {@link Algorithm} that runs in this lane.
+     */
+    void start(Algorithm algorithm) {
+
+        this.algorithm = algorithm;
+        endNanos = 0;
+        place = 0;
+        startNanos = System.nanoTime();
+    }
+
+
+    /**
+     * Marks the lane as finished, after its algorithm returned.
+     *
+     * @param place Order in which the lane finished, from 1.
+     */
+    void finish(int place) {
+
+        endNanos = System.nanoTime();
+        this.place = place;
+    }
+
+
+    /**
+     * @return Name of the algorithm that runs in this lane.
+     */
+    public String algName() {
+
+        return algName;
+    }
+
+
+    /**
+     * @return Number of nodes that are an endpoint of a visited edge.
+     */
+    public int nodesSettled() {
+
+        return nodesSettled;
+    }
+
+
+    /**
+     * @return Number of steps the algorithm has taken.
+     */
+    public long steps() {
+
+        return steps;
+    }
+
+
+    /**
+     * @return Nanoseconds the algorithm has spent working since the lane
+     * started, or in total if it has finished, leaving out the time it was
+     * paced between steps or paused. Zero if it hasn't started.
+     */
+    public long computeNanos() {
+
+        long start = startNanos;
+        long end = endNanos;
+        if (start == 0) return 0;
+        long elapsed = (end == 0 ? System.nanoTime() : end) - start;
+        return Math.max(0, elapsed - algorithm.waitNanos());
+    }
+
+
+    /**
+     * @return Order in which the lane finished, from 1, or 0 if it hasn't.
+     */
+    public int place() {
+
+        return place;
+    }
+
+
+    /**
+     * @param edge An edge id.
+     * @return {@link StepSink#FORWARD} or {@link StepSink#BACKWARD} for the
+     * frontier that last visited {@code edge}, or {@link #NOT_VISITED}.
+     */
+    public byte edgeFrontier(int edge) {
+
+        return edgeFrontiers[edge];
+    }
+
+
+    /**
+     * @param node A node.
+     * @return Predecessor of {@code node} on the path found so far, or
+     * {@link Algorithm#NO_NODE}.
+     */
+    public int predecessor(int node) {
+
+        return predecessors[node];
+    }
+
+
+    @Override
+    public void reset() {
+
+        Arrays.fill(edgeFrontiers, NOT_VISITED);
+        Arrays.fill(isReached, false);
+        Arrays.fill(predecessors, Algorithm.NO_NODE);
+        nodesSettled = 0;
+        steps = 0;
+    }
+
+
+    @Override
+    public void visitEdge(int edge) {
+
+        visitEdge(edge, FORWARD);
+    }
+
+
+    @Override
+    public void visitEdge(int edge, int frontier) {
+
+        edgeFrontiers[edge] = (byte) frontier;
+        reach(graph.edgeSource(edge));
+        reach(graph.edgeTarget(edge));
+    }
+
+
+    /**
+     * Counts {@code node} as settled, the first time it's reached.
+     */
+    private void reach(int node) {
+
+        if (isReached[node]) return;
+        isReached[node] = true;
+        nodesSettled++;
+    }
+
+
+    @Override
+    public void unvisitEdge(int edge) {
+
+        edgeFrontiers[edge] = NOT_VISITED;
+    }
+
+
+    @Override
+    public void clearVisitedEdges() {
+
+        Arrays.fill(edgeFrontiers, NOT_VISITED);
+    }
+
+
+    @Override
+    public void setPredecessor(int node, int predecessor) {
+
+        predecessors[node] = predecessor;
+    }
+
+
+    @Override
+    public void step(int speedUp) {
+
+        steps++;
+    }
+
+
+    @Override
+    public int speed() {
+
+        return speed.getAsInt();
+    }
+}
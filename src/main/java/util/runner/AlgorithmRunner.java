@@ -0,0 +1,108 @@
+package main.java.util.runner;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs algorithms and playbacks, one task per thread. On a JDK with virtual
+ * threads every task gets a virtual thread, so a host can keep thousands of
+ * paced runs waiting without an OS thread each. Older JDKs fall back to a
+ * cached pool of daemon platform threads.
+ * <p>
+ * Every task is tracked by the {@link Future} that {@link #submit} returns.
+ * Cancelling it with {@code cancel(true)} interrupts the task, which
+ * {@link main.java.util.algorithms.Algorithm} and
+ * {@link main.java.util.trace.TracePlayer} treat as being stopped.
+ *
+ * @author Ryan Albertson
+ */
+public final class AlgorithmRunner {
+
+    private final ExecutorService executor;
+    private final boolean isVirtual;
+
+
+    /**
+     * Constructs an {@link AlgorithmRunner} on virtual threads if the JDK
+     * supports them.
+     */
+    public AlgorithmRunner() {
+
+        ExecutorService virtualExecutor = newVirtualExecutor();
+        isVirtual = virtualExecutor != null;
+        executor = isVirtual ? virtualExecutor : Executors.newCachedThreadPool(
+                new DaemonThreadFactory());
+    }
+
+
+    /**
+     * Looks up {@code Executors.newVirtualThreadPerTaskExecutor()} reflectively,
+     * since it doesn't exist before JDK 21.
+     *
+     * @return The executor, or null if the JDK has no virtual threads or they
+     * are a disabled preview feature.
+     */
+    private static ExecutorService newVirtualExecutor() {
+
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * Starts a task.
+     *
+     * @param task An {@link main.java.util.algorithms.Algorithm}, a
+     *             {@link main.java.util.trace.TracePlayer}, or any other task.
+     * @return {@link Future} that is done once the task has returned.
+     */
+    public Future<?> submit(Runnable task) {
+
+        return executor.submit(task);
+    }
+
+
+    /**
+     * @return True if tasks run on virtual threads. False otherwise.
+     */
+    public boolean isVirtual() {
+
+        return isVirtual;
+    }
+
+
+    /**
+     * Interrupts every running task and refuses new ones.
+     */
+    public void shutdownNow() {
+
+        executor.shutdownNow();
+    }
+
+
+    /**
+     * Creates daemon threads, so that running algorithms don't keep the JVM
+     * alive.
+     */
+    private static final class DaemonThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+
+        @Override
+        public Thread newThread(Runnable task) {
+
+            Thread thread = new Thread(task, "algorithm-runner-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package main.java.util.runner;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds a running algorithm or playback while it's paused, and paces it
+ * between steps. Waiting threads are signalled when the gate is resumed or
+ * closed, so they wake immediately instead of polling. It uses a
+ * {@link ReentrantLock} rather than a monitor, so waiting doesn't pin a
+ * virtual thread to its carrier.
+ *
+ * @author Ryan Albertson
+ */
+public final class PauseGate {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private volatile boolean paused;
+    private volatile boolean closed;
+
+
+    /**
+     * Holds waiting threads until {@link #resume()} or {@link #close()}.
+     */
+    public void pause() {
+
+        paused = true;
+    }
+
+
+    /**
+     * Releases threads held by {@link #pause()}.
+     */
+    public void resume() {
+
+        lock.lock();
+        try {
+            paused = false;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Releases every waiting thread for good, and cuts short any pacing.
+     */
+    public void close() {
+
+        lock.lock();
+        try {
+            closed = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * @return True if the gate is paused and not closed. False otherwise.
+     */
+    public boolean isPaused() {
+
+        return paused && !closed;
+    }
+
+
+    /**
+     * Waits while the gate is paused.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public void awaitResume() throws InterruptedException {
+
+        if (!isPaused()) return;
+        lock.lock();
+        try {
+            while (isPaused()) changed.await();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Waits between two steps, unless the gate is closed meanwhile.
+     *
+     * @param millis Milliseconds to wait. Nothing happens if this isn't positive.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public void pace(long millis) throws InterruptedException {
+
+        if (millis <= 0 || closed) return;
+        long nanos = TimeUnit.MILLISECONDS.toNanos(millis);
+        lock.lock();
+        try {
+            while (nanos > 0 && !closed) nanos = changed.awaitNanos(nanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
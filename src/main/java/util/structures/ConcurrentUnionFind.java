@@ -0,0 +1,89 @@
+package main.java.util.structures;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A lock-free disjoint-set forest over the ints {@code 0..size-1}, safe to
+ * use from many threads at once. Roots are linked by compare-and-set, always
+ * under the lower of the two roots, so concurrent unions can't form a cycle.
+ * Finding halves paths by compare-and-set too, which never changes the root
+ * an element leads to.
+ *
+ * @author Ryan Albertson
+ */
+public final class ConcurrentUnionFind {
+
+    private final AtomicIntegerArray parent;
+
+
+    /**
+     * Constructs a {@link ConcurrentUnionFind} where every element is its own
+     * set.
+     *
+     * @param size Number of elements.
+     */
+    public ConcurrentUnionFind(int size) {
+
+        parent = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) parent.set(i, i);
+    }
+
+
+    /**
+     * @param element An element.
+     * @return The root of the set that {@code element} belongs to. May be
+     * outdated as soon as it returns, if other threads are merging sets.
+     */
+    public int find(int element) {
+
+        while (true) {
+            int elementParent = parent.get(element);
+            if (elementParent == element) return element;
+            int grandparent = parent.get(elementParent);
+            // Point the element at its grandparent, unless another thread did
+            if (elementParent != grandparent) {
+                parent.compareAndSet(element, elementParent, grandparent);
+            }
+            element = grandparent;
+        }
+    }
+
+
+    /**
+     * Merges the sets of two elements.
+     *
+     * @param element1 An element.
+     * @param element2 An element.
+     * @return True if this call merged the sets, false if they were already
+     * the same set.
+     */
+    public boolean union(int element1, int element2) {
+
+        while (true) {
+            int root1 = find(element1);
+            int root2 = find(element2);
+            if (root1 == root2) return false;
+            int higherRoot = Math.max(root1, root2);
+            int lowerRoot = Math.min(root1, root2);
+            // Fails if another thread linked the higher root first, then retry
+            if (parent.compareAndSet(higherRoot, higherRoot, lowerRoot)) return true;
+        }
+    }
+
+
+    /**
+     * @param element1 An element.
+     * @param element2 An element.
+     * @return True if both elements are in the same set, otherwise false.
+     */
+    public boolean connected(int element1, int element2) {
+
+        while (true) {
+            int root1 = find(element1);
+            int root2 = find(element2);
+            if (root1 == root2) return true;
+            // Only trust the answer if root1 wasn't linked in the meantime
+            if (parent.get(root1) == root1) return false;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package main.java.util.structures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An indexed d-ary min-heap over the ints {@code 0..capacity-1}, keyed by
+ * primitive doubles. Each id is in the heap at most once, and its key can be
+ * lowered in place with {@link #decreaseKey(int, double)}, so searches never
+ * need to queue duplicate entries.
+ *
+ * @author Ryan Albertson
+ */
+public final class IndexedMinHeap {
+
+    private final int arity;
+    private final int[] heap;
+    private final int[] position;
+    private final double[] keys;
+    private int size;
+
+
+    /**
+     * Constructs an empty {@link IndexedMinHeap}.
+     *
+     * @param capacity Ids must be less than this.
+     * @param arity    Children per heap node, one of 2, 4 or 8.
+     * @throws IllegalArgumentException If {@code arity} isn't 2, 4 or 8.
+     */
+    public IndexedMinHeap(int capacity, int arity)
+            throws IllegalArgumentException {
+
+        if (arity != 2 && arity != 4 && arity != 8) {
+            throw new IllegalArgumentException("ERROR: Heap arity must be 2, 4 or 8");
+        }
+        this.arity = arity;
+        heap = new int[capacity];
+        position = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(position, -1);
+        size = 0;
+    }
+
+
+    /**
+     * @return True if the heap has no ids, otherwise false.
+     */
+    public boolean isEmpty() {
+
+        return size == 0;
+    }
+
+
+    /**
+     * @return Number of ids in the heap.
+     */
+    public int size() {
+
+        return size;
+    }
+
+
+    /**
+     * @param id An id.
+     * @return True if {@code id} is currently in the heap, otherwise false.
+     */
+    public boolean contains(int id) {
+
+        return position[id] != -1;
+    }
+
+
+    /**
+     * @param id An id in the heap.
+     * @return The current key of {@code id}.
+     */
+    public double key(int id) {
+
+        return keys[id];
+    }
+
+
+    /**
+     * Adds an id to the heap.
+     *
+     * @param id  An id that isn't in the heap.
+     * @param key Key of {@code id}.
+     * @throws IllegalArgumentException If {@code id} is already in the heap.
+     */
+    public void insert(int id, double key) throws IllegalArgumentException {
+
+        if (position[id] != -1) {
+            throw new IllegalArgumentException("ERROR: Id is already in heap");
+        }
+        keys[id] = key;
+        heap[size] = id;
+        position[id] = size;
+        siftUp(size++);
+    }
+
+
+    /**
+     * Lowers the key of an id that is in the heap.
+     *
+     * @param id  An id in the heap.
+     * @param key New key, no greater than the current key of {@code id}.
+     * @throws IllegalArgumentException If {@code id} isn't in the heap, or
+     *                                  {@code key} is larger than the current key.
+     */
+    public void decreaseKey(int id, double key) throws IllegalArgumentException {
+
+        if (position[id] == -1) {
+            throw new IllegalArgumentException("ERROR: Id isn't in heap");
+        }
+        if (key > keys[id]) {
+            throw new IllegalArgumentException("ERROR: Key can only decrease");
+        }
+        keys[id] = key;
+        siftUp(position[id]);
+    }
+
+
+    /**
+     * Inserts {@code id}, or lowers its key if it's already in the heap and
+     * {@code key} is smaller.
+     *
+     * @param id  An id.
+     * @param key Key of {@code id}.
+     * @return True if the heap changed, otherwise false.
+     */
+    public boolean insertOrDecrease(int id, double key) {
+
+        if (position[id] == -1) {
+            insert(id, key);
+            return true;
+        }
+        if (key < keys[id]) {
+            decreaseKey(id, key);
+            return true;
+        }
+        return false;
+    }
+
+
+    /**
+     * @return The id with the smallest key.
+     * @throws NoSuchElementException If the heap is empty.
+     */
+    public int peek() throws NoSuchElementException {
+
+        if (size == 0) throw new NoSuchElementException("ERROR: Heap is empty");
+        return heap[0];
+    }
+
+
+    /**
+     * Removes the id with the smallest key.
+     *
+     * @return The removed id.
+     * @throws NoSuchElementException If the heap is empty.
+     */
+    public int poll() throws NoSuchElementException {
+
+        int min = peek();
+        int last = heap[--size];
+        position[min] = -1;
+        if (size > 0) {
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+
+    /**
+     * Removes every id from the heap.
+     */
+    public void clear() {
+
+        for (int i = 0; i < size; i++) position[heap[i]] = -1;
+        size = 0;
+    }
+
+
+    /**
+     * Moves the id at heap slot {@code slot} up until its parent is no larger.
+     */
+    private void siftUp(int slot) {
+
+        int id = heap[slot];
+        double key = keys[id];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) / arity;
+            int parent = heap[parentSlot];
+            if (keys[parent] <= key) break;
+            heap[slot] = parent;
+            position[parent] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = id;
+        position[id] = slot;
+    }
+
+
+    /**
+     * Moves the id at heap slot {@code slot} down until no child is smaller.
+     */
+    private void siftDown(int slot) {
+
+        int id = heap[slot];
+        double key = keys[id];
+        while (true) {
+            int firstChild = slot * arity + 1;
+            if (firstChild >= size) break;
+            // Find the smallest child
+            int lastChild = Math.min(firstChild + arity, size);
+            int minSlot = firstChild;
+            double minKey = keys[heap[firstChild]];
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                double childKey = keys[heap[child]];
+                if (childKey < minKey) {
+                    minKey = childKey;
+                    minSlot = child;
+                }
+            }
+            if (minKey >= key) break;
+            int minId = heap[minSlot];
+            heap[slot] = minId;
+            position[minId] = slot;
+            slot = minSlot;
+        }
+        heap[slot] = id;
+        position[id] = slot;
+    }
+}
@@ -0,0 +1,91 @@
+package main.java.util.structures;
+
+/**
+ * A disjoint-set forest over the ints {@code 0..size-1}, with union by rank
+ * and path halving. Finding is iterative, so deep sets can't overflow the
+ * call stack.
+ *
+ * @author Ryan Albertson
+ */
+public final class UnionFind {
+
+    private final int[] parent;
+    private final byte[] rank;
+    private int setCount;
+
+
+    /**
+     * Constructs a {@link UnionFind} where every element is its own set.
+     *
+     * @param size Number of elements.
+     */
+    public UnionFind(int size) {
+
+        parent = new int[size];
+        rank = new byte[size];
+        for (int i = 0; i < size; i++) parent[i] = i;
+        setCount = size;
+    }
+
+
+    /**
+     * @param element An element.
+     * @return The root of the set that {@code element} belongs to.
+     */
+    public int find(int element) {
+
+        while (parent[element] != element) {
+            // Point every other element on the path at its grandparent
+            parent[element] = parent[parent[element]];
+            element = parent[element];
+        }
+        return element;
+    }
+
+
+    /**
+     * Merges the sets of two elements.
+     *
+     * @param element1 An element.
+     * @param element2 An element.
+     * @return True if the elements were in different sets, otherwise false.
+     */
+    public boolean union(int element1, int element2) {
+
+        int root1 = find(element1);
+        int root2 = find(element2);
+        if (root1 == root2) return false;
+
+        // Attach the shallower tree under the deeper one
+        if (rank[root1] < rank[root2]) {
+            parent[root1] = root2;
+        } else if (rank[root1] > rank[root2]) {
+            parent[root2] = root1;
+        } else {
+            parent[root2] = root1;
+            rank[root1]++;
+        }
+        setCount--;
+        return true;
+    }
+
+
+    /**
+     * @param element1 An element.
+     * @param element2 An element.
+     * @return True if both elements are in the same set, otherwise false.
+     */
+    public boolean connected(int element1, int element2) {
+
+        return find(element1) == find(element2);
+    }
+
+
+    /**
+     * @return Number of disjoint sets.
+     */
+    public int setCount() {
+
+        return setCount;
+    }
+}
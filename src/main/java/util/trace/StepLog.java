@@ -0,0 +1,345 @@
+package main.java.util.trace;
+
+import main.java.util.Defs;
+import main.java.util.algorithms.Algorithm;
+import main.java.util.algorithms.StepSink;
+
+import java.util.Arrays;
+
+/**
+ * A {@link StepSink} that records the steps of an algorithm instead of showing
+ * them, so the algorithm can run to completion at full speed. Every operation
+ * is packed into one {@code long}: a 4 bit opcode and two 30 bit operands.
+ * Snapshots of the visible state are kept every few steps, so any step can be
+ * reconstructed by replaying at most a bounded number of operations.
+ *
+ * @author Ryan Albertson
+ */
+public final class StepLog implements StepSink {
+
+    static final int VISIT = 1;
+    static final int UNVISIT = 2;
+    static final int CLEAR = 3;
+    static final int PREDECESSOR = 4;
+    static final int STEP = 5;
+
+    private static final int OPERAND_BITS = 30;
+    private static final int OPERAND_MASK = (1 << OPERAND_BITS) - 1;
+
+    // Operand recorded for a removed predecessor. No node has this id
+    static final int NO_PREDECESSOR = OPERAND_MASK;
+
+    private final int nodeCount;
+    private final int edgeCount;
+    private long[] ops;
+    private int opCount;
+
+    // stepEnds[i] is the index of the op after the (i + 1)th step marker
+    private int[] stepEnds;
+    private int stepCount;
+
+    // State after keyframeSteps[i] steps. The state after 0 steps is empty
+    private int[] keyframeSteps;
+    private TraceState[] keyframes;
+    private int keyframeCount;
+    private TraceState current;
+
+
+    /**
+     * Constructs an empty {@link StepLog} for a graph.
+     *
+     * @param nodeCount Number of nodes in the graph.
+     * @param edgeCount Number of edges in the graph.
+     * @throws IllegalArgumentException If the graph is too large to record.
+     */
+    public StepLog(int nodeCount, int edgeCount) throws IllegalArgumentException {
+
+        if (nodeCount > NO_PREDECESSOR || edgeCount > OPERAND_MASK) {
+            throw new IllegalArgumentException("ERROR: Graph is too large to record");
+        }
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        reset();
+    }
+
+
+    /**
+     * Packs an operation into a {@code long}.
+     */
+    static long encode(int opcode, int first, int second) {
+
+        return (long) opcode << (2 * OPERAND_BITS)
+                | (long) (first & OPERAND_MASK) << OPERAND_BITS
+                | (second & OPERAND_MASK);
+    }
+
+
+    /**
+     * @return Opcode of an encoded operation.
+     */
+    static int opcode(long op) {
+
+        return (int) (op >>> (2 * OPERAND_BITS));
+    }
+
+
+    /**
+     * @return First operand of an encoded operation.
+     */
+    static int first(long op) {
+
+        return (int) (op >>> OPERAND_BITS) & OPERAND_MASK;
+    }
+
+
+    /**
+     * @return Second operand of an encoded operation.
+     */
+    static int second(long op) {
+
+        return (int) op & OPERAND_MASK;
+    }
+
+
+    /**
+     * @return Predecessor operand of an encoded {@link #PREDECESSOR} operation,
+     * or {@link Algorithm#NO_NODE} if the predecessor was removed.
+     */
+    static int predecessor(long op) {
+
+        int predecessor = second(op);
+        return predecessor == NO_PREDECESSOR ? Algorithm.NO_NODE : predecessor;
+    }
+
+
+    /**
+     * @param edge An edge id.
+     * @throws IllegalArgumentException If {@code index} isn't an edge id.
+     */
+    private void checkEdge(int edge) throws IllegalArgumentException {
+
+        if (edge < 0 || edge >= edgeCount) {
+            throw new IllegalArgumentException("ERROR: Edge " + edge + " is out of range");
+        }
+    }
+
+
+    /**
+     * @param node A node.
+     * @throws IllegalArgumentException If {@code node} isn't a node.
+     */
+    private void checkNode(int node) throws IllegalArgumentException {
+
+        if (node < 0 || node >= nodeCount) {
+            throw new IllegalArgumentException("ERROR: Node " + node + " is out of range");
+        }
+    }
+
+
+    /**
+     * Appends an operation.
+     */
+    private void append(long op) {
+
+        if (opCount == ops.length) ops = Arrays.copyOf(ops, 2 * ops.length);
+        ops[opCount++] = op;
+        current.apply(op);
+    }
+
+
+    /**
+     * Discards everything recorded so far. Anything before a reset is never
+     * visible, so it doesn't need to be kept.
+     */
+    @Override
+    public void reset() {
+
+        ops = new long[64];
+        opCount = 0;
+        stepEnds = new int[16];
+        stepCount = 0;
+        keyframeSteps = new int[4];
+        keyframes = new TraceState[4];
+        keyframeCount = 0;
+        current = new TraceState(nodeCount, edgeCount);
+    }
+
+
+    @Override
+    public void visitEdge(int edge) {
+
+        checkEdge(edge);
+        append(encode(VISIT, FORWARD, edge));
+    }
+
+
+    @Override
+    public void visitEdge(int edge, int frontier) {
+
+        checkEdge(edge);
+        if (frontier != FORWARD && frontier != BACKWARD) {
+            throw new IllegalArgumentException("ERROR: Unknown frontier " + frontier);
+        }
+        append(encode(VISIT, frontier, edge));
+    }
+
+
+    @Override
+    public void unvisitEdge(int edge) {
+
+        checkEdge(edge);
+        append(encode(UNVISIT, 0, edge));
+    }
+
+
+    @Override
+    public void clearVisitedEdges() {
+
+        append(encode(CLEAR, 0, 0));
+    }
+
+
+    /**
+     * Records the predecessor of a node. {@link Algorithm#NO_NODE} removes it,
+     * and is played back as such.
+     *
+     * @throws IllegalArgumentException If either node is out of range.
+     */
+    @Override
+    public void setPredecessor(int node, int predecessor) {
+
+        checkNode(node);
+        if (predecessor == Algorithm.NO_NODE) {
+            append(encode(PREDECESSOR, node, NO_PREDECESSOR));
+            return;
+        }
+        checkNode(predecessor);
+        append(encode(PREDECESSOR, node, predecessor));
+    }
+
+
+    /**
+     * @throws IllegalArgumentException If {@code speedUp} is negative.
+     */
+    @Override
+    public void step(int speedUp) {
+
+        if (speedUp < 0) {
+            throw new IllegalArgumentException("ERROR: Speed-up can't be negative");
+        }
+        append(encode(STEP, 0, Math.min(speedUp, OPERAND_MASK)));
+        if (stepCount == stepEnds.length) {
+            stepEnds = Arrays.copyOf(stepEnds, 2 * stepEnds.length);
+        }
+        stepEnds[stepCount++] = opCount;
+
+        // Keyframes cost as much memory as the ops between them, at most
+        int lastKeyframeStep = keyframeCount == 0 ? 0 :
+                keyframeSteps[keyframeCount - 1];
+        if (stepCount - lastKeyframeStep >= Defs.KEYFRAME_INTERVAL
+                && opCount - stepEnd(lastKeyframeStep) >= current.words()) {
+            if (keyframeCount == keyframes.length) {
+                keyframes = Arrays.copyOf(keyframes, 2 * keyframeCount);
+                keyframeSteps = Arrays.copyOf(keyframeSteps, 2 * keyframeCount);
+            }
+            keyframeSteps[keyframeCount] = stepCount;
+            keyframes[keyframeCount++] = new TraceState(current);
+        }
+    }
+
+
+    /**
+     * @return Number of recorded steps.
+     */
+    public int stepCount() {
+
+        return stepCount;
+    }
+
+
+    /**
+     * @return Approximate size of this log, in longs.
+     */
+    public long words() {
+
+        long words = ops.length + stepEnds.length / 2 + keyframeSteps.length / 2;
+        for (int i = 0; i < keyframeCount; i++) words += keyframes[i].words();
+        return words + current.words();
+    }
+
+
+    /**
+     * @return Number of recorded operations.
+     */
+    int opCount() {
+
+        return opCount;
+    }
+
+
+    /**
+     * @param index Index of a recorded operation.
+     * @return The encoded operation.
+     */
+    long op(int index) {
+
+        return ops[index];
+    }
+
+
+    /**
+     * @param step A step, from 0 to {@link #stepCount()}.
+     * @return Index of the operation after the marker of the {@code step}th step.
+     */
+    private int stepEnd(int step) {
+
+        return step == 0 ? 0 : stepEnds[step - 1];
+    }
+
+
+    /**
+     * @param step A step, from 0 to {@link #stepCount()}.
+     * @return Index of the first operation after {@code step} steps. Operations
+     * recorded after the last step marker belong to the last step.
+     */
+    int opEnd(int step) {
+
+        if (step >= stepCount) return opCount;
+        return stepEnd(step);
+    }
+
+
+    /**
+     * Reconstructs the visible state after a number of steps, starting from
+     * the nearest keyframe at or before it.
+     *
+     * @param step  A step, from 0 to {@link #stepCount()}.
+     * @param state Overwritten with the state after {@code step} steps.
+     */
+    void stateAt(int step, TraceState state) {
+
+        // Find the last keyframe at or before step
+        int index = Arrays.binarySearch(keyframeSteps, 0, keyframeCount, step);
+        if (index < 0) index = -index - 2;
+
+        int from;
+        if (index < 0) {
+            state.clear();
+            from = 0;
+        } else {
+            state.set(keyframes[index]);
+            from = stepEnd(keyframeSteps[index]);
+        }
+        int to = opEnd(step);
+        for (int i = from; i < to; i++) state.apply(ops[i]);
+    }
+
+
+    /**
+     * @return A new empty state for the graph of this log.
+     */
+    TraceState newState() {
+
+        return new TraceState(nodeCount, edgeCount);
+    }
+}
@@ -0,0 +1,211 @@
+package main.java.util.trace;
+
+import main.java.util.algorithms.StepSink;
+import main.java.util.runner.PauseGate;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Plays a recorded {@link StepLog} into a {@link StepSink}, pausing between
+ * steps. All pacing happens here, so the recorded algorithm is never throttled.
+ * The playback position can be moved to any step, forwards or backwards, and
+ * the speed is read again before every step. An interrupt stops the playback.
+ *
+ * @author Ryan Albertson
+ */
+public class TracePlayer implements Runnable {
+
+    private final StepLog log;
+    private final StepSink target;
+    private final IntSupplier speed;
+    private final TraceState scratch;
+    private final Object lock;
+    private final PauseGate gate;
+    private int position;
+    private int opIndex;
+    private volatile boolean isAlive;
+    private volatile boolean stopped;
+
+
+    /**
+     * Constructs a {@link TracePlayer}.
+     *
+     * @param log    The {@link StepLog} to play.
+     * @param target Shows the played steps.
+     * @param speed  Supplies the milliseconds to show each step for.
+     */
+    public TracePlayer(StepLog log, StepSink target, IntSupplier speed) {
+
+        this.log = log;
+        this.target = target;
+        this.speed = speed;
+        scratch = log.newState();
+        lock = new Object();
+        gate = new PauseGate();
+        position = 0;
+        opIndex = 0;
+        isAlive = true;
+        stopped = false;
+    }
+
+
+    /**
+     * Applies the operations of the next step to the target.
+     *
+     * @return Milliseconds the step should be shown shorter than the speed.
+     */
+    private int playStep() {
+
+        while (opIndex < log.opCount()) {
+            long op = log.op(opIndex++);
+            switch (StepLog.opcode(op)) {
+                case StepLog.VISIT:
+                    if (StepLog.first(op) == StepSink.FORWARD) {
+                        target.visitEdge(StepLog.second(op));
+                    } else {
+                        target.visitEdge(StepLog.second(op), StepLog.first(op));
+                    }
+                    break;
+                case StepLog.UNVISIT:
+                    target.unvisitEdge(StepLog.second(op));
+                    break;
+                case StepLog.CLEAR:
+                    target.clearVisitedEdges();
+                    break;
+                case StepLog.PREDECESSOR:
+                    target.setPredecessor(StepLog.first(op), StepLog.predecessor(op));
+                    break;
+                case StepLog.STEP:
+                    position++;
+                    int speedUp = StepLog.second(op);
+                    target.step(speedUp);
+                    return speedUp;
+                default:
+                    break;
+            }
+        }
+        // Operations after the last step marker
+        position = log.stepCount();
+        target.step(StepSink.INSTANT);
+        return StepSink.INSTANT;
+    }
+
+
+    /**
+     * Moves playback to the state after a number of steps.
+     *
+     * @param step A step. It's clamped to the length of the log.
+     */
+    public void seek(int step) {
+
+        synchronized (lock) {
+            step = Math.max(0, Math.min(step, log.stepCount()));
+            log.stateAt(step, scratch);
+            scratch.copyTo(target);
+            position = step;
+            opIndex = log.opEnd(step);
+            target.step(StepSink.INSTANT);
+        }
+    }
+
+
+    /**
+     * @return Number of steps currently shown.
+     */
+    public int position() {
+
+        return position;
+    }
+
+
+    /**
+     * @return Number of steps in the log.
+     */
+    public int length() {
+
+        return log.stepCount();
+    }
+
+
+    /**
+     * @return True if playback is currently paused. False otherwise.
+     */
+    public boolean isPaused() {
+
+        return gate.isPaused();
+    }
+
+
+    /**
+     * Signals to pause the playback.
+     */
+    public void pause() {
+
+        gate.pause();
+    }
+
+
+    /**
+     * Signals to unpause the playback.
+     */
+    public void unPause() {
+
+        gate.resume();
+    }
+
+
+    /**
+     * Signals to stop the playback.
+     */
+    public void stop() {
+
+        stopped = true;
+        gate.close();
+    }
+
+
+    /**
+     * @return True if playback is live. False otherwise.
+     */
+    public boolean isAlive() {
+
+        return isAlive;
+    }
+
+
+    /**
+     * Plays the log from the start.
+     *
+     * @see Thread#run()
+     */
+    @Override
+    public void run() {
+
+        isAlive = true;
+        synchronized (lock) {
+            target.reset();
+            position = 0;
+            opIndex = 0;
+        }
+        while (true) {
+            int speedUp;
+            // Unpaced playback never waits, so an interrupt is only seen here
+            if (Thread.currentThread().isInterrupted()) stop();
+            try {
+                // Hold the playback while the user has paused it
+                gate.awaitResume();
+                synchronized (lock) {
+                    if (stopped || opIndex >= log.opCount()) break;
+                    speedUp = playStep();
+                }
+                gate.pace(speed.getAsInt() - speedUp);
+            } catch (InterruptedException e) {
+                stop();
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Clear the current animation
+        if (stopped) target.reset();
+        isAlive = false;
+    }
+}
@@ -0,0 +1,146 @@
+package main.java.util.trace;
+
+import main.java.util.algorithms.StepSink;
+
+import java.util.Arrays;
+
+/**
+ * The visible state of an algorithm at one point of a {@link StepLog}: which
+ * edges are visited and by which frontier, and the path predecessor of each
+ * node.
+ *
+ * @author Ryan Albertson
+ */
+final class TraceState {
+
+    private final long[] visited;
+
+    // Visited edges that the backward frontier visited
+    private final long[] backward;
+    private final int[] predecessors;
+
+
+    /**
+     * Constructs an empty {@link TraceState}.
+     *
+     * @param nodeCount Number of nodes in the graph.
+     * @param edgeCount Number of edges in the graph.
+     */
+    TraceState(int nodeCount, int edgeCount) {
+
+        visited = new long[(edgeCount + 63) >>> 6];
+        backward = new long[visited.length];
+        predecessors = new int[nodeCount];
+        Arrays.fill(predecessors, StepLog.NO_PREDECESSOR);
+    }
+
+
+    /**
+     * Constructs a copy of a {@link TraceState}.
+     *
+     * @param other State to copy.
+     */
+    TraceState(TraceState other) {
+
+        visited = other.visited.clone();
+        backward = other.backward.clone();
+        predecessors = other.predecessors.clone();
+    }
+
+
+    /**
+     * Overwrites this state with another one of the same graph.
+     *
+     * @param other State to copy.
+     */
+    void set(TraceState other) {
+
+        System.arraycopy(other.visited, 0, visited, 0, visited.length);
+        System.arraycopy(other.backward, 0, backward, 0, backward.length);
+        System.arraycopy(other.predecessors, 0, predecessors, 0,
+                predecessors.length);
+    }
+
+
+    /**
+     * Empties this state.
+     */
+    void clear() {
+
+        Arrays.fill(visited, 0L);
+        Arrays.fill(backward, 0L);
+        Arrays.fill(predecessors, StepLog.NO_PREDECESSOR);
+    }
+
+
+    /**
+     * @return Approximate size of this state, in longs.
+     */
+    int words() {
+
+        return 2 * visited.length + (predecessors.length >>> 1);
+    }
+
+
+    /**
+     * Applies one recorded operation to this state. Step markers are ignored.
+     *
+     * @param op An operation encoded by {@link StepLog}.
+     */
+    void apply(long op) {
+
+        switch (StepLog.opcode(op)) {
+            case StepLog.VISIT:
+                int edge = StepLog.second(op);
+                visited[edge >>> 6] |= 1L << edge;
+                if (StepLog.first(op) == StepSink.BACKWARD) {
+                    backward[edge >>> 6] |= 1L << edge;
+                } else {
+                    backward[edge >>> 6] &= ~(1L << edge);
+                }
+                break;
+            case StepLog.UNVISIT:
+                edge = StepLog.second(op);
+                visited[edge >>> 6] &= ~(1L << edge);
+                backward[edge >>> 6] &= ~(1L << edge);
+                break;
+            case StepLog.CLEAR:
+                Arrays.fill(visited, 0L);
+                Arrays.fill(backward, 0L);
+                break;
+            case StepLog.PREDECESSOR:
+                predecessors[StepLog.first(op)] = StepLog.second(op);
+                break;
+            default:
+                break;
+        }
+    }
+
+
+    /**
+     * Replaces everything shown by a {@link StepSink} with this state.
+     *
+     * @param sink The {@link StepSink} to update.
+     */
+    void copyTo(StepSink sink) {
+
+        sink.reset();
+        for (int word = 0; word < visited.length; word++) {
+            long bits = visited[word];
+            while (bits != 0) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                if ((backward[word] & 1L << bit) != 0) {
+                    sink.visitEdge((word << 6) + bit, StepSink.BACKWARD);
+                } else {
+                    sink.visitEdge((word << 6) + bit);
+                }
+                bits &= bits - 1;
+            }
+        }
+        for (int node = 0; node < predecessors.length; node++) {
+            if (predecessors[node] != StepLog.NO_PREDECESSOR) {
+                sink.setPredecessor(node, predecessors[node]);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package main.java;
+
+import main.java.util.graph.CSRGraph;
+import main.java.util.structures.UnionFind;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link GraphGenerator#generate}.
+ *
+ * @author Ryan Albertson
+ */
+public class GraphGeneratorTest {
+
+    @Test
+    public void seedGeneratesSameGraphWhateverTheParallelism() {
+
+        // Several splits of 4096 nodes, the last one partial
+        int nodeCount = 3 * 4096 + 100;
+        CSRGraph expected = generate(nodeCount, 0, 61, 1);
+        for (int parallelism : new int[]{2, 7}) {
+            assertSameGraph(expected, generate(nodeCount, 0, 61, parallelism));
+        }
+        // Dense enough to need several rounds of candidates
+        expected = generate(300, 40000, 62, 1);
+        assertSameGraph(expected, generate(300, 40000, 62, 7));
+    }
+
+
+    @Test
+    public void seedsGenerateDifferentGraphs() {
+
+        CSRGraph graph = GraphGenerator.generate(500, 0, 63);
+        CSRGraph other = GraphGenerator.generate(500, 0, 64);
+        assertEquals(graph.edgeCount(), other.edgeCount());
+        boolean isDifferent = false;
+        for (int edge = 0; edge < graph.edgeCount() && !isDifferent; edge++) {
+            isDifferent = graph.edgeSource(edge) != other.edgeSource(edge)
+                    || graph.edgeTarget(edge) != other.edgeTarget(edge);
+        }
+        assertTrue(isDifferent);
+    }
+
+
+    @Test
+    public void generatesConnectedSimpleGraphs() {
+
+        assertConnectedSimpleGraph(GraphGenerator.generate(5000, 0, 65), 5000, 0);
+        assertConnectedSimpleGraph(GraphGenerator.generate(200, 1000, 66), 200, 1000);
+        // Asking for more edges than node pairs gives a complete graph
+        CSRGraph complete = GraphGenerator.generate(30, 1000, 67);
+        assertConnectedSimpleGraph(complete, 30, 30 * 29 / 2);
+        assertEquals(30 * 29 / 2, complete.edgeCount());
+        assertConnectedSimpleGraph(GraphGenerator.generate(1, 0, 68), 1, 0);
+    }
+
+
+    /**
+     * Asserts that a graph has {@code nodeCount} nodes, at least
+     * {@code minEdgeCount} edges, is connected, and has no loops or duplicate
+     * edges.
+     */
+    private static void assertConnectedSimpleGraph(CSRGraph graph, int nodeCount,
+                                                   int minEdgeCount) {
+
+        assertEquals(nodeCount, graph.nodeCount());
+        assertTrue(graph.edgeCount() >= minEdgeCount);
+        UnionFind components = new UnionFind(nodeCount);
+        Set<Long> edges = new HashSet<>();
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            int source = graph.edgeSource(edge);
+            int target = graph.edgeTarget(edge);
+            assertNotEquals(source, target);
+            assertTrue(edges.add((long) Math.min(source, target) << 32
+                    | Math.max(source, target)));
+            assertEquals(Math.hypot(graph.x(source) - graph.x(target),
+                    graph.y(source) - graph.y(target)), graph.edgeWeight(edge), 0.0);
+            components.union(source, target);
+        }
+        assertEquals(1, components.setCount());
+    }
+
+
+    private static CSRGraph generate(int nodeCount, int minEdgeCount, long seed,
+                                     int parallelism) {
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return GraphGenerator.generate(nodeCount, minEdgeCount, seed, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+
+    /**
+     * Asserts that two graphs are the same, bit for bit.
+     */
+    private static void assertSameGraph(CSRGraph expected, CSRGraph actual) {
+
+        assertEquals(expected.nodeCount(), actual.nodeCount());
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+        for (int node = 0; node < expected.nodeCount(); node++) {
+            assertEquals(Double.doubleToRawLongBits(expected.x(node)),
+                    Double.doubleToRawLongBits(actual.x(node)));
+            assertEquals(Double.doubleToRawLongBits(expected.y(node)),
+                    Double.doubleToRawLongBits(actual.y(node)));
+        }
+        for (int edge = 0; edge < expected.edgeCount(); edge++) {
+            assertEquals(expected.edgeSource(edge), actual.edgeSource(edge));
+            assertEquals(expected.edgeTarget(edge), actual.edgeTarget(edge));
+            assertEquals(Double.doubleToRawLongBits(expected.edgeWeight(edge)),
+                    Double.doubleToRawLongBits(actual.edgeWeight(edge)));
+        }
+        for (int arc = 0; arc < 2 * expected.edgeCount(); arc++) {
+            assertEquals(expected.arcTarget(arc), actual.arcTarget(arc));
+            assertEquals(expected.arcEdge(arc), actual.arcEdge(arc));
+        }
+    }
+}
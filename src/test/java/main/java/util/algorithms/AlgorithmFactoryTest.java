@@ -0,0 +1,63 @@
+package main.java.util.algorithms;
+
+import main.java.GraphGenerator;
+import main.java.util.Defs;
+import main.java.util.graph.CSRGraph;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that every algorithm of {@link Defs#algNames} runs headlessly, as the
+ * benchmarks run them.
+ *
+ * @author Ryan Albertson
+ */
+public class AlgorithmFactoryTest {
+
+    @Test
+    public void runsEveryAlgorithmToCompletion() {
+
+        CSRGraph graph = GraphGenerator.generate(60, 150, 42);
+        for (String algName : Defs.algNames) {
+            CountingSink sink = new CountingSink();
+            Algorithm algorithm = AlgorithmFactory.create(algName, graph, sink, 0, 59);
+            algorithm.run();
+            assertFalse(algName, algorithm.isAlive());
+            assertFalse(algName, algorithm.wasStopped());
+            assertTrue(algName, sink.getSteps() > 0);
+        }
+    }
+
+
+    @Test
+    public void stoppedAlgorithmEndsEarly() {
+
+        CSRGraph graph = GraphGenerator.generate(60, 150, 42);
+        for (String algName : Defs.algNames) {
+            CountingSink sink = new CountingSink();
+            Algorithm algorithm = AlgorithmFactory.create(algName, graph, sink, 0, 59);
+            algorithm.stop();
+            algorithm.run();
+            assertFalse(algName, algorithm.isAlive());
+            assertTrue(algName, algorithm.wasStopped());
+        }
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownAlgorithm() {
+
+        AlgorithmFactory.create("Quicksort", GraphGenerator.generate(10, 0, 1),
+                new CountingSink(), 0, 1);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNullSink() {
+
+        AlgorithmFactory.create("Dijkstra", GraphGenerator.generate(10, 0, 1), null,
+                0, 1);
+    }
+}
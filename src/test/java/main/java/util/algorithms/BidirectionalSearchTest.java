@@ -0,0 +1,66 @@
+package main.java.util.algorithms;
+
+import main.java.GraphGenerator;
+import main.java.util.graph.CSRGraph;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests {@link BidirectionalDijkstra} and {@link BidirectionalA_Star} against
+ * {@link Dijkstra}.
+ *
+ * @author Ryan Albertson
+ */
+public class BidirectionalSearchTest {
+
+    @Test
+    public void bidirectionalDijkstraFindsShortestPaths() {
+
+        for (long seed = 1; seed <= 3; seed++) {
+            CSRGraph graph = GraphGenerator.generate(2000, 5000, seed);
+            SplittableRandom rand = new SplittableRandom(seed);
+            for (int i = 0; i < 10; i++) {
+                int sourceNode = rand.nextInt(graph.nodeCount());
+                int targetNode = rand.nextInt(graph.nodeCount());
+                RecordingSink sink = new RecordingSink(graph);
+                new BidirectionalDijkstra(graph, sink, sourceNode, targetNode).run();
+                assertEquals(RecordingSink.dijkstraWeight(graph, sourceNode, targetNode),
+                        sink.pathWeight(sourceNode, targetNode), 1e-6);
+            }
+        }
+    }
+
+
+    @Test
+    public void bidirectionalA_StarFindsShortestPaths() {
+
+        for (long seed = 1; seed <= 3; seed++) {
+            CSRGraph graph = GraphGenerator.generate(2000, 5000, seed);
+            SplittableRandom rand = new SplittableRandom(seed);
+            for (int i = 0; i < 10; i++) {
+                int sourceNode = rand.nextInt(graph.nodeCount());
+                int targetNode = rand.nextInt(graph.nodeCount());
+                RecordingSink sink = new RecordingSink(graph);
+                new BidirectionalA_Star(graph, sink, sourceNode, targetNode).run();
+                assertEquals(RecordingSink.dijkstraWeight(graph, sourceNode, targetNode),
+                        sink.pathWeight(sourceNode, targetNode), 1e-6);
+            }
+        }
+    }
+
+
+    @Test
+    public void findsPathBetweenAdjacentNodes() {
+
+        CSRGraph graph = GraphGenerator.generate(50, 0, 4);
+        int sourceNode = graph.edgeSource(0);
+        int targetNode = graph.edgeTarget(0);
+        RecordingSink sink = new RecordingSink(graph);
+        new BidirectionalDijkstra(graph, sink, sourceNode, targetNode).run();
+        assertEquals(RecordingSink.dijkstraWeight(graph, sourceNode, targetNode),
+                sink.pathWeight(sourceNode, targetNode), 1e-6);
+    }
+}
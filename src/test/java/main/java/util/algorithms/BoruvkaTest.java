@@ -0,0 +1,64 @@
+package main.java.util.algorithms;
+
+import main.java.GraphGenerator;
+import main.java.util.graph.CSRGraph;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests {@link Boruvka} against {@link Kruskal}.
+ *
+ * @author Ryan Albertson
+ */
+public class BoruvkaTest {
+
+    @Test
+    public void findsKruskalsTree() {
+
+        for (long seed = 1; seed <= 3; seed++) {
+            assertSameTree(GraphGenerator.generate(3000, 12000, seed));
+        }
+    }
+
+
+    @Test
+    public void breaksTiesLikeKruskal() {
+
+        // Few distinct weights, so most edges tie with others
+        CSRGraph graph = GraphGenerator.generate(2000, 8000, 5);
+        int[] sources = new int[graph.edgeCount()];
+        int[] targets = new int[graph.edgeCount()];
+        double[] weights = new double[graph.edgeCount()];
+        SplittableRandom rand = new SplittableRandom(5);
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            sources[edge] = graph.edgeSource(edge);
+            targets[edge] = graph.edgeTarget(edge);
+            weights[edge] = 1 + rand.nextInt(4);
+        }
+        double[] nodeX = new double[graph.nodeCount()];
+        double[] nodeY = new double[graph.nodeCount()];
+        assertSameTree(CSRGraph.fromEdges(graph.nodeCount(), sources, targets, weights,
+                nodeX, nodeY));
+    }
+
+
+    /**
+     * Asserts that Boruvka and plain Kruskal pick the same spanning tree.
+     */
+    private static void assertSameTree(CSRGraph graph) {
+
+        RecordingSink kruskal = new RecordingSink(graph);
+        new Kruskal(graph, kruskal, false).run();
+        RecordingSink boruvka = new RecordingSink(graph);
+        new Boruvka(graph, boruvka).run();
+
+        assertEquals(graph.nodeCount() - 1, boruvka.visitedCount());
+        assertEquals(kruskal.visitedWeight(), boruvka.visitedWeight(), 1e-6);
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            assertEquals("edge " + edge, kruskal.isVisited(edge), boruvka.isVisited(edge));
+        }
+    }
+}
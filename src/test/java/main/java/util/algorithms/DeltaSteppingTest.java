@@ -0,0 +1,116 @@
+package main.java.util.algorithms;
+
+import main.java.GraphGenerator;
+import main.java.util.graph.CSRGraph;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link DeltaStepping} against {@link Dijkstra}.
+ *
+ * @author Ryan Albertson
+ */
+public class DeltaSteppingTest {
+
+    @Test
+    public void findsShortestPathsWithDefaultDelta() {
+
+        for (long seed = 1; seed <= 3; seed++) {
+            CSRGraph graph = GraphGenerator.generate(2000, 6000, seed);
+            SplittableRandom rand = new SplittableRandom(seed);
+            for (int i = 0; i < 5; i++) {
+                int sourceNode = rand.nextInt(graph.nodeCount());
+                int targetNode = rand.nextInt(graph.nodeCount());
+                RecordingSink sink = new RecordingSink(graph);
+                new DeltaStepping(graph, sink, sourceNode, targetNode).run();
+                assertEquals(RecordingSink.dijkstraWeight(graph, sourceNode, targetNode),
+                        sink.pathWeight(sourceNode, targetNode), 1e-6);
+            }
+        }
+    }
+
+
+    @Test
+    public void findsShortestPathsWithAnyDelta() {
+
+        CSRGraph graph = GraphGenerator.generate(1000, 4000, 9);
+        double expected = RecordingSink.dijkstraWeight(graph, 3, 997);
+        for (double delta : new double[]{1.0, 25.0, 400.0, 1e6}) {
+            RecordingSink sink = new RecordingSink(graph);
+            new DeltaStepping(graph, sink, 3, 997, delta).run();
+            assertEquals("delta " + delta, expected, sink.pathWeight(3, 997), 1e-6);
+        }
+    }
+
+
+    @Test
+    public void zeroWeightEdgesLeaveNoPredecessorCycle() {
+
+        // Zero-weight edges from the source, and a zero-weight triangle, as
+        // nodes on shared pixels or imported graphs give
+        int[] sources = {0, 0, 1, 2, 3, 3, 4, 5, 2};
+        int[] targets = {1, 2, 3, 3, 4, 5, 5, 6, 6};
+        double[] weights = {0, 0, 4, 0, 0, 0, 0, 1, 7};
+        double[] nodeX = new double[7];
+        double[] nodeY = new double[7];
+        CSRGraph graph = CSRGraph.fromEdges(7, sources, targets, weights, nodeX, nodeY);
+        for (int sourceNode = 0; sourceNode < graph.nodeCount(); sourceNode++) {
+            for (double delta : new double[]{0.5, 1.0, 10.0}) {
+                RecordingSink sink = new RecordingSink(graph);
+                new DeltaStepping(graph, sink, sourceNode, Algorithm.NO_NODE, delta).run();
+                assertAcyclic(graph, sink, sourceNode);
+            }
+        }
+
+        // Generated graphs with whole-number weights, so many are zero or tie
+        SplittableRandom rand = new SplittableRandom(7);
+        CSRGraph generated = GraphGenerator.generate(1500, 4500, 7);
+        double[] roundedWeights = new double[generated.edgeCount()];
+        int[] edgeSources = new int[generated.edgeCount()];
+        int[] edgeTargets = new int[generated.edgeCount()];
+        for (int edge = 0; edge < generated.edgeCount(); edge++) {
+            edgeSources[edge] = generated.edgeSource(edge);
+            edgeTargets[edge] = generated.edgeTarget(edge);
+            roundedWeights[edge] = rand.nextInt(3);
+        }
+        graph = CSRGraph.fromEdges(generated.nodeCount(), edgeSources, edgeTargets,
+                roundedWeights, new double[generated.nodeCount()],
+                new double[generated.nodeCount()]);
+        for (int i = 0; i < 5; i++) {
+            int sourceNode = rand.nextInt(graph.nodeCount());
+            int targetNode = rand.nextInt(graph.nodeCount());
+            RecordingSink sink = new RecordingSink(graph);
+            new DeltaStepping(graph, sink, sourceNode, targetNode).run();
+            assertAcyclic(graph, sink, sourceNode);
+            assertEquals(RecordingSink.dijkstraWeight(graph, sourceNode, targetNode),
+                    sink.pathWeight(sourceNode, targetNode), 1e-6);
+        }
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveDelta() {
+
+        new DeltaStepping(GraphGenerator.generate(10, 0, 1), new CountingSink(), 0,
+                1, 0.0);
+    }
+
+
+    /**
+     * Asserts that the source has no predecessor, and that the predecessors
+     * of every other node lead back to it.
+     */
+    private static void assertAcyclic(CSRGraph graph, RecordingSink sink, int sourceNode) {
+
+        assertEquals(Algorithm.NO_NODE, sink.predecessor(sourceNode));
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            if (sink.predecessor(node) == Algorithm.NO_NODE) continue;
+            assertTrue("node " + node, sink.pathWeight(sourceNode, node)
+                    < Double.POSITIVE_INFINITY);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package main.java.util.algorithms;
+
+import main.java.GraphGenerator;
+import main.java.util.graph.CSRGraph;
+import main.java.util.structures.UnionFind;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link Prim}, {@link Kruskal} in both modes and {@link ReverseDelete}
+ * against a simple quadratic Prim.
+ *
+ * @author Ryan Albertson
+ */
+public class MinimumSpanningTreeTest {
+
+    @Test
+    public void plainKruskalFindsMinimumTree() {
+
+        for (long seed = 1; seed <= 3; seed++) {
+            CSRGraph graph = GraphGenerator.generate(1500, 15000, seed);
+            RecordingSink sink = new RecordingSink(graph);
+            new Kruskal(graph, sink, false).run();
+            assertMinimumTree(graph, sink);
+        }
+    }
+
+
+    @Test
+    public void filterKruskalFindsPlainKruskalsTree() {
+
+        for (long seed = 1; seed <= 3; seed++) {
+            CSRGraph graph = GraphGenerator.generate(1500, 15000, seed);
+            RecordingSink plain = new RecordingSink(graph);
+            new Kruskal(graph, plain, false).run();
+            RecordingSink filtered = new RecordingSink(graph);
+            new Kruskal(graph, filtered, true).run();
+            assertMinimumTree(graph, filtered);
+            for (int edge = 0; edge < graph.edgeCount(); edge++) {
+                assertEquals("edge " + edge, plain.isVisited(edge), filtered.isVisited(edge));
+            }
+        }
+    }
+
+
+    @Test
+    public void primFindsMinimumTree() {
+
+        for (long seed = 1; seed <= 3; seed++) {
+            CSRGraph graph = GraphGenerator.generate(1500, 15000, seed);
+            RecordingSink sink = new RecordingSink(graph);
+            new Prim(graph, sink).run();
+            assertMinimumTree(graph, sink);
+        }
+    }
+
+
+    @Test
+    public void reverseDeleteFindsMinimumTree() {
+
+        for (long seed = 1; seed <= 3; seed++) {
+            CSRGraph graph = GraphGenerator.generate(1500, 15000, seed);
+            RecordingSink sink = new RecordingSink(graph);
+            new ReverseDelete(graph, sink).run();
+            assertMinimumTree(graph, sink);
+        }
+    }
+
+
+    /**
+     * Asserts that the edges left visited in {@code sink} are a spanning tree
+     * as light as a minimum spanning tree.
+     */
+    private static void assertMinimumTree(CSRGraph graph, RecordingSink sink) {
+
+        assertEquals(graph.nodeCount() - 1, sink.visitedCount());
+        UnionFind components = new UnionFind(graph.nodeCount());
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            if (sink.isVisited(edge)) {
+                assertTrue("cycle at edge " + edge,
+                        components.union(graph.edgeSource(edge), graph.edgeTarget(edge)));
+            }
+        }
+        assertEquals(minimumWeight(graph), sink.visitedWeight(), 1e-6);
+    }
+
+
+    /**
+     * @return Weight of a minimum spanning tree of a connected graph, found
+     * with Prim's algorithm on an array in O(V^2) time.
+     */
+    private static double minimumWeight(CSRGraph graph) {
+
+        double[] distance = new double[graph.nodeCount()];
+        boolean[] isInTree = new boolean[graph.nodeCount()];
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        distance[0] = 0.0;
+        double weight = 0.0;
+        for (int i = 0; i < graph.nodeCount(); i++) {
+            int nearest = -1;
+            for (int node = 0; node < graph.nodeCount(); node++) {
+                if (!isInTree[node] && (nearest == -1 || distance[node] < distance[nearest])) {
+                    nearest = node;
+                }
+            }
+            isInTree[nearest] = true;
+            weight += distance[nearest];
+            for (int arc = graph.firstArc(nearest); arc < graph.endArc(nearest); arc++) {
+                int adjNode = graph.arcTarget(arc);
+                if (!isInTree[adjNode]) {
+                    distance[adjNode] = Math.min(distance[adjNode], graph.arcWeight(arc));
+                }
+            }
+        }
+        return weight;
+    }
+}
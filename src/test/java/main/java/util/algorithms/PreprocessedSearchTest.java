@@ -0,0 +1,61 @@
+package main.java.util.algorithms;
+
+import main.java.GraphGenerator;
+import main.java.util.graph.CSRGraph;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the searches that preprocess their graph, {@link A_Star} in ALT mode
+ * and {@link ContractionHierarchies}, and plain {@link A_Star}, against
+ * {@link Dijkstra}.
+ *
+ * @author Ryan Albertson
+ */
+public class PreprocessedSearchTest {
+
+    @Test
+    public void a_StarFindsShortestPaths() {
+
+        assertShortestPaths("A*", 1500);
+    }
+
+
+    @Test
+    public void altFindsShortestPaths() {
+
+        assertShortestPaths("A* (ALT)", 1500);
+    }
+
+
+    @Test
+    public void contractionHierarchiesFindShortestPaths() {
+
+        // Contraction is slow, so the hierarchies are built on smaller graphs
+        assertShortestPaths("Contraction Hierarchies", 400);
+    }
+
+
+    /**
+     * Asserts that an algorithm finds paths as short as Dijkstra's between
+     * random node pairs of seeded graphs.
+     */
+    private static void assertShortestPaths(String algName, int nodeCount) {
+
+        for (long seed = 1; seed <= 3; seed++) {
+            CSRGraph graph = GraphGenerator.generate(nodeCount, 0, seed);
+            SplittableRandom rand = new SplittableRandom(seed);
+            for (int i = 0; i < 10; i++) {
+                int sourceNode = rand.nextInt(graph.nodeCount());
+                int targetNode = rand.nextInt(graph.nodeCount());
+                RecordingSink sink = new RecordingSink(graph);
+                AlgorithmFactory.create(algName, graph, sink, sourceNode, targetNode).run();
+                assertEquals(algName, RecordingSink.dijkstraWeight(graph, sourceNode,
+                        targetNode), sink.pathWeight(sourceNode, targetNode), 1e-6);
+            }
+        }
+    }
+}
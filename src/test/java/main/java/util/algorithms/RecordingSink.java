@@ -0,0 +1,154 @@
+package main.java.util.algorithms;
+
+import main.java.util.graph.IndexedGraph;
+
+import java.util.Arrays;
+
+/**
+ * A {@link StepSink} for tests that keeps the visited edges and path
+ * predecessors an {@link Algorithm} ended with.
+ *
+ * @author Ryan Albertson
+ */
+final class RecordingSink implements StepSink {
+
+    private final IndexedGraph graph;
+    private final boolean[] isVisited;
+    private final int[] predecessors;
+
+
+    /**
+     * @param graph The graph the algorithm runs on.
+     */
+    RecordingSink(IndexedGraph graph) {
+
+        this.graph = graph;
+        isVisited = new boolean[graph.edgeCount()];
+        predecessors = new int[graph.nodeCount()];
+        reset();
+    }
+
+
+    @Override
+    public void reset() {
+
+        Arrays.fill(isVisited, false);
+        Arrays.fill(predecessors, Algorithm.NO_NODE);
+    }
+
+
+    @Override
+    public void visitEdge(int edge) {
+
+        isVisited[edge] = true;
+    }
+
+
+    @Override
+    public void unvisitEdge(int edge) {
+
+        isVisited[edge] = false;
+    }
+
+
+    @Override
+    public void clearVisitedEdges() {
+
+        Arrays.fill(isVisited, false);
+    }
+
+
+    @Override
+    public void setPredecessor(int node, int predecessor) {
+
+        predecessors[node] = predecessor;
+    }
+
+
+    @Override
+    public void step(int speedUp) {
+
+    }
+
+
+    /**
+     * @return True if {@code edge} was left visited. False otherwise.
+     */
+    boolean isVisited(int edge) {
+
+        return isVisited[edge];
+    }
+
+
+    /**
+     * @return Predecessor that {@code node} was left with, or
+     * {@link Algorithm#NO_NODE}.
+     */
+    int predecessor(int node) {
+
+        return predecessors[node];
+    }
+
+
+    /**
+     * @return Number of edges left visited.
+     */
+    int visitedCount() {
+
+        int count = 0;
+        for (boolean visited : isVisited) {
+            if (visited) count++;
+        }
+        return count;
+    }
+
+
+    /**
+     * @return Total weight of the edges left visited.
+     */
+    double visitedWeight() {
+
+        double weight = 0.0;
+        for (int edge = 0; edge < isVisited.length; edge++) {
+            if (isVisited[edge]) weight += graph.edgeWeight(edge);
+        }
+        return weight;
+    }
+
+
+    /**
+     * Follows the predecessors from the target back to the source.
+     *
+     * @return Weight of the path, using the lightest edge between each pair of
+     * nodes, or infinity if the predecessors don't lead to the source.
+     */
+    double pathWeight(int sourceNode, int targetNode) {
+
+        double weight = 0.0;
+        int node = targetNode;
+        for (int i = 0; i < graph.nodeCount() && node != sourceNode; i++) {
+            int prevNode = predecessors[node];
+            if (prevNode == Algorithm.NO_NODE) return Double.POSITIVE_INFINITY;
+            double edgeWeight = Double.POSITIVE_INFINITY;
+            for (int arc = graph.firstArc(node); arc < graph.endArc(node); arc++) {
+                if (graph.arcTarget(arc) == prevNode) {
+                    edgeWeight = Math.min(edgeWeight, graph.arcWeight(arc));
+                }
+            }
+            weight += edgeWeight;
+            node = prevNode;
+        }
+        return node == sourceNode ? weight : Double.POSITIVE_INFINITY;
+    }
+
+
+    /**
+     * @return Weight of the shortest path that {@link Dijkstra} finds.
+     */
+    static double dijkstraWeight(IndexedGraph graph, int sourceNode, int targetNode) {
+
+        RecordingSink sink = new RecordingSink(graph);
+        new Dijkstra(graph, sink, sourceNode, targetNode).run();
+        return sink.pathWeight(sourceNode, targetNode);
+    }
+}
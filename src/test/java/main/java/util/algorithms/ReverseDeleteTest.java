@@ -0,0 +1,174 @@
+package main.java.util.algorithms;
+
+import main.java.GraphGenerator;
+import main.java.util.graph.CSRGraph;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link ReverseDelete} against {@link Kruskal}, and the order it deletes
+ * edges in.
+ *
+ * @author Ryan Albertson
+ */
+public class ReverseDeleteTest {
+
+    @Test
+    public void keepsKruskalsTree() {
+
+        for (long seed = 1; seed <= 3; seed++) {
+            assertSameTree(GraphGenerator.generate(2000, 8000, seed));
+        }
+    }
+
+
+    @Test
+    public void breaksTiesLikeKruskal() {
+
+        // Few distinct weights, so most edges tie with others
+        assertSameTree(withWeights(GraphGenerator.generate(2000, 8000, 5),
+                new SplittableRandom(5), 4));
+    }
+
+
+    @Test
+    public void deletesHeaviestEdgesFirst() {
+
+        CSRGraph graph = withWeights(GraphGenerator.generate(1000, 5000, 6),
+                new SplittableRandom(6), 5);
+        OrderSink sink = new OrderSink(graph);
+        new ReverseDelete(graph, sink).run();
+
+        assertEquals(graph.edgeCount() - graph.nodeCount() + 1, sink.deleted.size());
+        for (int i = 1; i < sink.deleted.size(); i++) {
+            int prevEdge = sink.deleted.get(i - 1);
+            int edge = sink.deleted.get(i);
+            double prevWeight = graph.edgeWeight(prevEdge);
+            double weight = graph.edgeWeight(edge);
+            // Equally heavy edges go in decreasing id order
+            assertTrue("edge " + edge, prevWeight > weight
+                    || (prevWeight == weight && prevEdge > edge));
+        }
+    }
+
+
+    @Test
+    public void deletesNothingFromDisconnectedGraph() {
+
+        // Two triangles with no edge between them
+        int[] sources = {0, 1, 2, 3, 4, 5};
+        int[] targets = {1, 2, 0, 4, 5, 3};
+        double[] weights = {1, 2, 3, 1, 2, 3};
+        CSRGraph graph = CSRGraph.fromEdges(6, sources, targets, weights,
+                new double[6], new double[6]);
+        OrderSink sink = new OrderSink(graph);
+        new ReverseDelete(graph, sink).run();
+
+        assertTrue(sink.deleted.isEmpty());
+        assertEquals(graph.edgeCount(), sink.visited.visitedCount());
+    }
+
+
+    /**
+     * Asserts that Reverse Delete and plain Kruskal keep the same spanning tree.
+     */
+    private static void assertSameTree(CSRGraph graph) {
+
+        RecordingSink kruskal = new RecordingSink(graph);
+        new Kruskal(graph, kruskal, false).run();
+        RecordingSink reverseDelete = new RecordingSink(graph);
+        new ReverseDelete(graph, reverseDelete).run();
+
+        assertEquals(graph.nodeCount() - 1, reverseDelete.visitedCount());
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            assertEquals("edge " + edge, kruskal.isVisited(edge),
+                    reverseDelete.isVisited(edge));
+        }
+    }
+
+
+    /**
+     * @return {@code graph} with whole-number weights from 1 to
+     * {@code maxWeight}, so most edges tie with others.
+     */
+    private static CSRGraph withWeights(CSRGraph graph, SplittableRandom rand,
+                                        int maxWeight) {
+
+        int[] sources = new int[graph.edgeCount()];
+        int[] targets = new int[graph.edgeCount()];
+        double[] weights = new double[graph.edgeCount()];
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            sources[edge] = graph.edgeSource(edge);
+            targets[edge] = graph.edgeTarget(edge);
+            weights[edge] = 1 + rand.nextInt(maxWeight);
+        }
+        return CSRGraph.fromEdges(graph.nodeCount(), sources, targets, weights,
+                new double[graph.nodeCount()], new double[graph.nodeCount()]);
+    }
+
+
+    /**
+     * A {@link StepSink} that records the order edges are unvisited in.
+     */
+    private static final class OrderSink implements StepSink {
+
+        private final RecordingSink visited;
+        private final List<Integer> deleted = new ArrayList<>();
+
+
+        private OrderSink(CSRGraph graph) {
+
+            visited = new RecordingSink(graph);
+        }
+
+
+        @Override
+        public void reset() {
+
+            visited.reset();
+            deleted.clear();
+        }
+
+
+        @Override
+        public void visitEdge(int edge) {
+
+            visited.visitEdge(edge);
+        }
+
+
+        @Override
+        public void unvisitEdge(int edge) {
+
+            visited.unvisitEdge(edge);
+            deleted.add(edge);
+        }
+
+
+        @Override
+        public void clearVisitedEdges() {
+
+            visited.clearVisitedEdges();
+        }
+
+
+        @Override
+        public void setPredecessor(int node, int predecessor) {
+
+            visited.setPredecessor(node, predecessor);
+        }
+
+
+        @Override
+        public void step(int speedUp) {
+
+            visited.step(speedUp);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package main.java.util.apsp;
+
+import main.java.GraphGenerator;
+import main.java.util.graph.CSRGraph;
+import main.java.util.graph.IndexedGraph;
+import main.java.util.paths.ShortestPathTree;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests {@link ParallelJohnson} and {@link BlockedFloydWarshall} against
+ * shortest path trees of every node.
+ *
+ * @author Ryan Albertson
+ */
+public class AllPairsTest {
+
+    @Test
+    public void johnsonFindsAllShortestPaths() {
+
+        CSRGraph graph = GraphGenerator.generate(300, 0, 21);
+        assertAllShortestPaths(graph, new ParallelJohnson().compute(graph));
+    }
+
+
+    @Test
+    public void johnsonIsIndependentOfParallelism() {
+
+        CSRGraph graph = GraphGenerator.generate(300, 0, 22);
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            assertAllShortestPaths(graph, new ParallelJohnson(pool).compute(graph));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+
+    @Test
+    public void blockedFloydWarshallFindsAllShortestPaths() {
+
+        // Not a multiple of the tile size, so the last tiles are partial
+        CSRGraph graph = GraphGenerator.generate(150, 400, 23);
+        assertAllShortestPaths(graph, new BlockedFloydWarshall().compute(graph));
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            assertAllShortestPaths(graph, new BlockedFloydWarshall(pool, 16).compute(graph));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+
+    @Test
+    public void bothEnginesGiveAcyclicPathsOverZeroWeightEdges() {
+
+        // Weights 0 to 2, so many paths are equally short, as with nodes on
+        // the same pixel or in imported files
+        for (long seed = 1; seed <= 200; seed++) {
+            SplittableRandom rand = new SplittableRandom(seed);
+            CSRGraph generated = GraphGenerator.generate(4 + rand.nextInt(12),
+                    rand.nextInt(30), seed);
+            int[] sources = new int[generated.edgeCount()];
+            int[] targets = new int[generated.edgeCount()];
+            double[] weights = new double[generated.edgeCount()];
+            for (int edge = 0; edge < generated.edgeCount(); edge++) {
+                sources[edge] = generated.edgeSource(edge);
+                targets[edge] = generated.edgeTarget(edge);
+                weights[edge] = rand.nextInt(3);
+            }
+            CSRGraph graph = CSRGraph.fromEdges(generated.nodeCount(), sources, targets,
+                    weights, new double[generated.nodeCount()],
+                    new double[generated.nodeCount()]);
+            assertAllShortestPaths(graph, new ParallelJohnson().compute(graph));
+            assertAllShortestPaths(graph, new BlockedFloydWarshall().compute(graph));
+        }
+    }
+
+
+    /**
+     * Asserts that every distance of {@code matrix} is the shortest, and that
+     * every path it gives is as long as that distance.
+     */
+    private static void assertAllShortestPaths(IndexedGraph graph, DistanceMatrix matrix) {
+
+        assertEquals(graph.nodeCount(), matrix.nodeCount());
+        for (int sourceNode = 0; sourceNode < graph.nodeCount(); sourceNode++) {
+            ShortestPathTree tree = ShortestPathTree.compute(graph, sourceNode);
+            for (int targetNode = 0; targetNode < graph.nodeCount(); targetNode++) {
+                double distance = tree.distance(targetNode);
+                assertEquals(distance, matrix.distance(sourceNode, targetNode), 1e-6);
+                int[] path = matrix.path(sourceNode, targetNode);
+                assertEquals(sourceNode, path[0]);
+                assertEquals(targetNode, path[path.length - 1]);
+                assertEquals(distance, pathWeight(graph, path), 1e-6);
+            }
+        }
+    }
+
+
+    /**
+     * @return Weight of a path, using the lightest edge between each pair of
+     * nodes.
+     */
+    private static double pathWeight(IndexedGraph graph, int[] path) {
+
+        double weight = 0.0;
+        for (int i = 1; i < path.length; i++) {
+            double edgeWeight = Double.POSITIVE_INFINITY;
+            for (int arc = graph.firstArc(path[i - 1]); arc < graph.endArc(path[i - 1]);
+                 arc++) {
+                if (graph.arcTarget(arc) == path[i]) {
+                    edgeWeight = Math.min(edgeWeight, graph.arcWeight(arc));
+                }
+            }
+            weight += edgeWeight;
+        }
+        return weight;
+    }
+}
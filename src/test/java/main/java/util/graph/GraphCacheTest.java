@@ -0,0 +1,98 @@
+package main.java.util.graph;
+
+import main.java.GraphGenerator;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests {@link GraphCache}.
+ *
+ * @author Ryan Albertson
+ */
+public class GraphCacheTest {
+
+    @Test
+    public void computesOncePerGraph() {
+
+        AtomicInteger computeCount = new AtomicInteger();
+        GraphCache<Object> cache = new GraphCache<>(graph -> {
+            computeCount.incrementAndGet();
+            return new Object();
+        });
+        CSRGraph graph = GraphGenerator.generate(20, 0, 1);
+        assertSame(cache.get(graph), cache.get(graph));
+        assertEquals(1, computeCount.get());
+        cache.get(GraphGenerator.generate(20, 0, 1));
+        assertEquals(2, computeCount.get());
+    }
+
+
+    @Test(timeout = 10000)
+    public void slowGraphDoesNotBlockOthers() throws Exception {
+
+        CSRGraph slowGraph = GraphGenerator.generate(20, 0, 1);
+        CSRGraph fastGraph = GraphGenerator.generate(20, 0, 2);
+        CountDownLatch isComputing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        GraphCache<String> cache = new GraphCache<>(graph -> {
+            if (graph == slowGraph) {
+                isComputing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "slow";
+            }
+            return "fast";
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> slow = executor.submit(() -> cache.get(slowGraph));
+            isComputing.await();
+            // A second thread waits for the running computation instead of repeating it
+            Future<String> waiting = executor.submit(() -> cache.get(slowGraph));
+            assertEquals("fast", cache.get(fastGraph));
+            assertFalse(slow.isDone());
+            release.countDown();
+            assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+            assertEquals("slow", waiting.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+
+    @Test
+    public void retriesFailedComputation() {
+
+        AtomicInteger computeCount = new AtomicInteger();
+        GraphCache<String> cache = new GraphCache<>(graph -> {
+            if (computeCount.incrementAndGet() == 1) {
+                throw new IllegalStateException("ERROR: First attempt fails");
+            }
+            return "value";
+        });
+        CSRGraph graph = GraphGenerator.generate(20, 0, 1);
+        try {
+            cache.get(graph);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("ERROR: First attempt fails", e.getMessage());
+        }
+        assertEquals("value", cache.get(graph));
+    }
+}
@@ -0,0 +1,139 @@
+package main.java.util.graph;
+
+import main.java.GraphGenerator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests writing and mapping {@link MappedGraph} snapshots.
+ *
+ * @author Ryan Albertson
+ */
+public class MappedGraphTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+
+    @Test
+    public void roundTripsGraph() throws IOException {
+
+        CSRGraph graph = GraphGenerator.generate(500, 1200, 31);
+        Path file = folder.newFile().toPath();
+        MappedGraph.write(graph, file);
+        MappedGraph mapped = MappedGraph.open(file);
+        assertSameGraph(graph, mapped);
+        assertNotEquals(graph.version(), mapped.version());
+
+        // A snapshot of a snapshot is byte for byte the same file
+        Path copy = folder.newFile().toPath();
+        MappedGraph.write(mapped, copy);
+        assertTrue(Arrays.equals(Files.readAllBytes(file), Files.readAllBytes(copy)));
+    }
+
+
+    @Test
+    public void roundTripsEmptyGraph() throws IOException {
+
+        CSRGraph graph = CSRGraph.fromEdges(3, new int[0], new int[0], new double[0],
+                new double[]{1, 2, 3}, new double[]{4, 5, 6});
+        Path file = folder.newFile().toPath();
+        MappedGraph.write(graph, file);
+        assertSameGraph(graph, MappedGraph.open(file));
+    }
+
+
+    @Test
+    public void rejectsOtherFiles() throws IOException {
+
+        Path file = folder.newFile().toPath();
+        Files.write(file, "not a graph snapshot at all, just text".getBytes());
+        assertRejected(file, "ERROR: Not a graph snapshot");
+    }
+
+
+    @Test
+    public void rejectsTruncatedSnapshot() throws IOException {
+
+        Path file = folder.newFile().toPath();
+        MappedGraph.write(GraphGenerator.generate(50, 0, 32), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+        assertRejected(file, "ERROR: Graph snapshot is truncated");
+    }
+
+
+    @Test
+    public void rejectsUnmappableSnapshot() throws IOException {
+
+        // 16 bytes of arc weights per edge no longer fit in one mapping
+        Path file = folder.newFile().toPath();
+        Files.write(file, header(10, Integer.MAX_VALUE / 16 + 1));
+        try {
+            MappedGraph.open(file);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(
+                    "ERROR: Graph is too large to snapshot"));
+        }
+    }
+
+
+    /**
+     * @return Snapshot header of the current format version.
+     */
+    private static byte[] header(int nodeCount, int edgeCount) {
+
+        ByteBuffer header = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0x52475641).putInt(MappedGraph.FORMAT_VERSION).putInt(nodeCount)
+                .putInt(edgeCount);
+        return header.array();
+    }
+
+
+    private static void assertRejected(Path file, String message) throws IOException {
+
+        try {
+            MappedGraph.open(file);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+
+
+    private static void assertSameGraph(IndexedGraph expected, IndexedGraph actual) {
+
+        assertEquals(expected.nodeCount(), actual.nodeCount());
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+        for (int node = 0; node < expected.nodeCount(); node++) {
+            assertEquals(expected.firstArc(node), actual.firstArc(node));
+            assertEquals(expected.endArc(node), actual.endArc(node));
+            assertEquals(expected.x(node), actual.x(node), 0.0);
+            assertEquals(expected.y(node), actual.y(node), 0.0);
+        }
+        for (int arc = 0; arc < 2 * expected.edgeCount(); arc++) {
+            assertEquals(expected.arcTarget(arc), actual.arcTarget(arc));
+            assertEquals(expected.arcEdge(arc), actual.arcEdge(arc));
+            assertEquals(expected.arcWeight(arc), actual.arcWeight(arc), 0.0);
+        }
+        for (int edge = 0; edge < expected.edgeCount(); edge++) {
+            assertEquals(expected.edgeSource(edge), actual.edgeSource(edge));
+            assertEquals(expected.edgeTarget(edge), actual.edgeTarget(edge));
+            assertEquals(expected.edgeWeight(edge), actual.edgeWeight(edge), 0.0);
+        }
+    }
+}
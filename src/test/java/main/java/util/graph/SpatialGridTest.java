@@ -0,0 +1,139 @@
+package main.java.util.graph;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests {@link SpatialGrid} queries against checking every node.
+ *
+ * @author Ryan Albertson
+ */
+public class SpatialGridTest {
+
+    @Test
+    public void matchesBruteForceOnRandomNodes() {
+
+        for (long seed = 1; seed <= 3; seed++) {
+            SplittableRandom rand = new SplittableRandom(seed);
+            int nodeCount = 1 + rand.nextInt(2000);
+            double[] nodeX = new double[nodeCount];
+            double[] nodeY = new double[nodeCount];
+            for (int node = 0; node < nodeCount; node++) {
+                // Whole pixels, so some nodes share coordinates
+                nodeX[node] = rand.nextInt(800);
+                nodeY[node] = rand.nextInt(500);
+            }
+            assertMatchesBruteForce(graph(nodeX, nodeY), rand);
+        }
+    }
+
+
+    @Test
+    public void matchesBruteForceOnDegenerateLayouts() {
+
+        SplittableRandom rand = new SplittableRandom(4);
+        // All nodes on one vertical line, so the grid is one column wide
+        double[] lineX = new double[300];
+        double[] lineY = new double[300];
+        for (int node = 0; node < lineX.length; node++) {
+            lineX[node] = 40;
+            lineY[node] = rand.nextDouble() * 1000;
+        }
+        assertMatchesBruteForce(graph(lineX, lineY), rand);
+        // A single node
+        assertMatchesBruteForce(graph(new double[]{5}, new double[]{7}), rand);
+        // No nodes at all
+        assertMatchesBruteForce(graph(new double[0], new double[0]), rand);
+    }
+
+
+    /**
+     * Asserts that {@link SpatialGrid#nearest} and
+     * {@link SpatialGrid#forEachInRange} agree with checking every node, for
+     * query points and rectangles inside, around and far outside the nodes.
+     */
+    private static void assertMatchesBruteForce(CSRGraph graph, SplittableRandom rand) {
+
+        SpatialGrid grid = new SpatialGrid(graph);
+        for (int i = 0; i < 500; i++) {
+            double x = rand.nextDouble(-2000, 3000);
+            double y = rand.nextDouble(-2000, 3000);
+            double maxDistance = i % 2 == 0 ? rand.nextDouble(50)
+                    : Double.POSITIVE_INFINITY;
+            int nearest = grid.nearest(x, y, maxDistance);
+            int expected = nearest(graph, x, y, maxDistance);
+            assertEquals(-1 == expected, -1 == nearest);
+            if (-1 != expected) {
+                // Ties may pick either node, so only the distances must match
+                assertEquals(distance(graph, expected, x, y),
+                        distance(graph, nearest, x, y), 0.0);
+            }
+
+            double minX = rand.nextDouble(-2000, 3000);
+            double minY = rand.nextDouble(-2000, 3000);
+            double maxX = minX + rand.nextDouble(1500);
+            double maxY = minY + rand.nextDouble(1500);
+            List<Integer> inRange = new ArrayList<>();
+            grid.forEachInRange(minX, minY, maxX, maxY, inRange::add);
+            Collections.sort(inRange);
+            assertEquals(inRange(graph, minX, minY, maxX, maxY), inRange);
+        }
+    }
+
+
+    /**
+     * @return Closest node to a point within {@code maxDistance}, or -1.
+     */
+    private static int nearest(CSRGraph graph, double x, double y, double maxDistance) {
+
+        int nearestNode = -1;
+        double nearestDistance = maxDistance;
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            double distance = distance(graph, node, x, y);
+            if (distance <= nearestDistance) {
+                nearestDistance = distance;
+                nearestNode = node;
+            }
+        }
+        return nearestNode;
+    }
+
+
+    /**
+     * @return Nodes inside a rectangle, in increasing order.
+     */
+    private static List<Integer> inRange(CSRGraph graph, double minX, double minY,
+                                         double maxX, double maxY) {
+
+        List<Integer> nodes = new ArrayList<>();
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            if (graph.x(node) >= minX && graph.x(node) <= maxX
+                    && graph.y(node) >= minY && graph.y(node) <= maxY) {
+                nodes.add(node);
+            }
+        }
+        return nodes;
+    }
+
+
+    private static double distance(CSRGraph graph, int node, double x, double y) {
+
+        return Math.hypot(graph.x(node) - x, graph.y(node) - y);
+    }
+
+
+    /**
+     * @return A graph with nodes at the given coordinates and no edges.
+     */
+    private static CSRGraph graph(double[] nodeX, double[] nodeY) {
+
+        return CSRGraph.fromEdges(nodeX.length, new int[0], new int[0], new double[0],
+                nodeX, nodeY);
+    }
+}
@@ -0,0 +1,115 @@
+package main.java.util.io;
+
+import main.java.GraphGenerator;
+import main.java.util.graph.CSRGraph;
+import main.java.util.graph.IndexedGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests reading and writing {@link DimacsFormat} files.
+ *
+ * @author Ryan Albertson
+ */
+public class DimacsFormatTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+
+    @Test
+    public void roundTripsGraph() throws IOException {
+
+        CSRGraph graph = GraphGenerator.generate(400, 1000, 51);
+        Path graphFile = folder.newFile("graph.gr").toPath();
+        Path coordFile = folder.newFile("graph.co").toPath();
+        DimacsFormat.write(graph, graphFile, coordFile);
+        CSRGraph read = DimacsFormat.read(graphFile, coordFile);
+
+        assertEquals(graph.nodeCount(), read.nodeCount());
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            assertEquals(graph.x(node), read.x(node), 0.0);
+            assertEquals(graph.y(node), read.y(node), 0.0);
+        }
+        // Both arcs of every edge merge back into one, in any order
+        assertEquals(edgeWeights(graph), edgeWeights(read));
+    }
+
+
+    @Test
+    public void mergesArcsIntoLightestEdge() throws IOException {
+
+        Path graphFile = folder.newFile("graph.gr").toPath();
+        Files.write(graphFile, ("c one-way arcs\np sp 3 4\na 1 2 5\na 2 1 3\na 2 3 4\n"
+                + "a 1 2 9\n").getBytes());
+        CSRGraph graph = DimacsFormat.read(graphFile, null);
+
+        assertEquals(3, graph.nodeCount());
+        assertEquals(2, graph.edgeCount());
+        Map<Long, Double> weights = edgeWeights(graph);
+        assertEquals(3.0, weights.get(key(0, 1)), 0.0);
+        assertEquals(4.0, weights.get(key(1, 2)), 0.0);
+        assertEquals(0.0, graph.x(2), 0.0);
+    }
+
+
+    @Test
+    public void rejectsMalformedFiles() throws IOException {
+
+        assertRejected("a 1 2 3\n", "ERROR: Line 1: Arc before the problem line");
+        assertRejected("p sp 2 1\na 1 3 1\n", "ERROR: Line 2: Node 3 is out of range");
+        assertRejected("p sp 2 1\na 1 2 1\na 2 1 1\n", "ERROR: Line 3: More arcs than the"
+                + " problem line declares");
+        assertRejected("p sp 2 1\nx\n", "ERROR: Line 2: Unknown line type 'x'");
+    }
+
+
+    @Test
+    public void rejectsNegativeWeights() throws IOException {
+
+        assertRejected("p sp 3 2\na 1 2 4\na 2 3 -5\n", "ERROR: Line 3: Negative weight -5.0");
+    }
+
+
+    private void assertRejected(String text, String message) throws IOException {
+
+        Path graphFile = folder.newFile().toPath();
+        Files.write(graphFile, text.getBytes());
+        try {
+            DimacsFormat.read(graphFile, null);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+
+
+    /**
+     * @return Weight of every edge, by its endpoints.
+     */
+    private static Map<Long, Double> edgeWeights(IndexedGraph graph) {
+
+        Map<Long, Double> weights = new HashMap<>();
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            weights.put(key(graph.edgeSource(edge), graph.edgeTarget(edge)),
+                    graph.edgeWeight(edge));
+        }
+        return weights;
+    }
+
+
+    private static long key(int node, int other) {
+
+        return (long) Math.min(node, other) << 32 | Math.max(node, other);
+    }
+}
@@ -0,0 +1,108 @@
+package main.java.util.io;
+
+import main.java.GraphGenerator;
+import main.java.util.graph.CSRGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests reading and writing {@link EdgeListFormat} files.
+ *
+ * @author Ryan Albertson
+ */
+public class EdgeListFormatTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+
+    @Test
+    public void roundTripsGraph() throws IOException {
+
+        CSRGraph graph = GraphGenerator.generate(400, 1000, 41);
+        Path file = folder.newFile().toPath();
+        EdgeListFormat.write(graph, file);
+        CSRGraph read = EdgeListFormat.read(file);
+
+        assertEquals(graph.nodeCount(), read.nodeCount());
+        assertEquals(graph.edgeCount(), read.edgeCount());
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            assertEquals(graph.x(node), read.x(node), 0.0);
+            assertEquals(graph.y(node), read.y(node), 0.0);
+        }
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            assertEquals(graph.edgeSource(edge), read.edgeSource(edge));
+            assertEquals(graph.edgeTarget(edge), read.edgeTarget(edge));
+            assertEquals(graph.edgeWeight(edge), read.edgeWeight(edge), 0.0);
+        }
+    }
+
+
+    @Test
+    public void readsCommentsAndMissingWeights() throws IOException {
+
+        CSRGraph graph = read("# a right triangle\n3 2\n0 0\n3 0\n# comment\n3 4\n"
+                + "0 1\n1 2 7.5\n# trailing comment\n");
+        assertEquals(3, graph.nodeCount());
+        assertEquals(2, graph.edgeCount());
+        assertEquals(3.0, graph.edgeWeight(0), 0.0);
+        assertEquals(7.5, graph.edgeWeight(1), 0.0);
+        assertEquals(4.0, graph.y(2), 0.0);
+    }
+
+
+    @Test
+    public void reportsWhereFileEnds() throws IOException {
+
+        assertRejected("", "ERROR: Line 1: Expected the node and edge counts but the file"
+                + " ended");
+        assertRejected("2 1\n0 0\n", "ERROR: Line 3: Expected the coordinates of node 1"
+                + " but the file ended");
+        assertRejected("2 2\n0 0\n1 1\n0 1\n", "ERROR: Line 5: Expected edge 1 but the"
+                + " file ended");
+    }
+
+
+    @Test
+    public void rejectsMalformedFiles() throws IOException {
+
+        assertRejected("2 1\n0 0\n1 1\n0 2\n", "ERROR: Line 4: Node 2 is out of range");
+        assertRejected("2 1\n0 0\n1 1\n0 1\n1 0\n", "ERROR: Line 5: More edges than the"
+                + " first line declares");
+    }
+
+
+    @Test
+    public void rejectsNegativeWeights() throws IOException {
+
+        assertRejected("3 2\n0 0\n1 1\n2 2\n0 1 4\n1 2 -5\n", "ERROR: Line 6: Negative"
+                + " weight -5.0");
+    }
+
+
+    private CSRGraph read(String text) throws IOException {
+
+        Path file = folder.newFile().toPath();
+        Files.write(file, text.getBytes());
+        return EdgeListFormat.read(file);
+    }
+
+
+    private void assertRejected(String text, String message) throws IOException {
+
+        try {
+            read(text);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+}
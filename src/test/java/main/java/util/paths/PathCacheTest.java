@@ -0,0 +1,215 @@
+package main.java.util.paths;
+
+import main.java.GraphGenerator;
+import main.java.util.algorithms.Dijkstra;
+import main.java.util.algorithms.StepSink;
+import main.java.util.graph.CSRGraph;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests {@link PathCache} and {@link ShortestPathTree}.
+ *
+ * @author Ryan Albertson
+ */
+public class PathCacheTest {
+
+    @Test
+    public void treeReplaysDijkstrasSteps() {
+
+        CSRGraph graph = GraphGenerator.generate(1000, 3000, 11);
+        SplittableRandom rand = new SplittableRandom(11);
+        for (int i = 0; i < 5; i++) {
+            int sourceNode = rand.nextInt(graph.nodeCount());
+            ShortestPathTree tree = ShortestPathTree.compute(graph, sourceNode);
+            for (int j = 0; j < 5; j++) {
+                int targetNode = rand.nextInt(graph.nodeCount());
+                ListSink searched = new ListSink();
+                new Dijkstra(graph, searched, sourceNode, targetNode).run();
+                ListSink replayed = new ListSink();
+                tree.replaySearch(targetNode, replayed);
+                assertEquals(searched.steps, replayed.steps);
+            }
+        }
+    }
+
+
+    @Test
+    public void reusesTreeWhenOnlyTargetChanges() {
+
+        CSRGraph graph = GraphGenerator.generate(500, 1500, 12);
+        PathCache cache = new PathCache(1L << 20);
+        ShortestPathTree tree = cache.tree(graph, 4);
+        assertSame(tree, cache.tree(graph, 4));
+
+        for (int targetNode = 0; targetNode < 20; targetNode++) {
+            PathResult result = cache.query(graph, "A*", 4, targetNode);
+            assertEquals(tree.distance(targetNode), result.distance(), 1e-9);
+            int[] path = result.path();
+            assertEquals(4, path[0]);
+            assertEquals(targetNode, path[path.length - 1]);
+        }
+        // Every query missed its result but hit the tree
+        assertEquals(21, cache.hitCount());
+    }
+
+
+    @Test
+    public void chargesTreeResultsOnlyForTheirPath() {
+
+        CSRGraph graph = GraphGenerator.generate(500, 1500, 17);
+        long treeWords = ShortestPathTree.compute(graph, 4).words();
+        // Room for the tree and its results, but not for another predecessor array
+        PathCache cache = new PathCache(treeWords + graph.nodeCount() / 2);
+        ShortestPathTree tree = cache.tree(graph, 4);
+        long expectedWords = treeWords;
+        for (int targetNode = 0; targetNode < 20; targetNode++) {
+            PathResult result = cache.query(graph, "Dijkstra", 4, targetNode);
+            expectedWords += result.path().length / 2 + 2;
+        }
+        assertEquals(expectedWords, cache.words());
+        assertSame(tree, cache.tree(graph, 4));
+    }
+
+
+    @Test
+    public void missesAfterGraphIsRebuilt() {
+
+        CSRGraph graph = GraphGenerator.generate(200, 600, 13);
+        CSRGraph rebuilt = GraphGenerator.generate(200, 600, 13);
+        PathCache cache = new PathCache(1L << 20);
+        ShortestPathTree tree = cache.tree(graph, 0);
+        assertNotSame(tree, cache.tree(rebuilt, 0));
+
+        cache.invalidate(graph.version());
+        assertNotSame(tree, cache.tree(graph, 0));
+    }
+
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+
+        CSRGraph graph = GraphGenerator.generate(200, 600, 14);
+        long treeWords = ShortestPathTree.compute(graph, 0).words();
+        PathCache cache = new PathCache(2 * treeWords);
+        ShortestPathTree tree0 = cache.tree(graph, 0);
+        ShortestPathTree tree1 = cache.tree(graph, 1);
+        assertSame(tree0, cache.tree(graph, 0));
+        // Evicts the tree of node 1, which was used least recently
+        cache.tree(graph, 2);
+        assertSame(tree0, cache.tree(graph, 0));
+        assertNotSame(tree1, cache.tree(graph, 1));
+        assertEquals(2 * treeWords, cache.words());
+    }
+
+
+    @Test(timeout = 30000)
+    public void buildsTreeOnceForConcurrentCallers() throws Exception {
+
+        CSRGraph graph = GraphGenerator.generate(100000, 300000, 15);
+        PathCache cache = new PathCache(1L << 24);
+        int threadCount = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<ShortestPathTree>> trees = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                trees.add(executor.submit(() -> {
+                    start.await();
+                    return cache.tree(graph, 7);
+                }));
+            }
+            start.countDown();
+            ShortestPathTree tree = trees.get(0).get();
+            for (Future<ShortestPathTree> other : trees) assertSame(tree, other.get());
+            // Only the first caller built the tree, the rest waited for it
+            assertEquals(1, cache.missCount());
+            assertEquals(threadCount - 1, cache.hitCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    @Test
+    public void retriesFailedTree() {
+
+        CSRGraph graph = GraphGenerator.generate(200, 600, 16);
+        PathCache cache = new PathCache(1L << 20);
+        try {
+            cache.tree(graph, graph.nodeCount());
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+        }
+        try {
+            cache.tree(graph, graph.nodeCount());
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+        }
+        assertEquals(2, cache.missCount());
+        assertEquals(0, cache.words());
+    }
+
+
+    /**
+     * Keeps every step it's given, in order.
+     */
+    private static final class ListSink implements StepSink {
+
+        private final List<String> steps = new ArrayList<>();
+
+
+        @Override
+        public void reset() {
+
+            steps.clear();
+        }
+
+
+        @Override
+        public void visitEdge(int edge) {
+
+            steps.add("visit " + edge);
+        }
+
+
+        @Override
+        public void unvisitEdge(int edge) {
+
+            steps.add("unvisit " + edge);
+        }
+
+
+        @Override
+        public void clearVisitedEdges() {
+
+            steps.add("clear");
+        }
+
+
+        @Override
+        public void setPredecessor(int node, int predecessor) {
+
+            steps.add(node + " <- " + predecessor);
+        }
+
+
+        @Override
+        public void step(int speedUp) {
+
+            steps.add("step " + speedUp);
+        }
+    }
+}
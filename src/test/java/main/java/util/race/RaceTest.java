@@ -0,0 +1,91 @@
+package main.java.util.race;
+
+import main.java.GraphGenerator;
+import main.java.util.graph.CSRGraph;
+import main.java.util.runner.AlgorithmRunner;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link Race}.
+ *
+ * @author Ryan Albertson
+ */
+public class RaceTest {
+
+    @Test(timeout = 30000)
+    public void timesWorkWithoutPacingOrPauses() throws InterruptedException {
+
+        CSRGraph graph = GraphGenerator.generate(40, 0, 71);
+        int speed = 10;
+        Race race = new Race(graph, List.of("Breadth-First Search", "Dijkstra"), 0, 39,
+                () -> speed);
+        AlgorithmRunner runner = new AlgorithmRunner();
+        try {
+            long start = System.nanoTime();
+            race.start(runner);
+            Thread.sleep(50);
+            race.pause();
+            Thread.sleep(200);
+            race.unPause();
+            while (race.isRunning()) Thread.sleep(5);
+            long wallNanos = System.nanoTime() - start;
+
+            for (RaceLane lane : race.lanes()) {
+                assertTrue(lane.place() > 0);
+                long pacedNanos = TimeUnit.MILLISECONDS.toNanos(speed * (lane.steps() - 1));
+                assertTrue(lane.algName(), lane.computeNanos() > 0);
+                assertTrue(lane.algName(), lane.computeNanos() < wallNanos - pacedNanos);
+            }
+        } finally {
+            runner.shutdownNow();
+        }
+    }
+
+
+    @Test(timeout = 30000)
+    public void findsSamePathsAsAlone() throws InterruptedException {
+
+        CSRGraph graph = GraphGenerator.generate(300, 0, 72);
+        Race race = new Race(graph, List.of("Dijkstra", "A*", "Bidirectional Dijkstra"),
+                0, 299, () -> 0);
+        AlgorithmRunner runner = new AlgorithmRunner();
+        try {
+            race.start(runner);
+            while (race.isRunning()) Thread.sleep(5);
+        } finally {
+            runner.shutdownNow();
+        }
+        double expected = -1;
+        for (RaceLane lane : race.lanes()) {
+            double weight = 0.0;
+            for (int node = 299; node != 0; node = lane.predecessor(node)) {
+                assertFalse(lane.predecessor(node) < 0);
+                weight += edgeWeight(graph, lane.predecessor(node), node);
+            }
+            if (expected < 0) expected = weight;
+            assertEquals(lane.algName(), expected, weight, 1e-6);
+        }
+    }
+
+
+    /**
+     * @return Weight of the lightest edge between two nodes.
+     */
+    private static double edgeWeight(CSRGraph graph, int node, int adjNode) {
+
+        double weight = Double.POSITIVE_INFINITY;
+        for (int arc = graph.firstArc(node); arc < graph.endArc(node); arc++) {
+            if (graph.arcTarget(arc) == adjNode) {
+                weight = Math.min(weight, graph.arcWeight(arc));
+            }
+        }
+        return weight;
+    }
+}
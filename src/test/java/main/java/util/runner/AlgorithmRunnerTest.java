@@ -0,0 +1,218 @@
+package main.java.util.runner;
+
+import main.java.GraphGenerator;
+import main.java.util.algorithms.Algorithm;
+import main.java.util.algorithms.Dijkstra;
+import main.java.util.algorithms.StepSink;
+import main.java.util.graph.CSRGraph;
+import main.java.util.trace.StepLog;
+import main.java.util.trace.TracePlayer;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that cancelling the {@link java.util.concurrent.Future} of an
+ * {@link AlgorithmRunner} task stops paced, unpaced and paused algorithms and
+ * playbacks.
+ *
+ * @author Ryan Albertson
+ */
+public class AlgorithmRunnerTest {
+
+    private static final CSRGraph GRAPH = GraphGenerator.generate(2000, 6000, 1);
+
+
+    @Test(timeout = 10000)
+    public void cancelStopsPacedAlgorithm() throws Exception {
+
+        assertCancelStopsAlgorithm(new GateSink(60000, false), false);
+    }
+
+
+    @Test(timeout = 10000)
+    public void cancelStopsUnpacedAlgorithm() throws Exception {
+
+        assertCancelStopsAlgorithm(new GateSink(0, true), false);
+    }
+
+
+    @Test(timeout = 10000)
+    public void cancelStopsPausedAlgorithm() throws Exception {
+
+        assertCancelStopsAlgorithm(new GateSink(0, false), true);
+    }
+
+
+    @Test(timeout = 10000)
+    public void cancelStopsPacedPlayback() throws Exception {
+
+        assertCancelStopsPlayback(new GateSink(60000, false), false);
+    }
+
+
+    @Test(timeout = 10000)
+    public void cancelStopsUnpacedPlayback() throws Exception {
+
+        assertCancelStopsPlayback(new GateSink(0, true), false);
+    }
+
+
+    @Test(timeout = 10000)
+    public void cancelStopsPausedPlayback() throws Exception {
+
+        assertCancelStopsPlayback(new GateSink(0, false), true);
+    }
+
+
+    @Test(timeout = 10000)
+    public void shutdownNowStopsUnpacedAlgorithm() throws Exception {
+
+        AlgorithmRunner runner = new AlgorithmRunner();
+        GateSink sink = new GateSink(0, true);
+        Algorithm algorithm = new Dijkstra(GRAPH, sink, 0, Algorithm.NO_NODE);
+        runner.submit(algorithm);
+        sink.started.await();
+        runner.shutdownNow();
+        awaitFinished(() -> !algorithm.isAlive());
+        assertTrue(algorithm.wasStopped());
+    }
+
+
+    /**
+     * Starts a search, cancels it after its first step, and asserts that it
+     * stops early. If {@code isPaused}, the search is paused at that step.
+     */
+    private static void assertCancelStopsAlgorithm(GateSink sink, boolean isPaused)
+            throws Exception {
+
+        AlgorithmRunner runner = new AlgorithmRunner();
+        try {
+            Algorithm algorithm = new Dijkstra(GRAPH, sink, 0, Algorithm.NO_NODE);
+            if (isPaused) sink.onStarted = algorithm::pause;
+            Future<?> future = runner.submit(algorithm);
+            sink.started.await();
+            future.cancel(true);
+            awaitFinished(() -> !algorithm.isAlive());
+            assertTrue(algorithm.wasStopped());
+        } finally {
+            runner.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Starts playing a recorded search, cancels it after its first step, and
+     * asserts that it stops early. If {@code isPaused}, the playback is paused
+     * at that step.
+     */
+    private static void assertCancelStopsPlayback(GateSink sink, boolean isPaused)
+            throws Exception {
+
+        StepLog log = new StepLog(GRAPH.nodeCount(), GRAPH.edgeCount());
+        new Dijkstra(GRAPH, log, 0, Algorithm.NO_NODE).run();
+        AlgorithmRunner runner = new AlgorithmRunner();
+        try {
+            TracePlayer player = new TracePlayer(log, sink, sink::speed);
+            if (isPaused) sink.onStarted = player::pause;
+            Future<?> future = runner.submit(player);
+            sink.started.await();
+            future.cancel(true);
+            awaitFinished(() -> !player.isAlive());
+            assertTrue(player.position() < player.length());
+        } finally {
+            runner.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Waits until {@code isFinished} holds. The test times out otherwise.
+     */
+    private static void awaitFinished(BooleanSupplier isFinished)
+            throws InterruptedException {
+
+        while (!isFinished.getAsBoolean()) Thread.sleep(1);
+    }
+
+
+    /**
+     * A {@link StepSink} that signals the first step, and can hold it until
+     * its thread is interrupted or pause the run at it.
+     */
+    private static final class GateSink implements StepSink {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final int speed;
+        private final boolean isHeld;
+        // Runs at the first step, before it's signalled
+        private Runnable onStarted = () -> { };
+
+
+        /**
+         * @param speed  Milliseconds to pause after each step.
+         * @param isHeld True to hold the first step until an interrupt.
+         */
+        private GateSink(int speed, boolean isHeld) {
+
+            this.speed = speed;
+            this.isHeld = isHeld;
+        }
+
+
+        @Override
+        public void reset() {
+
+        }
+
+
+        @Override
+        public void visitEdge(int edge) {
+
+        }
+
+
+        @Override
+        public void unvisitEdge(int edge) {
+
+        }
+
+
+        @Override
+        public void clearVisitedEdges() {
+
+        }
+
+
+        @Override
+        public void setPredecessor(int node, int predecessor) {
+
+        }
+
+
+        @Override
+        public void step(int speedUp) {
+
+            if (started.getCount() == 0) return;
+            onStarted.run();
+            started.countDown();
+            if (!isHeld) return;
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+
+        @Override
+        public int speed() {
+
+            return speed;
+        }
+    }
+}
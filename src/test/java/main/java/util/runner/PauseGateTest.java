@@ -0,0 +1,96 @@
+package main.java.util.runner;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests {@link PauseGate}.
+ *
+ * @author Ryan Albertson
+ */
+public class PauseGateTest {
+
+    @Test(timeout = 10000)
+    public void interruptCutsPaceShort() throws Exception {
+
+        PauseGate gate = new PauseGate();
+        assertInterruptible(() -> gate.pace(60000));
+    }
+
+
+    @Test(timeout = 10000)
+    public void interruptReleasesPausedThread() throws Exception {
+
+        PauseGate gate = new PauseGate();
+        gate.pause();
+        assertInterruptible(gate::awaitResume);
+    }
+
+
+    @Test(timeout = 10000)
+    public void closeReleasesWaitingThreads() throws Exception {
+
+        PauseGate gate = new PauseGate();
+        gate.pause();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> paused = executor.submit(() -> {
+                gate.awaitResume();
+                return null;
+            });
+            Future<?> paced = executor.submit(() -> {
+                gate.pace(60000);
+                return null;
+            });
+            gate.close();
+            paused.get(5, TimeUnit.SECONDS);
+            paced.get(5, TimeUnit.SECONDS);
+            assertFalse(gate.isPaused());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Asserts that interrupting a thread blocked in {@code wait} makes it
+     * throw {@link InterruptedException}.
+     */
+    private static void assertInterruptible(Wait wait) throws Exception {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            started.countDown();
+            try {
+                wait.run();
+                fail("Returned without being interrupted");
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        thread.start();
+        started.await();
+        thread.interrupt();
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        thread.join();
+    }
+
+
+    /**
+     * A wait on a {@link PauseGate}.
+     */
+    private interface Wait {
+
+        void run() throws InterruptedException;
+    }
+}
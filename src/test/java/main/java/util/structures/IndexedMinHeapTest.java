@@ -0,0 +1,123 @@
+package main.java.util.structures;
+
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests {@link IndexedMinHeap} against a {@link PriorityQueue} that queues
+ * duplicate entries instead of decreasing keys.
+ *
+ * @author Ryan Albertson
+ */
+public class IndexedMinHeapTest {
+
+    @Test
+    public void pollsLikePriorityQueue() {
+
+        for (int arity : new int[]{2, 4, 8}) {
+            for (long seed = 1; seed <= 3; seed++) {
+                assertSameOrder(arity, 500, 20000, seed);
+            }
+        }
+    }
+
+
+    @Test
+    public void decreaseKeyRejectsIdsNotInHeap() {
+
+        IndexedMinHeap heap = new IndexedMinHeap(4, 4);
+        heap.insert(1, 5.0);
+        heap.poll();
+        try {
+            heap.decreaseKey(1, 1.0);
+            fail("Decreased the key of a polled id");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            heap.decreaseKey(2, 1.0);
+            fail("Decreased the key of an id never inserted");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+
+    @Test
+    public void rejectsOtherArities() {
+
+        for (int arity : new int[]{0, 1, 3, 16}) {
+            try {
+                new IndexedMinHeap(4, arity);
+                fail("Accepted arity " + arity);
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+
+    /**
+     * Asserts that a heap polls ids in the same order as a
+     * {@link PriorityQueue} given the same random inserts, decreases and polls.
+     * Keys are random doubles, so they're distinct and the order is unique.
+     */
+    private static void assertSameOrder(int arity, int capacity, int opCount,
+                                        long seed) {
+
+        IndexedMinHeap heap = new IndexedMinHeap(capacity, arity);
+        // Entries are {key, id}. Entries whose key is no longer the id's key
+        // are stale and skipped
+        PriorityQueue<double[]> queue =
+                new PriorityQueue<>(Comparator.comparingDouble(entry -> entry[0]));
+        double[] keys = new double[capacity];
+        boolean[] isQueued = new boolean[capacity];
+        SplittableRandom rand = new SplittableRandom(seed);
+
+        for (int i = 0; i < opCount; i++) {
+            int id = rand.nextInt(capacity);
+            int op = rand.nextInt(3);
+            if (op == 0 && !isQueued[id]) {
+                keys[id] = rand.nextDouble();
+                isQueued[id] = true;
+                heap.insert(id, keys[id]);
+                queue.add(new double[]{keys[id], id});
+            } else if (op == 1 && isQueued[id]) {
+                keys[id] *= rand.nextDouble();
+                heap.decreaseKey(id, keys[id]);
+                queue.add(new double[]{keys[id], id});
+            } else if (op == 2 && !heap.isEmpty()) {
+                int expected = pollLive(queue, keys, isQueued);
+                assertEquals(expected, heap.poll());
+            }
+            assertEquals(heap.contains(id), isQueued[id]);
+        }
+        while (!heap.isEmpty()) {
+            assertEquals(pollLive(queue, keys, isQueued), heap.poll());
+        }
+        for (int id = 0; id < capacity; id++) assertFalse(isQueued[id]);
+    }
+
+
+    /**
+     * @return The id of the first entry of {@code queue} that isn't stale.
+     */
+    private static int pollLive(PriorityQueue<double[]> queue, double[] keys,
+                                boolean[] isQueued) {
+
+        while (true) {
+            double[] entry = queue.poll();
+            int id = (int) entry[1];
+            if (isQueued[id] && keys[id] == entry[0]) {
+                isQueued[id] = false;
+                return id;
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package main.java.util.trace;
+
+import main.java.util.Defs;
+import main.java.util.algorithms.Algorithm;
+import main.java.util.algorithms.CountingSink;
+import main.java.util.algorithms.StepSink;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link StepLog}.
+ *
+ * @author Ryan Albertson
+ */
+public class StepLogTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEdgeOutOfRange() {
+
+        new StepLog(4, 3).visitEdge(3);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeEdge() {
+
+        new StepLog(4, 3).unvisitEdge(-1);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownFrontier() {
+
+        new StepLog(4, 3).visitEdge(0, 2);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsPredecessorOutOfRange() {
+
+        new StepLog(4, 3).setPredecessor(1, Integer.MAX_VALUE);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNodeOutOfRange() {
+
+        new StepLog(4, 3).setPredecessor(4, 0);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsGraphTooLargeToRecord() {
+
+        new StepLog(1 << 30, 0);
+    }
+
+
+    @Test
+    public void playsBackRemovedPredecessor() {
+
+        StepLog log = new StepLog(4, 3);
+        log.setPredecessor(1, 0);
+        log.step(0);
+        log.setPredecessor(1, Algorithm.NO_NODE);
+        log.step(0);
+
+        TraceState state = log.newState();
+        log.stateAt(1, state);
+        assertEquals(1, predecessorCount(state));
+        log.stateAt(2, state);
+        assertEquals(0, predecessorCount(state));
+
+        long op = log.op(log.opEnd(1));
+        assertEquals(StepLog.PREDECESSOR, StepLog.opcode(op));
+        assertEquals(Algorithm.NO_NODE, StepLog.predecessor(op));
+    }
+
+
+    /**
+     * @return Number of nodes with a predecessor in a state.
+     */
+    private static int predecessorCount(TraceState state) {
+
+        CountingSink sink = new CountingSink();
+        state.copyTo(sink);
+        return (int) sink.getPredecessorUpdates();
+    }
+
+
+    @Test
+    public void seeksToEveryStepFromKeyframes() {
+
+        StepLog log = randomLog(50, 200, 20 * Defs.KEYFRAME_INTERVAL, 3);
+        TraceState state = log.newState();
+        TraceState replayed = log.newState();
+        int opIndex = 0;
+        for (int step = 0; step <= log.stepCount(); step++) {
+            // Replay every operation from the start, without keyframes
+            for (; opIndex < log.opEnd(step); opIndex++) replayed.apply(log.op(opIndex));
+            log.stateAt(step, state);
+            assertEquals("step " + step, snapshot(replayed), snapshot(state));
+        }
+    }
+
+
+    @Test
+    public void playerSeeksForwardsAndBackwards() {
+
+        StepLog log = randomLog(30, 80, 10 * Defs.KEYFRAME_INTERVAL, 4);
+        SnapshotSink sink = new SnapshotSink();
+        TracePlayer player = new TracePlayer(log, sink, () -> 0);
+        TraceState state = log.newState();
+        SplittableRandom rand = new SplittableRandom(3);
+        for (int i = 0; i < 100; i++) {
+            int step = rand.nextInt(log.stepCount() + 1);
+            player.seek(step);
+            log.stateAt(step, state);
+            assertEquals(step, player.position());
+            assertEquals("step " + step, snapshot(state), sink.toString());
+        }
+        player.seek(log.stepCount() + 5);
+        assertEquals(log.stepCount(), player.position());
+    }
+
+
+    /**
+     * Records random operations on a graph.
+     *
+     * @param nodeCount  Number of nodes.
+     * @param edgeCount  Number of edges.
+     * @param stepCount  Number of steps.
+     * @param opsPerStep Maximum number of operations per step.
+     * @return The log.
+     */
+    private static StepLog randomLog(int nodeCount, int edgeCount, int stepCount,
+                                     int opsPerStep) {
+
+        SplittableRandom rand = new SplittableRandom(stepCount);
+        StepLog log = new StepLog(nodeCount, edgeCount);
+        for (int step = 0; step < stepCount; step++) {
+            for (int i = rand.nextInt(opsPerStep + 1); i > 0; i--) {
+                int choice = rand.nextInt(100);
+                if (choice < 50) {
+                    log.visitEdge(rand.nextInt(edgeCount), rand.nextInt(2));
+                } else if (choice < 70) {
+                    log.unvisitEdge(rand.nextInt(edgeCount));
+                } else if (choice < 72) {
+                    log.clearVisitedEdges();
+                } else if (choice < 95) {
+                    log.setPredecessor(rand.nextInt(nodeCount), rand.nextInt(nodeCount));
+                } else {
+                    log.setPredecessor(rand.nextInt(nodeCount), Algorithm.NO_NODE);
+                }
+            }
+            log.step(rand.nextInt(2) * StepSink.INSTANT);
+        }
+        return log;
+    }
+
+
+    /**
+     * @return The visible contents of a state, comparable as a string.
+     */
+    private static String snapshot(TraceState state) {
+
+        SnapshotSink sink = new SnapshotSink();
+        state.copyTo(sink);
+        return sink.toString();
+    }
+
+
+    /**
+     * Keeps the visited edges and predecessors it's given, in order.
+     */
+    private static final class SnapshotSink implements StepSink {
+
+        private final Map<Integer, Integer> frontiers = new TreeMap<>();
+        private final Map<Integer, Integer> predecessors = new TreeMap<>();
+
+
+        @Override
+        public void reset() {
+
+            frontiers.clear();
+            predecessors.clear();
+        }
+
+
+        @Override
+        public void visitEdge(int edge) {
+
+            frontiers.put(edge, FORWARD);
+        }
+
+
+        @Override
+        public void visitEdge(int edge, int frontier) {
+
+            frontiers.put(edge, frontier);
+        }
+
+
+        @Override
+        public void unvisitEdge(int edge) {
+
+            frontiers.remove(edge);
+        }
+
+
+        @Override
+        public void clearVisitedEdges() {
+
+            frontiers.clear();
+        }
+
+
+        @Override
+        public void setPredecessor(int node, int predecessor) {
+
+            predecessors.put(node, predecessor);
+        }
+
+
+        @Override
+        public void step(int speedUp) {
+
+        }
+
+
+        @Override
+        public String toString() {
+
+            return frontiers + " " + predecessors;
+        }
+    }
+}